@@ -0,0 +1,113 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load driver for comparing the answer and leaderboard execution modes.
+ *
+ * Starts the given number of concurrent clients, each on its own virtual thread, and has every client alternate
+ * between submitting an answer and reading the leaderboard for the given duration. Prints throughput, latency
+ * percentiles and failures. Start the application once per mode and run this against each:
+ *
+ * <pre>
+ * java -Dtrivia.api.execution-mode=worker -jar target/quarkus-app/quarkus-run.jar
+ * java benchmark/ExecutionModeBenchmark.java [baseUrl] [clients] [seconds]
+ * </pre>
+ *
+ * Defaults are http://localhost:8080, 10000 clients and 30 seconds.
+ */
+public class ExecutionModeBenchmark {
+
+    private static final Pattern QUESTION_ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+        String[] question = question(client, baseUrl);
+
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong failures = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                String username = "bench-" + i;
+                executor.submit(() -> latencies.add(runClient(client, baseUrl, username, question, deadline, failures)));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("clients %d, %d requests in %.1f s: %.0f req/s, %d failures%n",
+            clients, all.length, elapsedNanos / 1e9, all.length * 1e9 / elapsedNanos, failures.get());
+        if (all.length > 0) {
+            System.out.printf("latency p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                percentile(all, 50) / 1e6, percentile(all, 99) / 1e6, all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static long[] runClient(HttpClient client, String baseUrl, String username, String[] question,
+                                    long deadline, AtomicLong failures) {
+        HttpRequest answer = HttpRequest.newBuilder(URI.create(baseUrl + "/api/answers"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"username\":\"" + username + "\",\"questionId\":\"" + question[0]
+                    + "\",\"selectedAnswer\":\"A\",\"token\":\"" + question[1] + "\"}"))
+            .build();
+        HttpRequest leaderboard = HttpRequest.newBuilder(URI.create(baseUrl + "/api/leaderboard?limit=10")).build();
+
+        List<Long> samples = new ArrayList<>();
+        boolean submit = true;
+        while (System.nanoTime() < deadline) {
+            long sentAt = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(submit ? answer : leaderboard,
+                    HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+            } catch (Exception e) {
+                failures.incrementAndGet();
+            }
+            samples.add(System.nanoTime() - sentAt);
+            submit = !submit;
+        }
+        return samples.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Fetches a question and returns its ID and the token to answer it with.
+     */
+    private static String[] question(HttpClient client, String baseUrl) throws Exception {
+        String body = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/questions/random")).build(),
+            HttpResponse.BodyHandlers.ofString()).body();
+        Matcher id = QUESTION_ID.matcher(body);
+        Matcher token = TOKEN.matcher(body);
+        if (!id.find() || !token.find()) {
+            throw new IllegalStateException("No question ID or token in response: " + body);
+        }
+        return new String[] {id.group(1), token.group(1)};
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
@@ -1,32 +1,46 @@
 package com.redhat.demos.redhatone2026;
 
 import com.redhat.demos.redhatone2026.model.AnswerResponse;
+import com.redhat.demos.redhatone2026.model.AnswerResult;
 import com.redhat.demos.redhatone2026.model.AnswerSubmission;
 import com.redhat.demos.redhatone2026.service.AnswerService;
 import io.quarkus.logging.Log;
+import io.smallrye.common.annotation.NonBlocking;
+import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST resource for answer submission API endpoints.
  * Provides access to answer validation and score tracking.
+ * Requests are handled in the mode configured on RequestExecutor. On the event loop, answers are validated
+ * in memory and queued for the leaderboard writer, which rejects rather than blocks when its buffer is full.
  */
+@NonBlocking
 @Path("/api/answers")
 public class AnswerResource {
 
     private final AnswerService answerService;
+    private final RequestExecutor requestExecutor;
 
-    public AnswerResource(AnswerService answerService) {
+    public AnswerResource(AnswerService answerService, RequestExecutor requestExecutor) {
         if (answerService == null) {
             throw new IllegalArgumentException("AnswerService cannot be null");
         }
+        if (requestExecutor == null) {
+            throw new IllegalArgumentException("RequestExecutor cannot be null");
+        }
         this.answerService = answerService;
+        this.requestExecutor = requestExecutor;
     }
 
     /**
@@ -36,12 +50,17 @@ public class AnswerResource {
      * @return AnswerResponse with HTTP 200 if successful,
      *         HTTP 400 for invalid input,
      *         HTTP 404 if question not found,
+     *         HTTP 503 if the leaderboard cannot accept more answers right now,
      *         HTTP 500 for unexpected errors
      */
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Response submitAnswer(AnswerSubmission submission) {
+    public Uni<Response> submitAnswer(AnswerSubmission submission) {
+        return requestExecutor.run(() -> answer(submission));
+    }
+
+    private Response answer(AnswerSubmission submission) {
         Log.debugf("Received answer submission: %s", submission);
         try {
             Optional<AnswerResponse> answerResponse = answerService.submitAnswer(submission);
@@ -54,6 +73,41 @@ public class AnswerResource {
 
         } catch (IllegalArgumentException e) {
             return Response.status(400).entity(e.getMessage()).build();
+        } catch (RejectedExecutionException e) {
+            return Response.status(503).header(HttpHeaders.RETRY_AFTER, 1).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            return Response.status(500).entity("Internal server error").build();
+        }
+    }
+
+    /**
+     * Submits a batch of answers for validation.
+     * Each submission gets its own result, in order; invalid submissions are reported in their result.
+     *
+     * @param submissions the answer submissions
+     * @return List of AnswerResult with HTTP 200 if the batch was processed,
+     *         HTTP 400 if the batch is missing, empty, or too large,
+     *         HTTP 503 if the leaderboard cannot accept more answers right now,
+     *         HTTP 500 for unexpected errors
+     */
+    @POST
+    @Path("/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<Response> submitAnswers(List<AnswerSubmission> submissions) {
+        return requestExecutor.run(() -> answerBatch(submissions));
+    }
+
+    private Response answerBatch(List<AnswerSubmission> submissions) {
+        Log.debugf("Received batch of %d answer submissions", submissions == null ? 0 : submissions.size());
+        try {
+            List<AnswerResult> results = answerService.submitAnswers(submissions);
+            return Response.ok(results).build();
+
+        } catch (IllegalArgumentException e) {
+            return Response.status(400).entity(e.getMessage()).build();
+        } catch (RejectedExecutionException e) {
+            return Response.status(503).header(HttpHeaders.RETRY_AFTER, 1).entity(e.getMessage()).build();
         } catch (Exception e) {
             return Response.status(500).entity("Internal server error").build();
         }
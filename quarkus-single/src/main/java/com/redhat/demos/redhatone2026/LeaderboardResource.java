@@ -1,50 +1,229 @@
 package com.redhat.demos.redhatone2026;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.demos.redhatone2026.model.LeaderboardEntry;
+import com.redhat.demos.redhatone2026.model.LeaderboardPage;
+import com.redhat.demos.redhatone2026.model.PlayerStanding;
+import com.redhat.demos.redhatone2026.service.LeaderboardBroadcaster;
 import com.redhat.demos.redhatone2026.service.LeaderboardService;
 import io.quarkus.logging.Log;
+import io.smallrye.common.annotation.NonBlocking;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * REST resource for leaderboard API endpoints.
  * Provides access to current leaderboard rankings with scores and calculated ranks.
+ * Requests are handled in the mode configured on RequestExecutor; rankings are read from in-memory snapshots,
+ * so the event loop mode suits them unless blocking I/O is added to these paths.
  */
+@NonBlocking
 @Path("/api/leaderboard")
 public class LeaderboardResource {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int FULL_LEADERBOARD = 0;
+    private static final CacheControl REVALIDATE = revalidate();
+
     private final LeaderboardService leaderboardService;
+    private final LeaderboardBroadcaster leaderboardBroadcaster;
+    private final ObjectMapper objectMapper;
+    private final RequestExecutor requestExecutor;
+    private final ConcurrentHashMap<Integer, SerializedLeaderboard> serializedLeaderboards = new ConcurrentHashMap<>();
 
-    public LeaderboardResource(LeaderboardService leaderboardService) {
+    public LeaderboardResource(LeaderboardService leaderboardService, LeaderboardBroadcaster leaderboardBroadcaster,
+                               ObjectMapper objectMapper, RequestExecutor requestExecutor) {
         if (leaderboardService == null) {
             throw new IllegalArgumentException("LeaderboardService cannot be null");
         }
+        if (leaderboardBroadcaster == null) {
+            throw new IllegalArgumentException("LeaderboardBroadcaster cannot be null");
+        }
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("ObjectMapper cannot be null");
+        }
+        if (requestExecutor == null) {
+            throw new IllegalArgumentException("RequestExecutor cannot be null");
+        }
         this.leaderboardService = leaderboardService;
+        this.leaderboardBroadcaster = leaderboardBroadcaster;
+        this.objectMapper = objectMapper;
+        this.requestExecutor = requestExecutor;
     }
 
     /**
      * Retrieves the current leaderboard with rankings.
+     * Without parameters the complete leaderboard is returned. When a limit or cursor is given,
+     * a single page is returned and the cursor for the following page is sent in the
+     * X-Next-Cursor response header.
+     *
+     * The full leaderboard and first pages are sent as pre-serialized JSON with an ETag derived from
+     * the content. The bytes are reused for as long as the service returns the same snapshot, and a
+     * request whose If-None-Match matches the current ETag receives HTTP 304 without a body.
      *
+     * @param limit the maximum number of entries to return, optional
+     * @param cursor the opaque cursor from a previous page, optional
+     * @param request the request, used to evaluate If-None-Match
      * @return List of LeaderboardEntry with HTTP 200 for success,
+     *         HTTP 304 when the client's copy is current,
+     *         HTTP 400 for an invalid limit or cursor,
      *         HTTP 500 for unexpected errors
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getLeaderboard() {
-        Log.debug("Received request for leaderboard");
+    public Uni<Response> getLeaderboard(@QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor,
+                                        @Context Request request) {
+        return requestExecutor.run(() -> leaderboard(limit, cursor, request));
+    }
+
+    private Response leaderboard(Integer limit, String cursor, Request request) {
+        Log.debugf("Received request for leaderboard: limit=%s, cursor=%s", limit, cursor);
         try {
-            List<LeaderboardEntry> leaderboard = leaderboardService.getLeaderboard();
-            Log.debugf("Returning leaderboard with %d entries", leaderboard.size());
-            return Response.ok(leaderboard).build();
+            SerializedLeaderboard serialized;
+            if (limit == null && cursor == null) {
+                List<LeaderboardEntry> leaderboard = leaderboardService.getLeaderboard();
+                Log.debugf("Returning leaderboard with %d entries", leaderboard.size());
+                serialized = serialize(FULL_LEADERBOARD, leaderboard, null);
+            } else {
+                int pageSize = limit == null ? LeaderboardService.DEFAULT_PAGE_SIZE : limit;
+                LeaderboardPage page = leaderboardService.getLeaderboardPage(pageSize, cursor);
+                Log.debugf("Returning leaderboard page with %d entries", page.entries().size());
+                if (cursor != null && !cursor.isEmpty()) {
+                    // Later pages depend on the cursor, so they are serialized per request and not cached
+                    return withNextCursor(Response.ok(page.entries()), page.nextCursor()).build();
+                }
+                serialized = serialize(pageSize, page.entries(), page.nextCursor());
+            }
+
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(serialized.etag());
+            if (notModified != null) {
+                Log.debugf("Leaderboard unchanged for ETag %s", serialized.etag().getValue());
+                return withNextCursor(notModified, serialized.nextCursor()).cacheControl(REVALIDATE).build();
+            }
+            return withNextCursor(Response.ok(serialized.json(), MediaType.APPLICATION_JSON_TYPE), serialized.nextCursor())
+                    .tag(serialized.etag())
+                    .cacheControl(REVALIDATE)
+                    .build();
 
+        } catch (IllegalArgumentException e) {
+            return Response.status(400).entity(e.getMessage()).build();
         } catch (Exception e) {
             Log.errorf(e, "Error retrieving leaderboard");
             return Response.status(500).entity("Internal server error").build();
         }
     }
+
+    /**
+     * Streams the top of the leaderboard as Server-Sent Events.
+     * Each event carries a JSON array of LeaderboardEntry; the current leaderboard is sent on connect
+     * and a new event follows whenever the rankings change, at most once per stream interval.
+     *
+     * @return Multi of serialized leaderboard frames
+     */
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<String> streamLeaderboard() {
+        Log.debug("Received request for leaderboard stream");
+        return leaderboardBroadcaster.stream();
+    }
+
+    /**
+     * Retrieves a single player's rank and score with the players ranked around them.
+     * Standings live under /players, so no username can collide with fixed paths such as /stream.
+     *
+     * @param username the username
+     * @param neighbours the number of entries to include above and below, optional
+     * @return PlayerStanding with HTTP 200 for success,
+     *         HTTP 400 for an invalid neighbours value,
+     *         HTTP 500 for unexpected errors
+     */
+    @GET
+    @Path("/players/{username}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<Response> getPlayerStanding(@PathParam("username") String username,
+                                           @QueryParam("neighbours") Integer neighbours) {
+        return requestExecutor.run(() -> standing(username, neighbours));
+    }
+
+    private Response standing(String username, Integer neighbours) {
+        Log.debugf("Received request for standing: username=%s, neighbours=%s", username, neighbours);
+        try {
+            PlayerStanding standing = leaderboardService.getPlayerStanding(
+                    username, neighbours == null ? LeaderboardService.DEFAULT_NEIGHBOURS : neighbours);
+            Log.debugf("Returning standing: %s", standing);
+            return Response.ok(standing).build();
+
+        } catch (IllegalArgumentException e) {
+            return Response.status(400).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            Log.errorf(e, "Error retrieving standing for %s", username);
+            return Response.status(500).entity("Internal server error").build();
+        }
+    }
+
+    /**
+     * Returns the serialized form of the given entries, reusing the cached bytes when the service
+     * returned the same list instance as last time for this page size.
+     */
+    private SerializedLeaderboard serialize(int pageSize, List<LeaderboardEntry> entries, String nextCursor)
+            throws JsonProcessingException, NoSuchAlgorithmException {
+        SerializedLeaderboard cached = serializedLeaderboards.get(pageSize);
+        if (cached != null && cached.entries() == entries) {
+            return cached;
+        }
+
+        byte[] json = objectMapper.writeValueAsBytes(entries);
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+        EntityTag etag = new EntityTag(HexFormat.of().formatHex(digest, 0, 16));
+        SerializedLeaderboard serialized = new SerializedLeaderboard(entries, nextCursor, json, etag);
+        serializedLeaderboards.put(pageSize, serialized);
+        Log.debugf("Serialized leaderboard: pageSize=%d, bytes=%d, etag=%s", pageSize, json.length, etag.getValue());
+        return serialized;
+    }
+
+    private Response.ResponseBuilder withNextCursor(Response.ResponseBuilder response, String nextCursor) {
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response;
+    }
+
+    /**
+     * Builds the Cache-Control value that lets clients keep a leaderboard but revalidate it on every use.
+     */
+    private static CacheControl revalidate() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        cacheControl.setNoTransform(false);
+        return cacheControl;
+    }
+
+    /**
+     * Leaderboard JSON and its ETag, kept together with the entries it was produced from.
+     */
+    private record SerializedLeaderboard(List<LeaderboardEntry> entries, String nextCursor, byte[] json,
+                                         EntityTag etag) {
+    }
 }
@@ -0,0 +1,59 @@
+package com.redhat.demos.redhatone2026;
+
+import com.redhat.demos.redhatone2026.model.Player;
+import com.redhat.demos.redhatone2026.model.PlayerRegistration;
+import com.redhat.demos.redhatone2026.service.PlayerService;
+import io.quarkus.logging.Log;
+import io.smallrye.common.annotation.NonBlocking;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * REST resource for player registration API endpoints.
+ * Issues the compact player ID that clients send with each answer.
+ * Requests are served on the event loop, since registration only updates in-memory state.
+ */
+@NonBlocking
+@Path("/api/players")
+public class PlayerResource {
+
+    private final PlayerService playerService;
+
+    public PlayerResource(PlayerService playerService) {
+        if (playerService == null) {
+            throw new IllegalArgumentException("PlayerService cannot be null");
+        }
+        this.playerService = playerService;
+    }
+
+    /**
+     * Registers a username and returns its player ID.
+     * Joining again with the same username returns the same player ID.
+     *
+     * @param registration the registration request
+     * @return Player with HTTP 200 if successful,
+     *         HTTP 400 for an invalid username,
+     *         HTTP 500 for unexpected errors
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response join(PlayerRegistration registration) {
+        Log.debugf("Received join request: %s", registration);
+        try {
+            Player player = playerService.join(registration == null ? null : registration.username());
+            Log.debugf("Returning player: %s", player);
+            return Response.ok(player).build();
+
+        } catch (IllegalArgumentException e) {
+            return Response.status(400).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            Log.errorf(e, "Error registering player");
+            return Response.status(500).entity("Internal server error").build();
+        }
+    }
+}
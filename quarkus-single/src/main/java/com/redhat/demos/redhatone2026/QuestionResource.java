@@ -1,58 +1,255 @@
 package com.redhat.demos.redhatone2026;
 
-import com.redhat.demos.redhatone2026.model.TriviaQuestion;
+import com.redhat.demos.redhatone2026.model.AnswerDistribution;
+import com.redhat.demos.redhatone2026.model.Difficulty;
+import com.redhat.demos.redhatone2026.model.QuestionReloadResult;
+import com.redhat.demos.redhatone2026.service.AnswerDistributionBroadcaster;
+import com.redhat.demos.redhatone2026.service.PlayerService;
 import com.redhat.demos.redhatone2026.service.QuestionService;
 import io.quarkus.logging.Log;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.common.annotation.NonBlocking;
+import io.smallrye.mutiny.Multi;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.RestStreamElementType;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * REST resource for trivia question API endpoints.
  * Provides access to trivia questions with integrated environment messages.
+ * Requests are served on the event loop, since questions are looked up in memory
+ * and written as JSON that was rendered ahead of time.
  */
+@NonBlocking
 @Path("/api/questions")
 public class QuestionResource {
 
+    static final String RELOAD_KEY_HEADER = "X-Reload-Key";
+
     private final QuestionService questionService;
+    private final PlayerService playerService;
+    private final AnswerDistributionBroadcaster answerDistributionBroadcaster;
+    private final byte[] reloadKey;
 
-    public QuestionResource(QuestionService questionService) {
+    public QuestionResource(QuestionService questionService, PlayerService playerService,
+                            AnswerDistributionBroadcaster answerDistributionBroadcaster,
+                            @ConfigProperty(name = "trivia.questions.reload-key") Optional<String> reloadKey) {
         if (questionService == null) {
             throw new IllegalArgumentException("QuestionService cannot be null");
         }
+        if (playerService == null) {
+            throw new IllegalArgumentException("PlayerService cannot be null");
+        }
+        if (answerDistributionBroadcaster == null) {
+            throw new IllegalArgumentException("AnswerDistributionBroadcaster cannot be null");
+        }
         this.questionService = questionService;
+        this.playerService = playerService;
+        this.answerDistributionBroadcaster = answerDistributionBroadcaster;
+        this.reloadKey = reloadKey.filter(key -> !key.isBlank())
+            .map(key -> key.getBytes(StandardCharsets.UTF_8))
+            .orElse(null);
     }
 
     /**
      * Retrieves a random trivia question with environment message.
+     * When a player ID is given, the question is drawn from that player's deck, so the player is served
+     * every question once before any question repeats. When a category or difficulty is given, the question
+     * is drawn at random from the matching questions instead, since decks cover all questions.
      *
-     * @return TriviaQuestion DTO with HTTP 200 if available,
-     *         HTTP 404 if no questions exist,
+     * @param playerId optional ID of the player asking
+     * @param category optional category, matched ignoring case
+     * @param difficulty optional difficulty: easy, medium or hard, ignoring case
+     * @return TriviaQuestion DTO as pre-rendered JSON with HTTP 200 if available,
+     *         HTTP 400 for an unknown player ID or difficulty,
+     *         HTTP 404 if no questions exist or none match,
      *         HTTP 500 for unexpected errors
      */
     @GET
     @Path("/random")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getRandom() {
-        Log.debug("Received request for random trivia question");
+    public Response getRandom(@QueryParam("playerId") Integer playerId,
+                              @QueryParam("category") String category,
+                              @QueryParam("difficulty") String difficulty) {
+        Log.debugf("Received request for random trivia question: playerId=%s, category=%s, difficulty=%s",
+            playerId, category, difficulty);
         try {
-            Optional<TriviaQuestion> triviaQuestion = questionService.getRandomTriviaQuestion();
+            if (playerId != null && playerService.getUsername(playerId) == null) {
+                Log.debugf("Unknown playerId: %s", playerId);
+                return Response.status(400).entity("Invalid playerId").build();
+            }
+            Difficulty level = null;
+            if (difficulty != null) {
+                try {
+                    level = Difficulty.valueOf(difficulty.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    Log.debugf("Unknown difficulty: %s", difficulty);
+                    return Response.status(400).entity("Invalid difficulty").build();
+                }
+            }
+
+            Optional<byte[]> triviaQuestion;
+            if (category != null || level != null) {
+                triviaQuestion = questionService.getRandomTriviaQuestionJson(category, level);
+            } else if (playerId != null) {
+                triviaQuestion = questionService.getNextTriviaQuestionJson(playerId);
+            } else {
+                triviaQuestion = questionService.getRandomTriviaQuestionJson();
+            }
 
             if (triviaQuestion.isEmpty()) {
                 Log.debug("No questions available, returning 404");
                 return Response.status(404).entity("No questions available").build();
             }
 
-            Log.debugf("Returning random trivia question: %s", triviaQuestion.get());
-            return Response.ok(triviaQuestion.get()).build();
+            Log.debugf("Returning random trivia question: %d bytes", triviaQuestion.get().length);
+            return Response.ok(triviaQuestion.get(), MediaType.APPLICATION_JSON_TYPE).build();
 
         } catch (Exception e) {
             Log.errorf(e, "Error retrieving random question");
             return Response.status(500).entity("Internal server error").build();
         }
     }
+
+    /**
+     * Retrieves the next trivia questions from a player's deck in one response, so the client can show the next
+     * question as soon as an answer is submitted instead of waiting a round trip for it. The questions do not
+     * repeat within a response and carry no answer keys.
+     *
+     * @param playerId ID of the player asking
+     * @param count number of questions wanted, from 1 to QuestionService.MAX_PREFETCH_SIZE
+     * @return JSON array of TriviaQuestion DTOs with HTTP 200, empty if no questions exist,
+     *         HTTP 400 for a missing or unknown player ID or a count out of range,
+     *         HTTP 500 for unexpected errors
+     */
+    @GET
+    @Path("/next")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getNext(@QueryParam("playerId") Integer playerId,
+                            @QueryParam("count") @DefaultValue("5") int count) {
+        Log.debugf("Received request for next trivia questions: playerId=%s, count=%s",
+            playerId, Integer.valueOf(count));
+        try {
+            if (playerId == null || playerService.getUsername(playerId) == null) {
+                Log.debugf("Unknown playerId: %s", playerId);
+                return Response.status(400).entity("Invalid playerId").build();
+            }
+
+            byte[] triviaQuestions = questionService.getNextTriviaQuestionsJson(playerId, count);
+            Log.debugf("Returning next trivia questions: %d bytes", triviaQuestions.length);
+            return Response.ok(triviaQuestions, MediaType.APPLICATION_JSON_TYPE).build();
+
+        } catch (IllegalArgumentException e) {
+            return Response.status(400).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            Log.errorf(e, "Error retrieving next questions");
+            return Response.status(500).entity("Internal server error").build();
+        }
+    }
+
+    /**
+     * Retrieves how the answers submitted for a question are split between its answers, for presenters showing
+     * the room's answers to the question on screen. Answers are counted by the answer chosen, whatever letter it
+     * was shown at, and their correctness is not included.
+     *
+     * @param id the question ID
+     * @return AnswerDistribution with HTTP 200 if the question exists,
+     *         HTTP 404 if it does not,
+     *         HTTP 500 for unexpected errors
+     */
+    @GET
+    @Path("/{id}/answers")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getAnswerDistribution(@PathParam("id") UUID id) {
+        Log.debugf("Received request for answer distribution: id=%s", id);
+        try {
+            Optional<AnswerDistribution> distribution = questionService.getAnswerDistribution(id);
+            if (distribution.isEmpty()) {
+                Log.debugf("Unknown question: %s", id);
+                return Response.status(404).entity("Question not found").build();
+            }
+            Log.debugf("Returning answer distribution with %d answers", distribution.get().total());
+            return Response.ok(distribution.get()).build();
+
+        } catch (Exception e) {
+            Log.errorf(e, "Error retrieving answer distribution for %s", id);
+            return Response.status(500).entity("Internal server error").build();
+        }
+    }
+
+    /**
+     * Streams how the answers submitted for a question are split as Server-Sent Events.
+     * Each event carries a JSON AnswerDistribution; the current split is sent on connect and a new event
+     * follows whenever it changes, at most once per stream interval.
+     *
+     * @param id the question ID
+     * @return Multi of serialized distribution frames, or HTTP 404 if the question does not exist
+     */
+    @GET
+    @Path("/{id}/answers/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<String> streamAnswerDistribution(@PathParam("id") UUID id) {
+        Log.debugf("Received request for answer distribution stream: id=%s", id);
+        return answerDistributionBroadcaster.stream(id)
+                .orElseThrow(() -> new NotFoundException("Question not found"));
+    }
+
+    /**
+     * Reloads the questions from their source and swaps them in without a restart, so the leaderboard is kept.
+     * Runs on a worker thread, since it reads and parses the questions file. Questions keep their index,
+     * and removed questions stop being served.
+     *
+     * Reloading re-parses and re-renders every question, so it is an administrative action: it is disabled
+     * unless trivia.questions.reload-key is set, and then requires that key in the X-Reload-Key header.
+     *
+     * @param key the reload key sent by the client
+     * @return QuestionReloadResult with HTTP 200 on success,
+     *         HTTP 400 if a question is malformed,
+     *         HTTP 403 if reloading is disabled or the key is missing or wrong,
+     *         HTTP 500 if the questions cannot be read or parsed
+     */
+    @POST
+    @Path("/reload")
+    @Blocking
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response reload(@HeaderParam(RELOAD_KEY_HEADER) String key) {
+        Log.debug("Received request to reload questions");
+        if (reloadKey == null) {
+            Log.debug("Rejected reload: no reload key is configured");
+            return Response.status(403).entity("Reload is disabled").build();
+        }
+        if (key == null || !MessageDigest.isEqual(reloadKey, key.getBytes(StandardCharsets.UTF_8))) {
+            Log.debug("Rejected reload: invalid reload key");
+            return Response.status(403).entity("Invalid reload key").build();
+        }
+        try {
+            int questions = questionService.reloadQuestions();
+            Log.debugf("Reloaded %d questions", questions);
+            return Response.ok(new QuestionReloadResult(questions)).build();
+        } catch (IllegalArgumentException e) {
+            Log.debugf("Rejected malformed questions: %s", e.getMessage());
+            return Response.status(400).entity(e.getMessage()).build();
+        } catch (IOException | RuntimeException e) {
+            Log.errorf(e, "Error reloading questions");
+            return Response.status(500).entity("Failed to reload questions").build();
+        }
+    }
 }
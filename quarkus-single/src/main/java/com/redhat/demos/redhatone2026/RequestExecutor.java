@@ -0,0 +1,91 @@
+package com.redhat.demos.redhatone2026;
+
+import io.quarkus.logging.Log;
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Runs the work of answer and leaderboard requests in the configured execution mode.
+ *
+ * Resources hand their request handling to this executor and return the resulting Uni, so the thread that
+ * does the work is chosen by configuration rather than by annotations. In the event loop mode the work runs
+ * inline on the Vert.x event loop, which suits the current in-memory code paths. The worker and virtual thread
+ * modes move it to the Quarkus worker pool or to a new virtual thread per request, so code paths that perform
+ * blocking I/O do not stall the event loop. Virtual threads suit blocking I/O best, because a blocked request
+ * holds no platform thread; the code paths run by this executor use ReentrantLock rather than synchronized
+ * where they wait, so they never pin a carrier thread.
+ */
+@ApplicationScoped
+public class RequestExecutor {
+
+    /**
+     * Where request handling runs.
+     */
+    public enum Mode {
+        EVENT_LOOP,
+        WORKER,
+        VIRTUAL_THREADS
+    }
+
+    private final Mode mode;
+    private final Executor executor;
+
+    @Inject
+    public RequestExecutor(@ConfigProperty(name = "trivia.api.execution-mode", defaultValue = "event-loop") Mode mode,
+                           @VirtualThreads ExecutorService virtualThreads) {
+        this(mode, executorFor(mode, virtualThreads));
+    }
+
+    /**
+     * Creates an executor that runs work on the given executor, or inline in the event loop mode.
+     *
+     * @param mode the execution mode
+     * @param executor the executor for the worker and virtual thread modes, ignored in the event loop mode
+     */
+    RequestExecutor(Mode mode, Executor executor) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Mode cannot be null");
+        }
+        if (mode != Mode.EVENT_LOOP && executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.mode = mode;
+        this.executor = executor;
+        Log.infof("Serving answer and leaderboard requests in %s mode", mode);
+    }
+
+    private static Executor executorFor(Mode mode, ExecutorService virtualThreads) {
+        if (mode == Mode.WORKER) {
+            return Infrastructure.getDefaultWorkerPool();
+        }
+        return mode == Mode.VIRTUAL_THREADS ? virtualThreads : null;
+    }
+
+    /**
+     * Runs request handling in the configured mode.
+     *
+     * @param work the request handling to run
+     * @return Uni that emits the result of the work
+     */
+    public <T> Uni<T> run(Supplier<T> work) {
+        Uni<T> result = Uni.createFrom().item(work);
+        return mode == Mode.EVENT_LOOP ? result : result.runSubscriptionOn(executor);
+    }
+
+    /**
+     * Retrieves the configured execution mode.
+     *
+     * @return the execution mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+}
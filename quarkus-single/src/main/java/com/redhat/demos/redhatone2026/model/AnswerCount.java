@@ -0,0 +1,13 @@
+package com.redhat.demos.redhatone2026.model;
+
+/**
+ * Immutable record representing how often one answer to a question has been chosen.
+ * The letter is the answer's position in the order the answers are stored, which players may have been shown
+ * in another order.
+ */
+public record AnswerCount(
+    String letter,
+    String text,
+    long count
+) {
+}
@@ -0,0 +1,17 @@
+package com.redhat.demos.redhatone2026.model;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable record representing how the answers submitted for a question are split between its answers.
+ * Contains the question ID and text, the total number of answers, and the count for each answer in the order
+ * the answers are stored. Answer correctness is not included, so the split can be shown while players answer.
+ */
+public record AnswerDistribution(
+    UUID questionId,
+    String questionText,
+    long total,
+    List<AnswerCount> answers
+) {
+}
@@ -0,0 +1,16 @@
+package com.redhat.demos.redhatone2026.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Immutable record representing the outcome of one submission in a batch.
+ * Contains either the validation result and correct answer, or the reason the submission was rejected.
+ * Absent fields are omitted from the JSON form to keep batch responses small.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AnswerResult(
+    Boolean isCorrect,
+    String correctAnswer,
+    String error
+) {
+}
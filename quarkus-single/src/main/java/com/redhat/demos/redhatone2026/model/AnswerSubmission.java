@@ -4,11 +4,30 @@ import java.util.UUID;
 
 /**
  * Immutable record representing an answer submission request.
- * Contains the username, question ID, and the user's selected answer.
+ * Contains the username, question ID, the user's selected answer, and the player ID issued at registration.
+ * When a player ID is present it identifies the player and the username is ignored;
+ * submissions without one are attributed to the username, registering it on first use.
+ * The token is the one served with the question; it records the order in which the answers were shown, so the
+ * selected letter is read in that order. Submissions without a token select answers in the order they are stored.
  */
 public record AnswerSubmission(
     String username,
     UUID questionId,
-    String selectedAnswer
+    String selectedAnswer,
+    Integer playerId,
+    String token
 ) {
+    /**
+     * Creates a submission identified by username only.
+     */
+    public AnswerSubmission(String username, UUID questionId, String selectedAnswer) {
+        this(username, questionId, selectedAnswer, null, null);
+    }
+
+    /**
+     * Creates a submission without a token.
+     */
+    public AnswerSubmission(String username, UUID questionId, String selectedAnswer, Integer playerId) {
+        this(username, questionId, selectedAnswer, playerId, null);
+    }
 }
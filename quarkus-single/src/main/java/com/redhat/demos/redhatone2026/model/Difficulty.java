@@ -0,0 +1,10 @@
+package com.redhat.demos.redhatone2026.model;
+
+/**
+ * Difficulty level of a trivia question, used to select questions for themed rounds.
+ */
+public enum Difficulty {
+    EASY,
+    MEDIUM,
+    HARD
+}
@@ -0,0 +1,20 @@
+package com.redhat.demos.redhatone2026.model;
+
+import java.util.List;
+
+/**
+ * Immutable record representing one page of the leaderboard.
+ * Contains the ranked entries for the page and an opaque cursor for the next page,
+ * which is null when there are no further entries.
+ */
+public record LeaderboardPage(
+    List<LeaderboardEntry> entries,
+    String nextCursor
+) {
+    /**
+     * Compact constructor ensures the entries list is immutable.
+     */
+    public LeaderboardPage {
+        entries = entries == null ? List.of() : List.copyOf(entries);
+    }
+}
@@ -0,0 +1,11 @@
+package com.redhat.demos.redhatone2026.model;
+
+/**
+ * Immutable record representing a registered player.
+ * Contains the compact numeric player ID issued at registration and the player's username.
+ */
+public record Player(
+    int playerId,
+    String username
+) {
+}
@@ -0,0 +1,10 @@
+package com.redhat.demos.redhatone2026.model;
+
+/**
+ * Immutable record representing a request to join the game.
+ * Contains the username to register.
+ */
+public record PlayerRegistration(
+    String username
+) {
+}
@@ -0,0 +1,24 @@
+package com.redhat.demos.redhatone2026.model;
+
+import java.util.List;
+
+/**
+ * Immutable record representing a single player's position on the leaderboard.
+ * Contains the player's score and rank plus the nearest entries ranked above and below,
+ * each list in rank order. Tied players share the same rank.
+ */
+public record PlayerStanding(
+    String username,
+    int score,
+    int rank,
+    List<LeaderboardEntry> above,
+    List<LeaderboardEntry> below
+) {
+    /**
+     * Compact constructor ensures the neighbour lists are immutable.
+     */
+    public PlayerStanding {
+        above = above == null ? List.of() : List.copyOf(above);
+        below = below == null ? List.of() : List.copyOf(below);
+    }
+}
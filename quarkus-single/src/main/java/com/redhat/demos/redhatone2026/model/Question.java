@@ -6,11 +6,14 @@ import java.util.UUID;
 /**
  * Immutable record representing a trivia question with multiple-choice answers.
  * The optionalAnswers list is made immutable in the compact constructor.
+ * The category and difficulty are optional and used to select questions for themed rounds.
  */
 public record Question(
     UUID id,
     String questionText,
-    List<Answer> optionalAnswers
+    List<Answer> optionalAnswers,
+    String category,
+    Difficulty difficulty
 ) {
     /**
      * Compact constructor ensures the answers list is immutable.
@@ -18,4 +21,11 @@ public record Question(
     public Question {
         optionalAnswers = optionalAnswers == null ? List.of() : List.copyOf(optionalAnswers);
     }
+
+    /**
+     * Creates a question without a category or difficulty.
+     */
+    public Question(UUID id, String questionText, List<Answer> optionalAnswers) {
+        this(id, questionText, optionalAnswers, null, null);
+    }
 }
@@ -0,0 +1,10 @@
+package com.redhat.demos.redhatone2026.model;
+
+/**
+ * Immutable record representing the outcome of a question reload.
+ * Contains the number of questions served after the reload.
+ */
+public record QuestionReloadResult(
+    int questions
+) {
+}
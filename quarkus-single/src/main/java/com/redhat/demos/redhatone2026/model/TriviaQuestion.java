@@ -4,7 +4,8 @@ import java.util.UUID;
 
 /**
  * Immutable record representing a trivia question for API responses.
- * Contains the question ID, question text, four answer options, and an environment message.
+ * Contains the question ID, question text, four answer options, an environment message, and a signed token
+ * recording the order in which the options are shown, which is submitted with the answer.
  * Does not include answer correctness information to avoid exposing the solution.
  */
 public record TriviaQuestion(
@@ -14,6 +15,14 @@ public record TriviaQuestion(
     String option2,
     String option3,
     String option4,
-    String environment
+    String environment,
+    String token
 ) {
+    /**
+     * Creates a trivia question without a token, whose options are shown in the order they are stored.
+     */
+    public TriviaQuestion(UUID id, String questionText, String option1, String option2, String option3,
+                          String option4, String environment) {
+        this(id, questionText, option1, option2, option3, option4, environment, null);
+    }
 }
@@ -0,0 +1,141 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import com.redhat.demos.redhatone2026.model.Difficulty;
+import com.redhat.demos.redhatone2026.model.Question;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Array-backed question bank held on the heap, used for questions loaded from JSON.
+ *
+ * Questions are stored in index order, so a question's dense index is its position in the array, and each one
+ * is wrapped in an Optional once at build time. Lookups by index and by ID therefore allocate nothing, and
+ * the list view returned by {@link #active()} is shared rather than copied. The position of each question's
+ * correct answer is also recorded at build time, so answers are checked without scanning the options, and the
+ * served questions are ordered by category and by difficulty, so filtered selection never scans them.
+ */
+final class ArrayQuestionBank extends QuestionBank {
+
+    private final Question[] questions;
+    private final boolean[] retired;
+    private final Optional<Question>[] found;
+    private final byte[] correctAnswers;
+    private final Map<UUID, Integer> indexes;
+    private final int[] activeIndexes;
+    private final List<Question> active;
+    private final int[] byCategory;
+    private final int[] byDifficulty;
+    private final QuestionSelector selector;
+
+    /**
+     * Builds a bank from questions in index order.
+     *
+     * @param questions the questions, one per index
+     * @param retired which indexes are retired
+     * @throws IllegalArgumentException if a question does not have exactly four answers, one of them correct
+     */
+    ArrayQuestionBank(Question[] questions, boolean[] retired) {
+        this.questions = questions;
+        this.retired = retired;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Optional<Question>[] found = new Optional[questions.length];
+        this.found = found;
+        this.correctAnswers = new byte[questions.length];
+        this.indexes = new HashMap<>();
+        int[] activeIndexes = new int[questions.length];
+        List<Question> active = new ArrayList<>(questions.length);
+        for (int index = 0; index < questions.length; index++) {
+            found[index] = Optional.of(questions[index]);
+            correctAnswers[index] = (byte) correctAnswerIndex(questions[index]);
+            indexes.put(questions[index].id(), index);
+            if (!retired[index]) {
+                activeIndexes[active.size()] = index;
+                active.add(questions[index]);
+            }
+        }
+        this.activeIndexes = Arrays.copyOf(activeIndexes, active.size());
+        this.active = Collections.unmodifiableList(active);
+        this.byCategory = QuestionSelector.orderByCategory(this);
+        this.byDifficulty = QuestionSelector.orderByDifficulty(this);
+        this.selector = QuestionSelector.build(this);
+    }
+
+    @Override
+    int size() {
+        return questions.length;
+    }
+
+    @Override
+    List<Question> active() {
+        return active;
+    }
+
+    @Override
+    int activeIndex(int position) {
+        return activeIndexes[position];
+    }
+
+    @Override
+    int indexOf(UUID id) {
+        Integer index = indexes.get(id);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    Optional<Question> findByIndex(int index) {
+        if (index < 0 || index >= found.length) {
+            return Optional.empty();
+        }
+        return found[index];
+    }
+
+    @Override
+    UUID idAt(int index) {
+        return questions[index].id();
+    }
+
+    @Override
+    String categoryAt(int index) {
+        return questions[index].category();
+    }
+
+    @Override
+    Difficulty difficultyAt(int index) {
+        return questions[index].difficulty();
+    }
+
+    @Override
+    int byCategory(int rank) {
+        return byCategory[rank];
+    }
+
+    @Override
+    int byDifficulty(int rank) {
+        return byDifficulty[rank];
+    }
+
+    @Override
+    QuestionSelector selector() {
+        return selector;
+    }
+
+    @Override
+    boolean isRetired(int index) {
+        return retired[index];
+    }
+
+    @Override
+    int correctAnswer(int index) {
+        if (index < 0 || index >= correctAnswers.length) {
+            return -1;
+        }
+        return correctAnswers[index];
+    }
+}
@@ -2,6 +2,7 @@ package com.redhat.demos.redhatone2026.repository;
 
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -16,19 +17,32 @@ public class EnvironmentRepository {
     private static final String MESSAGE_3 = "This question served by Quarkus microservices on OpenShift.";
     private static final String MESSAGE_4 = "This question served by Quarkus microservices on OpenShift with the help of HuggingFaceH4/zephyr-7b-beta on OpenShift AI.";
 
+    private static final List<String> MESSAGES = List.of(MESSAGE_1, MESSAGE_2, MESSAGE_3, MESSAGE_4);
+
     /**
      * Retrieves a random Quarkus informational message from the available set.
      *
      * @return A randomly selected message string
      */
     public String getRandomMessage() {
-        int randomIndex = ThreadLocalRandom.current().nextInt(4);
-        return switch (randomIndex) {
-            case 0 -> MESSAGE_1;
-            case 1 -> MESSAGE_2;
-            case 2 -> MESSAGE_3;
-            case 3 -> MESSAGE_4;
-            default -> MESSAGE_1; // Fallback (should never occur)
-        };
+        return MESSAGES.get(getRandomMessageIndex());
+    }
+
+    /**
+     * Retrieves every message, so callers can prepare per-message output ahead of time.
+     *
+     * @return unmodifiable list of all messages
+     */
+    public List<String> getAllMessages() {
+        return MESSAGES;
+    }
+
+    /**
+     * Picks a random message by its position in {@link #getAllMessages()}.
+     *
+     * @return a random index from 0 to the number of messages minus one
+     */
+    public int getRandomMessageIndex() {
+        return ThreadLocalRandom.current().nextInt(MESSAGES.size());
     }
 }
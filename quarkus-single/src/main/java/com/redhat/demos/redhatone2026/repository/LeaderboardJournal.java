@@ -0,0 +1,503 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import com.redhat.demos.redhatone2026.model.Question;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Durable journal of leaderboard state: an append-only log of player registrations and score changes,
+ * plus periodic compacted snapshots.
+ *
+ * Records are appended to fixed-size memory-mapped segment files, so an append is a copy into the page cache
+ * and survives a process crash. A background flusher forces dirty segments to disk at a fixed interval,
+ * committing every append made since the previous flush as a group. Answers are appended as the leaderboard's
+ * writer thread applies them, which is after the answer request has been acknowledged: answers still queued for
+ * that thread when the process crashes were never journaled and are lost, and appends not yet forced to disk
+ * are lost if the host itself fails within a flush interval. Answers are logged by question UUID,
+ * so the journal stays valid when the question bank is reordered between deployments.
+ *
+ * A snapshot rolls the log to a new segment, writes the full state, and then deletes older segments and
+ * snapshots. Because restoring a registration or a correct answer is idempotent, state captured after the
+ * roll combined with a replay of the newer segments reproduces the live state. Startup loads the latest
+ * snapshot, replays the segments that follow it, and only then starts journaling new changes.
+ */
+@ApplicationScoped
+public class LeaderboardJournal implements PlayerRepository.RegistrationListener, LeaderboardRepository.AnswerListener {
+
+    static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Registration written before lengths were stored as ints, with a 16-bit name length. Still replayed.
+     */
+    private static final byte SHORT_PLAYER_RECORD = 1;
+    private static final byte ANSWER_RECORD = 2;
+    private static final byte PLAYER_RECORD = 3;
+    private static final int ANSWER_RECORD_SIZE = 1 + Integer.BYTES + 2 * Long.BYTES;
+    private static final int SNAPSHOT_MAGIC = 0x4C42534E;
+    private static final int SNAPSHOT_FORMAT = 2;
+    private static final int UTF_SNAPSHOT_FORMAT = 1;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final PlayerRepository playerRepository;
+    private final LeaderboardRepository leaderboardRepository;
+    private final QuestionRepository questionRepository;
+    private final boolean enabled;
+    private final Path directory;
+    private final Duration flushInterval;
+    private final Duration snapshotInterval;
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private volatile MappedByteBuffer segment;
+    private volatile boolean dirty;
+    private long segmentSequence = -1;
+    private volatile ScheduledExecutorService scheduler;
+
+    public LeaderboardJournal(PlayerRepository playerRepository,
+                              LeaderboardRepository leaderboardRepository,
+                              QuestionRepository questionRepository,
+                              @ConfigProperty(name = "trivia.leaderboard.journal.enabled", defaultValue = "true")
+                              boolean enabled,
+                              @ConfigProperty(name = "trivia.leaderboard.journal.directory", defaultValue = "data/leaderboard")
+                              String directory,
+                              @ConfigProperty(name = "trivia.leaderboard.journal.flush-interval", defaultValue = "10ms")
+                              Duration flushInterval,
+                              @ConfigProperty(name = "trivia.leaderboard.journal.snapshot-interval", defaultValue = "60s")
+                              Duration snapshotInterval) {
+        if (playerRepository == null) {
+            throw new IllegalArgumentException("PlayerRepository cannot be null");
+        }
+        if (leaderboardRepository == null) {
+            throw new IllegalArgumentException("LeaderboardRepository cannot be null");
+        }
+        if (questionRepository == null) {
+            throw new IllegalArgumentException("QuestionRepository cannot be null");
+        }
+        this.playerRepository = playerRepository;
+        this.leaderboardRepository = leaderboardRepository;
+        this.questionRepository = questionRepository;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.flushInterval = flushInterval;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            Log.info("Leaderboard journal is disabled; leaderboard state will not survive a restart");
+            return;
+        }
+        try {
+            recover();
+            start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open leaderboard journal in " + directory, e);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (scheduler != null) {
+            close();
+        }
+    }
+
+    /**
+     * Loads the latest snapshot and replays the log segments written after it.
+     *
+     * @throws IOException if the journal directory cannot be read
+     */
+    public void recover() throws IOException {
+        Files.createDirectories(directory);
+        long startedAt = System.nanoTime();
+
+        long snapshotSequence = latestSequence(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (snapshotSequence >= 0) {
+            readSnapshot(file(SNAPSHOT_PREFIX, snapshotSequence, SNAPSHOT_SUFFIX));
+        }
+
+        long answers = 0;
+        for (long sequence : sequences(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (sequence >= snapshotSequence) {
+                answers += replaySegment(file(SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+            }
+            segmentSequence = Math.max(segmentSequence, sequence);
+        }
+        segmentSequence = Math.max(segmentSequence, snapshotSequence);
+        leaderboardRepository.rebuildRankings();
+
+        Log.infof("Recovered leaderboard journal: snapshot=%d, replayedAnswers=%d, players=%d in %d ms",
+            snapshotSequence, answers, playerRepository.count(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    /**
+     * Opens a fresh segment, starts journaling repository changes, and schedules flushes and snapshots.
+     *
+     * @throws IOException if the segment cannot be created
+     */
+    public void start() throws IOException {
+        appendLock.lock();
+        try {
+            roll();
+        } finally {
+            appendLock.unlock();
+        }
+        playerRepository.setRegistrationListener(this);
+        leaderboardRepository.setAnswerListener(this);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long flushMillis = Math.max(1, flushInterval.toMillis());
+        long snapshotMillis = Math.max(1, snapshotInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, snapshotMillis, snapshotMillis, TimeUnit.MILLISECONDS);
+        Log.infof("Leaderboard journal started in %s", directory.toAbsolutePath());
+    }
+
+    /**
+     * Stops journaling, writes a final snapshot so the next startup has little to replay, and flushes.
+     */
+    public void close() {
+        playerRepository.setRegistrationListener(null);
+        leaderboardRepository.setAnswerListener(null);
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotQuietly();
+        flushQuietly();
+    }
+
+    @Override
+    public void playerRegistered(int playerId, String username) {
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        appendLock.lock();
+        try {
+            MappedByteBuffer buffer = writableSegment(1 + 2 * Integer.BYTES + name.length);
+            if (buffer == null) {
+                return;
+            }
+            int start = buffer.position();
+            buffer.position(start + 1);
+            buffer.putInt(playerId);
+            buffer.putInt(name.length);
+            buffer.put(name);
+            // The type byte is written last so recovery never reads a partially written record
+            buffer.put(start, PLAYER_RECORD);
+            dirty = true;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void correctAnswerRecorded(int playerId, int questionIndex) {
+        Question question = questionRepository.findByIndex(questionIndex).orElse(null);
+        if (question == null) {
+            return;
+        }
+        UUID questionId = question.id();
+        appendLock.lock();
+        try {
+            MappedByteBuffer buffer = writableSegment(ANSWER_RECORD_SIZE);
+            if (buffer == null) {
+                return;
+            }
+            int start = buffer.position();
+            buffer.position(start + 1);
+            buffer.putInt(playerId);
+            buffer.putLong(questionId.getMostSignificantBits());
+            buffer.putLong(questionId.getLeastSignificantBits());
+            buffer.put(start, ANSWER_RECORD);
+            dirty = true;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Forces appended records to disk if anything was written since the last flush.
+     */
+    public void flush() {
+        MappedByteBuffer current = segment;
+        if (dirty && current != null) {
+            dirty = false;
+            current.force();
+        }
+    }
+
+    /**
+     * Rolls the log to a new segment and writes a snapshot of the current state,
+     * then deletes the segments and snapshots it supersedes.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        long sequence;
+        MappedByteBuffer previous;
+        appendLock.lock();
+        try {
+            previous = roll();
+            sequence = segmentSequence;
+        } finally {
+            appendLock.unlock();
+        }
+        if (previous != null) {
+            previous.force();
+        }
+
+        Path target = file(SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        writeSnapshot(temporary);
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (long older : sequences(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (older < sequence) {
+                Files.deleteIfExists(file(SEGMENT_PREFIX, older, SEGMENT_SUFFIX));
+            }
+        }
+        for (long older : sequences(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (older < sequence) {
+                Files.deleteIfExists(file(SNAPSHOT_PREFIX, older, SNAPSHOT_SUFFIX));
+            }
+        }
+        Log.debugf("Wrote leaderboard snapshot %d", sequence);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            Log.errorf(e, "Failed to flush leaderboard journal");
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            Log.errorf(e, "Failed to write leaderboard snapshot");
+        }
+    }
+
+    /**
+     * Returns the current segment with room for a record, rolling to a new segment when it is full.
+     * Callers must hold the append lock. Returns null if no segment could be opened.
+     */
+    private MappedByteBuffer writableSegment(int recordSize) {
+        MappedByteBuffer current = segment;
+        if (current != null && current.remaining() > recordSize) {
+            return current;
+        }
+        try {
+            forceLater(roll());
+            return segment;
+        } catch (IOException e) {
+            Log.errorf(e, "Failed to open leaderboard journal segment; changes are not being journaled");
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the current segment with a new one and returns the previous segment, which the caller
+     * must force once the append lock has been released. Callers must hold the append lock.
+     */
+    private MappedByteBuffer roll() throws IOException {
+        MappedByteBuffer previous = segment;
+        long sequence = segmentSequence + 1;
+        try (FileChannel channel = FileChannel.open(file(SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        }
+        segmentSequence = sequence;
+        dirty = false;
+        return previous;
+    }
+
+    /**
+     * Forces a retired segment on the journal thread, so appending threads never wait for the disk.
+     */
+    private void forceLater(MappedByteBuffer retired) {
+        if (retired == null) {
+            return;
+        }
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null || executor.isShutdown()) {
+            retired.force();
+        } else {
+            executor.execute(retired::force);
+        }
+    }
+
+    private long replaySegment(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        long answers = 0;
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            byte type = buffer.get();
+            boolean shortPlayerRecord = type == SHORT_PLAYER_RECORD && buffer.remaining() >= Integer.BYTES + Short.BYTES;
+            if (shortPlayerRecord || type == PLAYER_RECORD && buffer.remaining() >= 2 * Integer.BYTES) {
+                int playerId = buffer.getInt();
+                int length = shortPlayerRecord ? buffer.getShort() & 0xFFFF : buffer.getInt();
+                if (length < 0 || buffer.remaining() < length) {
+                    break;
+                }
+                byte[] name = new byte[length];
+                buffer.get(name);
+                playerRepository.restore(playerId, new String(name, StandardCharsets.UTF_8));
+            } else if (type == ANSWER_RECORD && buffer.remaining() >= ANSWER_RECORD_SIZE - 1) {
+                int playerId = buffer.getInt();
+                int questionIndex = questionRepository.indexOf(new UUID(buffer.getLong(), buffer.getLong()));
+                if (questionIndex >= 0) {
+                    leaderboardRepository.restoreCorrectAnswer(playerId, questionIndex);
+                    answers++;
+                }
+            } else {
+                // Unused space at the end of the segment, or a record cut short by a crash
+                Log.debugf("Replayed %s up to offset %d", path.getFileName(), start);
+                break;
+            }
+        }
+        return answers;
+    }
+
+    private void writeSnapshot(Path path) throws IOException {
+        int questionCount = questionRepository.count();
+
+        try (FileOutputStream file = new FileOutputStream(path.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_FORMAT);
+
+            // Question table, so bitsets can be mapped onto a reordered question bank
+            out.writeInt(questionCount);
+            for (int index = 0; index < questionCount; index++) {
+                UUID questionId = questionRepository.findByIndex(index).orElseThrow().id();
+                out.writeLong(questionId.getMostSignificantBits());
+                out.writeLong(questionId.getLeastSignificantBits());
+            }
+
+            int players = playerRepository.count();
+            out.writeInt(players);
+            for (int playerId = 0; playerId < players; playerId++) {
+                String username = playerRepository.findUsername(playerId);
+                long[] correctQuestions = leaderboardRepository.getCorrectQuestions(playerId);
+                out.writeBoolean(username != null);
+                if (username != null) {
+                    // Length-prefixed rather than writeUTF, which rejects names over 65,535 encoded bytes
+                    byte[] name = username.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(name.length);
+                    out.write(name);
+                }
+                out.writeInt(correctQuestions.length);
+                for (long word : correctQuestions) {
+                    out.writeLong(word);
+                }
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+    }
+
+    private void readSnapshot(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Unrecognized leaderboard snapshot: " + path);
+            }
+            int format = in.readInt();
+            if (format != SNAPSHOT_FORMAT && format != UTF_SNAPSHOT_FORMAT) {
+                throw new IOException("Unrecognized leaderboard snapshot: " + path);
+            }
+
+            int[] currentIndexes = new int[in.readInt()];
+            for (int i = 0; i < currentIndexes.length; i++) {
+                currentIndexes[i] = questionRepository.indexOf(new UUID(in.readLong(), in.readLong()));
+            }
+
+            int players = in.readInt();
+            for (int playerId = 0; playerId < players; playerId++) {
+                if (in.readBoolean()) {
+                    playerRepository.restore(playerId, format == UTF_SNAPSHOT_FORMAT ? in.readUTF() : readName(in));
+                }
+                int words = in.readInt();
+                for (int word = 0; word < words; word++) {
+                    long bits = in.readLong();
+                    while (bits != 0) {
+                        int snapshotIndex = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        if (snapshotIndex < currentIndexes.length && currentIndexes[snapshotIndex] >= 0) {
+                            leaderboardRepository.restoreCorrectAnswer(playerId, currentIndexes[snapshotIndex]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static String readName(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt username length in leaderboard snapshot: " + length);
+        }
+        byte[] name = new byte[length];
+        in.readFully(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private long latestSequence(String prefix, String suffix) throws IOException {
+        List<Long> sequences = sequences(prefix, suffix);
+        return sequences.isEmpty() ? -1 : sequences.get(sequences.size() - 1);
+    }
+
+    private List<Long> sequences(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                .sorted()
+                .toList();
+        }
+    }
+
+    private Path file(String prefix, long sequence, String suffix) {
+        return directory.resolve(String.format("%s%016d%s", prefix, sequence, suffix));
+    }
+}
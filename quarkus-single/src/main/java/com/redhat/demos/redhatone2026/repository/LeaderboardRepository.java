@@ -1,85 +1,574 @@
 package com.redhat.demos.redhatone2026.repository;
 
+import com.redhat.demos.redhatone2026.model.LeaderboardEntry;
+import com.redhat.demos.redhatone2026.model.PlayerStanding;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.UUID;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Repository for managing leaderboard data using in-memory HashMap storage.
+ * Repository for managing leaderboard data using in-memory storage that is safe under concurrent access.
  * Tracks user scores and which questions each user has answered correctly.
+ * Players and questions are identified by their dense IDs and indexes: per-player state lives in an array
+ * indexed by player ID, and each player's correct answers are a small bitset whose population count is the
+ * player's score. Usernames are only looked up in PlayerRepository when building ranked entries.
+ *
+ * Per-user state is guarded by a fixed set of striped locks so that submissions from different users
+ * rarely contend with each other. Correct answers can also be recorded in batches, which take every stripe lock
+ * once for the whole batch.
+ * A ranking index ordered by score descending, then username ascending, is updated alongside each score
+ * change so ranked reads walk it in order instead of sorting. A table holds, for each score, how many players
+ * hold a higher one; because scores are bounded by the number of questions, it stays small, a score change
+ * increments a single count in it, and a player's rank is one lookup.
+ * Ranked reads and standings take no locks: they walk the concurrent ranking index and read the rank table,
+ * so requests on event loop threads never wait for a batch to be applied. A read that races with a score change
+ * may briefly reflect part of it, such as a moving player missing from a page or ranked one place off.
+ * Every score change also bumps a version counter, so readers can cheaply tell whether a cached view is stale,
+ * and is reported to the answer listener, if one is set, after the stripe locks have been released.
  */
 @ApplicationScoped
 public class LeaderboardRepository {
 
-    private final HashMap<String, Set<UUID>> userCorrectQuestions;
-    private final HashMap<String, Integer> userScores;
+    private static final int STRIPE_COUNT = 64;
 
-    public LeaderboardRepository() {
-        this.userCorrectQuestions = new HashMap<>();
-        this.userScores = new HashMap<>();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int INITIAL_SCORE_CAPACITY = 16;
+
+    private final PlayerRepository playerRepository;
+    private final ConcurrentSkipListSet<RankKey> rankIndex;
+    private final ReentrantLock[] stripes;
+    private final LongAdder version;
+    private volatile PlayerScore[] playerScores;
+    /**
+     * Per score, the number of players holding a higher score. Its length always exceeds every question index
+     * answered plus one, and so every score, and it only grows while every stripe is held.
+     */
+    private volatile AtomicIntegerArray playersAbove;
+    private volatile AnswerListener answerListener;
+
+    public LeaderboardRepository(PlayerRepository playerRepository) {
+        if (playerRepository == null) {
+            throw new IllegalArgumentException("PlayerRepository cannot be null");
+        }
+        this.playerRepository = playerRepository;
+        this.playerScores = new PlayerScore[INITIAL_CAPACITY];
+        this.rankIndex = new ConcurrentSkipListSet<>();
+        this.playersAbove = new AtomicIntegerArray(INITIAL_SCORE_CAPACITY);
+        this.version = new LongAdder();
+        this.stripes = new ReentrantLock[STRIPE_COUNT];
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new ReentrantLock();
+        }
     }
 
     /**
-     * Records an answer submission for a user.
+     * Records an answer submission for a player.
      * If the answer is correct and this is the first correct answer for this question,
-     * increments the user's score. Duplicate correct answers do not increment score.
+     * increments the player's score. Duplicate correct answers do not increment score.
      * Incorrect answers have no effect on score.
      *
-     * @param username the username
-     * @param questionId the question ID
+     * @param playerId the player ID, as issued by PlayerRepository
+     * @param questionIndex the dense index of the question, as assigned by QuestionRepository
      * @param isCorrect whether the answer was correct
+     * @throws IllegalArgumentException if the player is not registered or the question index is negative
      */
-    public void recordAnswer(String username, UUID questionId, boolean isCorrect) {
-        Log.debugf("LeaderboardRepository.recordAnswer: username=%s, questionId=%s, isCorrect=%s",
-            username, questionId, isCorrect);
+    public void recordAnswer(int playerId, int questionIndex, boolean isCorrect) {
+        Log.debugf("LeaderboardRepository.recordAnswer: isCorrect=%s, playerId=%d, questionIndex=%d",
+            isCorrect, playerId, questionIndex);
 
+        String username = requireUsername(playerId, questionIndex);
         if (!isCorrect) {
             Log.debugf("Answer was incorrect, no score update for %s", username);
             return;
         }
 
-        Set<UUID> correctQuestions = userCorrectQuestions.computeIfAbsent(username, k -> new HashSet<>());
-        boolean isNewCorrectAnswer = correctQuestions.add(questionId);
+        ensureCapacity(playerId, questionIndex);
+        ReentrantLock stripe = stripeFor(playerId);
+        boolean changed;
+        stripe.lock();
+        try {
+            changed = applyCorrectAnswer(playerId, username, questionIndex);
+            if (changed) {
+                version.increment();
+                Log.debugf("First correct answer by %s for question %d. New score: %d",
+                    username, questionIndex, playerScores[playerId].score);
+            } else {
+                Log.debugf("Duplicate correct answer by %s for question %d. Score unchanged.", username, questionIndex);
+            }
+        } finally {
+            stripe.unlock();
+        }
 
-        if (isNewCorrectAnswer) {
-            userScores.merge(username, 1, Integer::sum);
-            int newScore = userScores.get(username);
-            Log.debugf("First correct answer for question %s by %s. New score: %d", questionId, username, newScore);
-        } else {
-            Log.debugf("Duplicate correct answer for question %s by %s. Score unchanged.", questionId, username);
+        AnswerListener listener = answerListener;
+        if (changed && listener != null) {
+            listener.correctAnswerRecorded(playerId, questionIndex);
         }
     }
 
     /**
-     * Retrieves the score for a user.
+     * Records a batch of correct answers under a single acquisition of the stripe locks.
+     * Each answer is applied as by {@link #recordAnswer(int, int, boolean)}, and the version advances once
+     * for the whole batch. Answers should have been checked with {@link #validateAnswer(int, int)};
+     * answers from unknown players are skipped. The listener is notified once the locks are released.
      *
-     * @param username the username
-     * @return the user's score, or 0 if the user has not answered any questions correctly
+     * @param playerIds player IDs, one per answer
+     * @param questionIndexes question indexes, one per answer
+     * @param count the number of answers to record from the start of the arrays
+     * @return the number of answers that changed a score
+     */
+    public int recordCorrectAnswers(int[] playerIds, int[] questionIndexes, int count) {
+        int highestPlayerId = -1;
+        int highestQuestionIndex = -1;
+        for (int i = 0; i < count; i++) {
+            highestPlayerId = Math.max(highestPlayerId, playerIds[i]);
+            highestQuestionIndex = Math.max(highestQuestionIndex, questionIndexes[i]);
+        }
+        ensureCapacity(highestPlayerId, highestQuestionIndex);
+
+        // Positions in the arrays of the answers that changed a score, reported once the locks are released
+        int[] changedAnswers = new int[count];
+        int changed = 0;
+        lockAllStripes();
+        try {
+            for (int i = 0; i < count; i++) {
+                String username = playerRepository.findUsername(playerIds[i]);
+                if (username != null && questionIndexes[i] >= 0
+                        && applyCorrectAnswer(playerIds[i], username, questionIndexes[i])) {
+                    changedAnswers[changed++] = i;
+                }
+            }
+            if (changed > 0) {
+                version.increment();
+            }
+        } finally {
+            unlockAllStripes();
+        }
+
+        AnswerListener listener = answerListener;
+        if (listener != null) {
+            for (int i = 0; i < changed; i++) {
+                listener.correctAnswerRecorded(playerIds[changedAnswers[i]], questionIndexes[changedAnswers[i]]);
+            }
+        }
+        Log.debugf("Recorded batch of %d correct answers, %d changed scores", count, changed);
+        return changed;
+    }
+
+    /**
+     * Checks that an answer refers to a registered player and a valid question index.
+     *
+     * @param playerId the player ID
+     * @param questionIndex the dense index of the question
+     * @throws IllegalArgumentException if the player is not registered or the question index is negative
+     */
+    public void validateAnswer(int playerId, int questionIndex) {
+        requireUsername(playerId, questionIndex);
+    }
+
+    /**
+     * Restores a correct answer, for example while recovering from a journal.
+     * Only the player's bitset and score are updated; call {@link #rebuildRankings()} once all answers
+     * have been restored. The player does not need to be registered yet.
+     *
+     * @param playerId the player ID
+     * @param questionIndex the dense index of the question
+     */
+    public void restoreCorrectAnswer(int playerId, int questionIndex) {
+        ensureCapacity(playerId, questionIndex);
+        ReentrantLock stripe = stripeFor(playerId);
+        stripe.lock();
+        try {
+            PlayerScore[] scores = playerScores;
+            PlayerScore playerScore = scores[playerId];
+            if (playerScore == null) {
+                playerScore = new PlayerScore();
+                scores[playerId] = playerScore;
+            }
+            if (playerScore.markCorrect(questionIndex)) {
+                playerScore.score++;
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the ranking index and rank table from the per-player scores.
+     * Used after restoring answers, so restoring does not pay for ranking updates on every answer.
+     */
+    public void rebuildRankings() {
+        lockAllStripes();
+        try {
+            rankIndex.clear();
+            int[] playersByScore = new int[playersAbove.length()];
+            PlayerScore[] current = playerScores;
+            for (int playerId = 0; playerId < current.length; playerId++) {
+                PlayerScore playerScore = current[playerId];
+                String username = playerRepository.findUsername(playerId);
+                if (playerScore != null && playerScore.score > 0 && username != null) {
+                    int score = playerScore.score;
+                    rankIndex.add(new RankKey(score, username));
+                    if (score + 1 >= playersByScore.length) {
+                        playersByScore = Arrays.copyOf(playersByScore, Math.max(score + 2, playersByScore.length * 2));
+                    }
+                    playersByScore[score]++;
+                }
+            }
+
+            // Convert per-score counts into counts of higher scores with a suffix sum from the highest score down
+            AtomicIntegerArray rebuilt = new AtomicIntegerArray(playersByScore.length);
+            int higher = 0;
+            for (int score = playersByScore.length - 1; score >= 0; score--) {
+                rebuilt.set(score, higher);
+                higher += playersByScore[score];
+            }
+            playersAbove = rebuilt;
+            version.increment();
+            Log.debugf("Rebuilt rankings for %d players", rankIndex.size());
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    /**
+     * Retrieves a copy of the bitset of question indexes a player has answered correctly.
+     *
+     * @param playerId the player ID
+     * @return bitset words, where bit {@code i % 64} of word {@code i / 64} is set for question index {@code i};
+     *         empty if the player has no correct answers
+     */
+    public long[] getCorrectQuestions(int playerId) {
+        if (playerScore(playerId) == null) {
+            return new long[0];
+        }
+        ReentrantLock stripe = stripeFor(playerId);
+        stripe.lock();
+        try {
+            return playerScores[playerId].correctQuestions.clone();
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Checks whether a player has answered a question correctly, without locking. A correct answer recorded
+     * while this runs may or may not be seen.
+     *
+     * @param playerId the player ID
+     * @param questionIndex the question index
+     * @return true if the player's score includes the question
+     */
+    public boolean hasAnsweredCorrectly(int playerId, int questionIndex) {
+        PlayerScore playerScore = playerScore(playerId);
+        // Reading the volatile score first makes the bitset written before it visible
+        if (playerScore == null || playerScore.score == 0 || questionIndex < 0) {
+            return false;
+        }
+        long[] correctQuestions = playerScore.correctQuestions;
+        int word = questionIndex >>> 6;
+        return word < correctQuestions.length && (correctQuestions[word] & (1L << questionIndex)) != 0;
+    }
+
+    /**
+     * Sets the listener notified of each score change, replacing any previous listener.
+     *
+     * @param listener the listener, or null to stop notifications
+     */
+    public void setAnswerListener(AnswerListener listener) {
+        this.answerListener = listener;
+    }
+
+    /**
+     * Retrieves the current leaderboard version. The version increases whenever any user's score changes
+     * and never otherwise, so an unchanged version means ranked reads would return the same entries.
+     *
+     * @return the number of score changes recorded so far
      */
-    public int getScore(String username) {
-        return userScores.getOrDefault(username, 0);
+    public long getVersion() {
+        return version.sum();
     }
 
     /**
-     * Retrieves all user scores.
+     * Retrieves the score for a player.
+     *
+     * @param playerId the player ID
+     * @return the player's score, or 0 if the player has not answered any questions correctly
+     */
+    public int getScore(int playerId) {
+        PlayerScore playerScore = playerScore(playerId);
+        return playerScore == null ? 0 : playerScore.score;
+    }
+
+    /**
+     * Retrieves all user scores as a consistent point-in-time snapshot.
      *
      * @return HashMap mapping usernames to scores
      */
     public HashMap<String, Integer> getAllScores() {
-        return new HashMap<>(userScores);
+        lockAllStripes();
+        try {
+            PlayerScore[] current = playerScores;
+            HashMap<String, Integer> scores = new HashMap<>();
+            for (int playerId = 0; playerId < current.length; playerId++) {
+                if (current[playerId] != null) {
+                    scores.put(playerRepository.findUsername(playerId), current[playerId].score);
+                }
+            }
+            return scores;
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    /**
+     * Retrieves every user with at least one correct answer, already ranked.
+     * Sorted by score descending, then username ascending as tiebreaker; tied players share a rank, which is
+     * one more than the number of players with a strictly higher score, as in {@link #getStanding}.
+     * Does not lock, so scores changed while this runs may or may not be reflected.
+     *
+     * @return List of LeaderboardEntry objects in rank order
+     */
+    public List<LeaderboardEntry> getRankedEntries() {
+        return collectEntries(rankIndex, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves up to {@code limit} ranked entries from the top of the leaderboard, without locking.
+     *
+     * @param limit the maximum number of entries to return
+     * @return List of LeaderboardEntry objects in rank order, starting at rank 1
+     */
+    public List<LeaderboardEntry> getTopEntries(int limit) {
+        return collectEntries(rankIndex, limit);
     }
 
     /**
-     * Retrieves the count of questions answered correctly for a user.
+     * Retrieves up to {@code limit} ranked entries that follow the given position in rank order.
+     * The position is a (score, username) key, so pages do not shift when other users' scores change.
+     * Does not lock.
+     *
+     * @param score the score of the last entry already seen
+     * @param username the username of the last entry already seen
+     * @param limit the maximum number of entries to return
+     * @return List of LeaderboardEntry objects in rank order
+     */
+    public List<LeaderboardEntry> getEntriesAfter(int score, String username, int limit) {
+        return collectEntries(rankIndex.tailSet(new RankKey(score, username), false), limit);
+    }
+
+    /**
+     * Retrieves a player's score and rank together with up to {@code neighbours} entries ranked
+     * directly above and below. The rank is one more than the number of players with a strictly
+     * higher score, read from the rank table, so tied players share a rank. Does not lock.
+     * A player without any correct answers, or an unregistered username, is placed after every ranked player.
      *
      * @param username the username
-     * @return the number of unique questions answered correctly, or 0 if the user has not answered any questions correctly
+     * @param neighbours the maximum number of entries to return on each side
+     * @return PlayerStanding for the user
+     */
+    public PlayerStanding getStanding(String username, int neighbours) {
+        PlayerScore playerScore = playerScore(playerRepository.findId(username));
+        int score = playerScore == null ? 0 : playerScore.score;
+        AtomicIntegerArray counts = playersAbove;
+
+        List<LeaderboardEntry> above = new ArrayList<>(neighbours);
+        List<LeaderboardEntry> below = new ArrayList<>(neighbours);
+        if (score > 0) {
+            RankKey key = new RankKey(score, username);
+            collectNeighbours(rankIndex.headSet(key, false).descendingIterator(), counts, neighbours, above);
+            collectNeighbours(rankIndex.tailSet(key, false).iterator(), counts, neighbours, below);
+        } else {
+            collectNeighbours(rankIndex.descendingIterator(), counts, neighbours, above);
+        }
+        Collections.reverse(above);
+
+        return new PlayerStanding(username, score, rankForScore(counts, score), above, below);
+    }
+
+    /**
+     * Retrieves the count of questions answered correctly for a player.
+     *
+     * @param playerId the player ID
+     * @return the number of unique questions answered correctly, or 0 if the player has not answered any questions correctly
+     */
+    public int getQuestionsAnsweredCorrectly(int playerId) {
+        PlayerScore playerScore = playerScore(playerId);
+        return playerScore == null ? 0 : playerScore.score;
+    }
+
+    /**
+     * Reads a player's state without locking. The score is volatile, so a reader that races with the
+     * player's first correct answer sees either no state or a score that has been published.
+     */
+    private PlayerScore playerScore(int playerId) {
+        PlayerScore[] current = playerScores;
+        return playerId < 0 || playerId >= current.length ? null : current[playerId];
+    }
+
+    /**
+     * Returns the username of a registered player, validating the player ID and question index.
+     */
+    private String requireUsername(int playerId, int questionIndex) {
+        String username = playerRepository.findUsername(playerId);
+        if (username == null) {
+            throw new IllegalArgumentException("Unknown player id: " + playerId);
+        }
+        if (questionIndex < 0) {
+            throw new IllegalArgumentException("Invalid question index: " + questionIndex);
+        }
+        return username;
+    }
+
+    /**
+     * Marks a question as answered correctly and, on the first correct answer, moves the player up
+     * the ranking index and rank table. Callers must have ensured capacity for the question index, hold the
+     * player's stripe lock, and advance the version and notify the listener when this returns true.
+     */
+    private boolean applyCorrectAnswer(int playerId, String username, int questionIndex) {
+        PlayerScore[] scores = playerScores;
+        PlayerScore playerScore = scores[playerId];
+        if (playerScore == null) {
+            playerScore = new PlayerScore();
+            scores[playerId] = playerScore;
+        }
+        if (!playerScore.markCorrect(questionIndex)) {
+            return false;
+        }
+
+        int previousScore = playerScore.score;
+        if (previousScore > 0) {
+            rankIndex.remove(new RankKey(previousScore, username));
+        }
+        playerScore.score = previousScore + 1;
+        rankIndex.add(new RankKey(previousScore + 1, username));
+        // Only players holding the previous score gain one more player above them
+        playersAbove.incrementAndGet(previousScore);
+        return true;
+    }
+
+    /**
+     * Grows the per-player array to hold the given player ID, and the rank table to hold every score reachable
+     * once the given question index has been answered. Growing holds every stripe, so no score change is lost
+     * while an array is copied, and must be done before the caller locks its own stripe. Only writers grow.
+     */
+    private void ensureCapacity(int playerId, int questionIndex) {
+        if (playerId < playerScores.length && questionIndex + 1 < playersAbove.length()) {
+            return;
+        }
+        lockAllStripes();
+        try {
+            PlayerScore[] current = playerScores;
+            if (playerId >= current.length) {
+                playerScores = Arrays.copyOf(current, Math.max(playerId + 1, current.length * 2));
+            }
+            AtomicIntegerArray counts = playersAbove;
+            if (questionIndex + 1 >= counts.length()) {
+                // Scores past the old length are higher than any held, so no player is above them
+                AtomicIntegerArray grown = new AtomicIntegerArray(Math.max(questionIndex + 2, counts.length() * 2));
+                for (int score = 0; score < counts.length(); score++) {
+                    grown.set(score, counts.get(score));
+                }
+                playersAbove = grown;
+            }
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    private List<LeaderboardEntry> collectEntries(Iterable<RankKey> keys, int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, playerRepository.count()));
+        collectNeighbours(keys.iterator(), playersAbove, limit, entries);
+        return entries;
+    }
+
+    private void collectNeighbours(Iterator<RankKey> keys, AtomicIntegerArray counts, int limit,
+                                   List<LeaderboardEntry> entries) {
+        while (entries.size() < limit && keys.hasNext()) {
+            RankKey key = keys.next();
+            entries.add(new LeaderboardEntry(
+                key.username(), key.score(), rankForScore(counts, key.score()), key.score()));
+        }
+    }
+
+    /**
+     * Returns the rank for a score: one more than the number of players holding any higher score.
+     */
+    private int rankForScore(AtomicIntegerArray counts, int score) {
+        return score < counts.length() ? counts.get(score) + 1 : 1;
+    }
+
+    private ReentrantLock stripeFor(int playerId) {
+        return stripes[playerId & (STRIPE_COUNT - 1)];
+    }
+
+    private void lockAllStripes() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    private void unlockAllStripes() {
+        for (int i = STRIPE_COUNT - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    /**
+     * Mutable per-player state: a bitset of correctly answered question indexes and its population count.
+     * Only modified while holding the player's stripe lock; the score is volatile so single-user reads
+     * do not need the lock.
+     */
+    private static final class PlayerScore {
+        private static final long[] NO_QUESTIONS = new long[0];
+
+        private long[] correctQuestions = NO_QUESTIONS;
+        private volatile int score;
+
+        /**
+         * Sets the bit for a question.
+         *
+         * @return true if the bit was not already set
+         */
+        private boolean markCorrect(int questionIndex) {
+            int word = questionIndex >>> 6;
+            if (word >= correctQuestions.length) {
+                correctQuestions = Arrays.copyOf(correctQuestions, word + 1);
+            }
+            long bit = 1L << questionIndex;
+            if ((correctQuestions[word] & bit) != 0) {
+                return false;
+            }
+            correctQuestions[word] |= bit;
+            return true;
+        }
+    }
+
+    /**
+     * Ranking index key ordered by score descending, then username ascending.
+     */
+    private record RankKey(int score, String username) implements Comparable<RankKey> {
+        @Override
+        public int compareTo(RankKey other) {
+            int byScore = Integer.compare(other.score, score);
+            return byScore != 0 ? byScore : username.compareTo(other.username);
+        }
+    }
+
+    /**
+     * Receives correct answers that changed a player's score.
      */
-    public int getQuestionsAnsweredCorrectly(String username) {
-        return userCorrectQuestions.getOrDefault(username, Set.of()).size();
+    public interface AnswerListener {
+        void correctAnswerRecorded(int playerId, int questionIndex);
     }
 }
@@ -0,0 +1,324 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import com.redhat.demos.redhatone2026.model.Answer;
+import com.redhat.demos.redhatone2026.model.Difficulty;
+import com.redhat.demos.redhatone2026.model.Question;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Question bank read in place from a compiled bank file, for banks too large to hold on the heap.
+ *
+ * The file is memory-mapped read-only and questions are decoded on access, so heap use does not depend on the
+ * size of the bank, and JVMs on the same host that map the same file share its pages through the page cache.
+ * A compiled bank is written by {@link QuestionBankCompiler}. All values are big-endian, and it is laid out as:
+ * <ul>
+ *     <li>a header: magic number, format version, number of indexed questions, number of served questions
+ *     and number of strings, as ints, followed by the SHA-256 digest of the JSON the bank was compiled from,
+ *     or zeros when it was not compiled from a file;</li>
+ *     <li>one fixed-size record per question in index order: the question ID as two longs, its text and
+ *     category as string numbers, the category being -1 when there is none; the position of the correct answer,
+ *     a retired flag and the difficulty, 0 for none or one more than its ordinal, as bytes; a byte of padding;
+ *     and for each of the four answers its ID as two longs and its text as a string number;</li>
+ *     <li>an ID index: one entry per question holding its ID as two longs and its index as an int, sorted
+ *     by ID so a question's index is found by binary search;</li>
+ *     <li>the indexes of the served questions, as ints in order;</li>
+ *     <li>the positions of the served questions in order of category, then difficulty, then position, and in
+ *     order of difficulty, then position, as ints, from which a {@link QuestionSelector} is built;</li>
+ *     <li>a string table: the offset of each string, plus one for the end of the last, as ints, followed by
+ *     the strings as UTF-8. Every distinct text is stored once, however many questions and answers use it.</li>
+ * </ul>
+ *
+ * A mapped file must be replaced by moving a new file over it, never rewritten in place, since JVMs that
+ * mapped it keep reading it until they reload.
+ */
+final class MappedQuestionBank extends QuestionBank {
+
+    static final int MAGIC = 0x51424E4B;
+    static final int VERSION = 4;
+
+    static final int SOURCE_DIGEST_OFFSET = 5 * Integer.BYTES;
+    static final int SOURCE_DIGEST_SIZE = 32;
+    static final int HEADER_SIZE = SOURCE_DIGEST_OFFSET + SOURCE_DIGEST_SIZE;
+    static final int ANSWER_SIZE = 2 * Long.BYTES + Integer.BYTES;
+    static final int RECORD_SIZE = 2 * Long.BYTES + 2 * Integer.BYTES + 4 + 4 * ANSWER_SIZE;
+    static final int ID_ENTRY_SIZE = 2 * Long.BYTES + Integer.BYTES;
+
+    static final int TEXT_OFFSET = 2 * Long.BYTES;
+    static final int CATEGORY_OFFSET = TEXT_OFFSET + Integer.BYTES;
+    static final int CORRECT_OFFSET = CATEGORY_OFFSET + Integer.BYTES;
+    static final int RETIRED_OFFSET = CORRECT_OFFSET + 1;
+    static final int DIFFICULTY_OFFSET = RETIRED_OFFSET + 1;
+    static final int ANSWERS_OFFSET = DIFFICULTY_OFFSET + 2;
+
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int activeCount;
+    private final int stringCount;
+    private final int recordsOffset;
+    private final int idIndexOffset;
+    private final int activeOffset;
+    private final int byCategoryOffset;
+    private final int byDifficultyOffset;
+    private final int stringOffsetsOffset;
+    private final int stringsOffset;
+    private final List<Question> active;
+    private final QuestionSelector selector;
+
+    private MappedQuestionBank(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a compiled question bank");
+        }
+        int version = buffer.getInt(Integer.BYTES);
+        if (version != VERSION) {
+            throw new IOException("Unsupported question bank version " + version + ", expected " + VERSION);
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(2 * Integer.BYTES);
+        this.activeCount = buffer.getInt(3 * Integer.BYTES);
+        this.stringCount = buffer.getInt(4 * Integer.BYTES);
+        if (count < 0 || activeCount < 0 || activeCount > count || stringCount < 0) {
+            throw new IOException("Corrupt question bank header");
+        }
+
+        long idIndexOffset = HEADER_SIZE + (long) count * RECORD_SIZE;
+        long activeOffset = idIndexOffset + (long) count * ID_ENTRY_SIZE;
+        long byCategoryOffset = activeOffset + (long) activeCount * Integer.BYTES;
+        long byDifficultyOffset = byCategoryOffset + (long) activeCount * Integer.BYTES;
+        long stringOffsetsOffset = byDifficultyOffset + (long) activeCount * Integer.BYTES;
+        long stringsOffset = stringOffsetsOffset + ((long) stringCount + 1) * Integer.BYTES;
+        if (stringsOffset > buffer.capacity()
+            || stringsOffset + buffer.getInt((int) stringsOffset - Integer.BYTES) != buffer.capacity()) {
+            throw new IOException("Truncated question bank");
+        }
+        this.recordsOffset = HEADER_SIZE;
+        this.idIndexOffset = (int) idIndexOffset;
+        this.activeOffset = (int) activeOffset;
+        this.byCategoryOffset = (int) byCategoryOffset;
+        this.byDifficultyOffset = (int) byDifficultyOffset;
+        this.stringOffsetsOffset = (int) stringOffsetsOffset;
+        this.stringsOffset = (int) stringsOffset;
+        this.active = new ActiveQuestions();
+        this.selector = QuestionSelector.build(this);
+    }
+
+    /**
+     * Maps a compiled bank file.
+     *
+     * @param file the compiled bank file
+     * @return the bank
+     * @throws IOException if the file cannot be read or is not a compiled bank of this version
+     */
+    static MappedQuestionBank open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Compiled question bank is larger than 2 GB: " + file);
+            }
+            // The mapping stays valid after the channel is closed
+            return new MappedQuestionBank(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a compiled bank from a buffer.
+     *
+     * @param buffer the compiled bank, which must not be modified afterwards
+     * @return the bank
+     * @throws IOException if the buffer is not a compiled bank of this version
+     */
+    static MappedQuestionBank wrap(ByteBuffer buffer) throws IOException {
+        return new MappedQuestionBank(buffer);
+    }
+
+    /**
+     * Checks whether a file starts like a compiled bank rather than JSON.
+     *
+     * @param file the file
+     * @return true if the file starts with the compiled bank magic number
+     * @throws IOException if the file cannot be read
+     */
+    static boolean isCompiled(Path file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            byte[] magic = inputStream.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Returns the SHA-256 digest of the JSON the bank was compiled from.
+     *
+     * @return the digest, all zeros when the bank was not compiled from a file
+     */
+    byte[] sourceDigest() {
+        byte[] digest = new byte[SOURCE_DIGEST_SIZE];
+        buffer.get(SOURCE_DIGEST_OFFSET, digest);
+        return digest;
+    }
+
+    @Override
+    int size() {
+        return count;
+    }
+
+    @Override
+    List<Question> active() {
+        return active;
+    }
+
+    @Override
+    int activeIndex(int position) {
+        return buffer.getInt(activeOffset + position * Integer.BYTES);
+    }
+
+    @Override
+    int indexOf(UUID id) {
+        long mostSignificantBits = id.getMostSignificantBits();
+        long leastSignificantBits = id.getLeastSignificantBits();
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = idIndexOffset + middle * ID_ENTRY_SIZE;
+            int comparison = compareIds(buffer.getLong(entry), buffer.getLong(entry + Long.BYTES),
+                mostSignificantBits, leastSignificantBits);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return buffer.getInt(entry + 2 * Long.BYTES);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    Optional<Question> findByIndex(int index) {
+        if (index < 0 || index >= count) {
+            return Optional.empty();
+        }
+        return Optional.of(decode(index));
+    }
+
+    @Override
+    UUID idAt(int index) {
+        return readId(record(index));
+    }
+
+    @Override
+    String categoryAt(int index) {
+        int category = buffer.getInt(record(index) + CATEGORY_OFFSET);
+        return category < 0 ? null : string(category);
+    }
+
+    @Override
+    Difficulty difficultyAt(int index) {
+        int difficulty = buffer.get(record(index) + DIFFICULTY_OFFSET);
+        if (difficulty < 0 || difficulty > DIFFICULTIES.length) {
+            throw new IllegalStateException("Corrupt question bank: no difficulty " + difficulty);
+        }
+        return difficulty == 0 ? null : DIFFICULTIES[difficulty - 1];
+    }
+
+    @Override
+    int byCategory(int rank) {
+        return buffer.getInt(byCategoryOffset + rank * Integer.BYTES);
+    }
+
+    @Override
+    int byDifficulty(int rank) {
+        return buffer.getInt(byDifficultyOffset + rank * Integer.BYTES);
+    }
+
+    @Override
+    QuestionSelector selector() {
+        return selector;
+    }
+
+    @Override
+    boolean isRetired(int index) {
+        return buffer.get(record(index) + RETIRED_OFFSET) != 0;
+    }
+
+    @Override
+    int correctAnswer(int index) {
+        if (index < 0 || index >= count) {
+            return -1;
+        }
+        return buffer.get(record(index) + CORRECT_OFFSET);
+    }
+
+    /**
+     * Orders question IDs in the ID index, by their most and then least significant bits, as signed longs.
+     */
+    static int compareIds(long mostSignificantBits, long leastSignificantBits,
+                          long otherMostSignificantBits, long otherLeastSignificantBits) {
+        int comparison = Long.compare(mostSignificantBits, otherMostSignificantBits);
+        return comparison != 0 ? comparison : Long.compare(leastSignificantBits, otherLeastSignificantBits);
+    }
+
+    private Question decode(int index) {
+        int record = record(index);
+        int correct = buffer.get(record + CORRECT_OFFSET);
+        List<Answer> answers = new ArrayList<>(QuestionRepository.ANSWER_LETTERS.size());
+        for (int i = 0; i < QuestionRepository.ANSWER_LETTERS.size(); i++) {
+            int answer = record + ANSWERS_OFFSET + i * ANSWER_SIZE;
+            answers.add(new Answer(readId(answer), string(buffer.getInt(answer + 2 * Long.BYTES)), i == correct));
+        }
+        return new Question(readId(record), string(buffer.getInt(record + TEXT_OFFSET)), answers,
+            categoryAt(index), difficultyAt(index));
+    }
+
+    private int record(int index) {
+        return recordsOffset + index * RECORD_SIZE;
+    }
+
+    private UUID readId(int offset) {
+        return new UUID(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES));
+    }
+
+    private String string(int number) {
+        if (number < 0 || number >= stringCount) {
+            throw new IllegalStateException("Corrupt question bank: no string " + number);
+        }
+        int start = buffer.getInt(stringOffsetsOffset + number * Integer.BYTES);
+        int end = buffer.getInt(stringOffsetsOffset + (number + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringsOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The served questions, decoded as they are read.
+     */
+    private final class ActiveQuestions extends AbstractList<Question> implements RandomAccess {
+
+        @Override
+        public Question get(int position) {
+            if (position < 0 || position >= activeCount) {
+                throw new IndexOutOfBoundsException("Position " + position + " out of " + activeCount);
+            }
+            return decode(activeIndex(position));
+        }
+
+        @Override
+        public int size() {
+            return activeCount;
+        }
+    }
+}
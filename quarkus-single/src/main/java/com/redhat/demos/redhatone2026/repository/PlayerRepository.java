@@ -0,0 +1,152 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Repository for registered players using in-memory storage that is safe under concurrent access.
+ * Acts as the single dictionary between usernames and compact player IDs.
+ *
+ * Player IDs are dense, starting at 0 and issued in registration order, so other repositories can keep
+ * per-player state in arrays indexed by ID. Each username is stored once and shared by both directions
+ * of the lookup. Registration is idempotent: registering the same username again returns the same ID.
+ * A registration listener, when set, is told about each new player while the registration lock is held,
+ * so it sees players in ID order.
+ */
+@ApplicationScoped
+public class PlayerRepository {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ConcurrentHashMap<String, Integer> playerIds;
+    private final ReentrantLock registrationLock;
+    private volatile String[] usernames;
+    private volatile int count;
+    private volatile RegistrationListener registrationListener;
+
+    public PlayerRepository() {
+        this.playerIds = new ConcurrentHashMap<>();
+        this.registrationLock = new ReentrantLock();
+        this.usernames = new String[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Registers a username, issuing the next player ID unless the username is already registered.
+     *
+     * @param username the username
+     * @return the player ID for the username
+     */
+    public int register(String username) {
+        Integer existingId = playerIds.get(username);
+        if (existingId != null) {
+            return existingId;
+        }
+
+        registrationLock.lock();
+        try {
+            existingId = playerIds.get(username);
+            if (existingId != null) {
+                return existingId;
+            }
+
+            int playerId = count;
+            String[] current = usernames;
+            if (playerId == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[playerId] = username;
+            usernames = current;
+            count = playerId + 1;
+            playerIds.put(username, playerId);
+            Log.debugf("Registered player %s with id %d", username, playerId);
+
+            RegistrationListener listener = registrationListener;
+            if (listener != null) {
+                listener.playerRegistered(playerId, username);
+            }
+            return playerId;
+        } finally {
+            registrationLock.unlock();
+        }
+    }
+
+    /**
+     * Restores a player with a previously issued ID, for example while recovering from a journal.
+     * Does not notify the registration listener. Later registrations continue after the highest restored ID.
+     *
+     * @param playerId the player ID
+     * @param username the username
+     */
+    public void restore(int playerId, String username) {
+        registrationLock.lock();
+        try {
+            String[] current = usernames;
+            if (playerId >= current.length) {
+                current = Arrays.copyOf(current, Math.max(playerId + 1, current.length * 2));
+            }
+            current[playerId] = username;
+            usernames = current;
+            playerIds.put(username, playerId);
+            if (playerId >= count) {
+                count = playerId + 1;
+            }
+        } finally {
+            registrationLock.unlock();
+        }
+    }
+
+    /**
+     * Sets the listener notified of each new registration, replacing any previous listener.
+     *
+     * @param listener the listener, or null to stop notifications
+     */
+    public void setRegistrationListener(RegistrationListener listener) {
+        this.registrationListener = listener;
+    }
+
+    /**
+     * Finds the player ID for a username.
+     *
+     * @param username the username
+     * @return the player ID, or -1 if the username is not registered
+     */
+    public int findId(String username) {
+        Integer playerId = playerIds.get(username);
+        return playerId == null ? -1 : playerId;
+    }
+
+    /**
+     * Finds the username for a player ID.
+     *
+     * @param playerId the player ID
+     * @return the username, or null if no player has the given ID
+     */
+    public String findUsername(int playerId) {
+        // Read the count first: a slot below it was written before the count was published
+        int registered = count;
+        if (playerId < 0 || playerId >= registered) {
+            return null;
+        }
+        return usernames[playerId];
+    }
+
+    /**
+     * Retrieves the number of registered players, which is also one more than the highest player ID.
+     *
+     * @return the number of registered players
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Receives newly registered players.
+     */
+    public interface RegistrationListener {
+        void playerRegistered(int playerId, String username);
+    }
+}
@@ -0,0 +1,222 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import com.redhat.demos.redhatone2026.model.Answer;
+import com.redhat.demos.redhatone2026.model.Difficulty;
+import com.redhat.demos.redhatone2026.model.Question;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable snapshot of the loaded questions, addressed by dense question index.
+ *
+ * A bank is never modified after it is built; the repository replaces it as a whole when the questions change.
+ * Indexes are stable across reloads, because leaderboard state is kept per index. A reloaded bank keeps the
+ * index of every question it already had, appends new questions, and retires questions that are no longer
+ * present: a retired question keeps its index and can still be looked up and answered, but is not served.
+ *
+ * Served questions can be selected at random by category and difficulty through a {@link QuestionSelector}.
+ *
+ * Banks loaded from JSON are held on the heap by {@link ArrayQuestionBank}; compiled banks are read in place
+ * from a memory-mapped file by {@link MappedQuestionBank}.
+ */
+abstract sealed class QuestionBank permits ArrayQuestionBank, MappedQuestionBank {
+
+    private static final AtomicInteger GENERATIONS = new AtomicInteger();
+
+    static final QuestionBank EMPTY = new ArrayQuestionBank(new Question[0], new boolean[0]);
+
+    private final int generation = GENERATIONS.incrementAndGet();
+
+    /**
+     * Retrieves the number of this bank among all banks built, which tells the positions of its served questions
+     * apart from those of any other bank, even one serving as many questions.
+     *
+     * @return the bank's generation, never 0 until the counter wraps
+     */
+    final int generation() {
+        return generation;
+    }
+
+    /**
+     * Retrieves the number of indexed questions, including retired ones.
+     *
+     * @return the number of indexed questions
+     */
+    abstract int size();
+
+    /**
+     * Retrieves the questions currently served, in index order.
+     *
+     * @return unmodifiable list of the served questions, shared between calls
+     */
+    abstract List<Question> active();
+
+    /**
+     * Retrieves the index of a served question.
+     *
+     * @param position the position of the question among the served questions
+     * @return the question index
+     */
+    abstract int activeIndex(int position);
+
+    abstract int indexOf(UUID id);
+
+    abstract Optional<Question> findByIndex(int index);
+
+    /**
+     * Retrieves the ID of the question at an index, without decoding the rest of the question.
+     *
+     * @param index the question index, from 0 to the size minus one
+     * @return the question ID
+     */
+    abstract UUID idAt(int index);
+
+    /**
+     * Retrieves whether the question at an index is retired.
+     *
+     * @param index the question index, from 0 to the size minus one
+     * @return true if the question is no longer served
+     */
+    abstract boolean isRetired(int index);
+
+    /**
+     * Retrieves the position of a question's correct answer.
+     *
+     * @param index the question index
+     * @return 0 to 3 for answers A to D, or -1 if the index is out of range
+     */
+    abstract int correctAnswer(int index);
+
+    /**
+     * Retrieves the category of the question at an index, without decoding the rest of the question.
+     *
+     * @param index the question index, from 0 to the size minus one
+     * @return the category, or null if the question has none
+     */
+    abstract String categoryAt(int index);
+
+    /**
+     * Retrieves the difficulty of the question at an index, without decoding the rest of the question.
+     *
+     * @param index the question index, from 0 to the size minus one
+     * @return the difficulty, or null if the question has none
+     */
+    abstract Difficulty difficultyAt(int index);
+
+    /**
+     * Retrieves a served position in order of category, then difficulty, then position.
+     *
+     * @param rank the rank in that order, from 0 to the number of served questions minus one
+     * @return the position among the served questions
+     */
+    abstract int byCategory(int rank);
+
+    /**
+     * Retrieves a served position in order of difficulty, then position.
+     *
+     * @param rank the rank in that order, from 0 to the number of served questions minus one
+     * @return the position among the served questions
+     */
+    abstract int byDifficulty(int rank);
+
+    abstract QuestionSelector selector();
+
+    /**
+     * Picks the position of a random served question with the given category and difficulty.
+     *
+     * @param category the category, matched ignoring case, or null for any category
+     * @param difficulty the difficulty, or null for any difficulty
+     * @return the position of the question among the served questions, or -1 if none match
+     */
+    int randomPosition(String category, Difficulty difficulty) {
+        return selector().randomPosition(this, category, difficulty);
+    }
+
+    Optional<Question> findById(UUID id) {
+        return findByIndex(indexOf(id));
+    }
+
+    /**
+     * Builds the bank that results from loading the given questions over this one. Questions this bank
+     * already indexes keep their index and take the loaded content; new questions are appended in load
+     * order; questions that are not loaded again are retired. The result is always held on the heap.
+     *
+     * @param source the loaded questions; later questions that repeat an earlier ID are ignored
+     * @return the new bank
+     * @throws IllegalArgumentException if a question does not have exactly four answers, one of them correct
+     */
+    QuestionBank reload(List<Question> source) {
+        int size = size();
+        Question[] reloaded = new Question[size + source.size()];
+        for (int index = 0; index < size; index++) {
+            reloaded[index] = findByIndex(index).orElseThrow();
+        }
+        boolean[] retired = new boolean[reloaded.length];
+        Arrays.fill(retired, 0, size, true);
+        Set<UUID> loaded = new HashSet<>();
+        int count = size;
+        for (Question question : source) {
+            if (!loaded.add(question.id())) {
+                continue;
+            }
+            int index = indexOf(question.id());
+            if (index < 0) {
+                index = count++;
+            }
+            reloaded[index] = question;
+            retired[index] = false;
+        }
+        return new ArrayQuestionBank(Arrays.copyOf(reloaded, count), Arrays.copyOf(retired, count));
+    }
+
+    /**
+     * Checks that a bank replacing this one keeps the index of every question this one indexes.
+     *
+     * @param next the replacing bank
+     * @throws IllegalArgumentException if a question is missing from the replacing bank or has moved
+     */
+    void requireIndexesKeptBy(QuestionBank next) {
+        for (int index = 0; index < size(); index++) {
+            UUID id = idAt(index);
+            int nextIndex = next.indexOf(id);
+            if (nextIndex != index) {
+                throw new IllegalArgumentException("Question " + id + " moved from index " + index + " to "
+                    + nextIndex + "; compile the new bank against the current one to keep indexes stable");
+            }
+        }
+    }
+
+    /**
+     * Finds the position of a question's correct answer.
+     *
+     * @param question the question
+     * @return 0 to 3 for answers A to D
+     * @throws IllegalArgumentException if the question does not have exactly four answers, one of them correct
+     */
+    static int correctAnswerIndex(Question question) {
+        List<Answer> answers = question.optionalAnswers();
+        if (answers.size() != QuestionRepository.ANSWER_LETTERS.size()) {
+            throw new IllegalArgumentException("Question " + question.id() + " has " + answers.size()
+                + " answers, expected " + QuestionRepository.ANSWER_LETTERS.size());
+        }
+        int correct = -1;
+        for (int i = 0; i < answers.size(); i++) {
+            if (answers.get(i).isCorrect()) {
+                if (correct >= 0) {
+                    throw new IllegalArgumentException("Question " + question.id() + " has more than one correct answer");
+                }
+                correct = i;
+            }
+        }
+        if (correct < 0) {
+            throw new IllegalArgumentException("Question " + question.id() + " has no correct answer");
+        }
+        return correct;
+    }
+}
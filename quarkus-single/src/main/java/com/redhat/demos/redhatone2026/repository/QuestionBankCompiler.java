@@ -0,0 +1,219 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.demos.redhatone2026.model.Answer;
+import com.redhat.demos.redhatone2026.model.Question;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Compiles questions JSON into a compact binary question bank, in the format read by {@link MappedQuestionBank}.
+ *
+ * The Maven build runs {@link #main(String[])} after the classes are compiled to compile the bundled questions,
+ * so the JSON is parsed and validated once, by the build, and a malformed question fails the build rather than
+ * the application. The same command compiles large banks for trivia.questions.file; given the bank currently
+ * served, it keeps the index of every question in it and retires the ones that were removed, so the new bank
+ * can be reloaded without disturbing per-question state. Each bank records a digest of the JSON it was compiled
+ * from, so a bank left behind by an earlier build, as when quarkus:dev recompiles classes without running the
+ * compile step, is recognized as stale rather than served in place of the edited questions.
+ */
+public final class QuestionBankCompiler {
+
+    private QuestionBankCompiler() {
+    }
+
+    /**
+     * Compiles a questions JSON file into a binary question bank.
+     *
+     * @param args the JSON file to read, the binary file to write, and optionally the binary file currently
+     *             served, whose question indexes are kept
+     * @throws IOException if a file cannot be read or parsed, or the binary cannot be written
+     * @throws IllegalArgumentException if a question does not have exactly four answers, one of them correct
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 3) {
+            throw new IllegalArgumentException(
+                "Usage: QuestionBankCompiler <questions.json> <questions.bin> [<current questions.bin>]");
+        }
+        Path source = Path.of(args[0]);
+        Path target = Path.of(args[1]).toAbsolutePath();
+
+        byte[] json = Files.readAllBytes(source);
+        List<Question> questions = new ObjectMapper().readValue(json, new TypeReference<List<Question>>() {});
+        QuestionBank base = args.length == 3 ? MappedQuestionBank.open(Path.of(args[2])) : QuestionBank.EMPTY;
+        QuestionBank compiled = base.reload(questions);
+
+        // Written beside the target and moved over it, so a JVM that mapped the previous file keeps reading it
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temporary)) {
+                write(compiled, digest(json), outputStream);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        System.out.printf("Compiled %d questions, %d retired, from %s into %s%n",
+            compiled.active().size(), compiled.size() - compiled.active().size(), source, target);
+    }
+
+    /**
+     * Writes a question bank that was not compiled from a file in the binary format, including its retired
+     * questions.
+     *
+     * @param bank the bank
+     * @param outputStream the stream to write to; it is flushed but not closed
+     * @throws IOException if the stream cannot be written
+     */
+    static void write(QuestionBank bank, OutputStream outputStream) throws IOException {
+        write(bank, new byte[MappedQuestionBank.SOURCE_DIGEST_SIZE], outputStream);
+    }
+
+    /**
+     * Writes a question bank in the binary format, including its retired questions.
+     *
+     * @param bank the bank
+     * @param sourceDigest the SHA-256 digest of the JSON the bank was compiled from
+     * @param outputStream the stream to write to; it is flushed but not closed
+     * @throws IOException if the stream cannot be written
+     */
+    static void write(QuestionBank bank, byte[] sourceDigest, OutputStream outputStream) throws IOException {
+        int count = bank.size();
+        int activeCount = bank.active().size();
+        Map<String, Integer> stringNumbers = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MappedQuestionBank.MAGIC);
+        out.writeInt(MappedQuestionBank.VERSION);
+        out.writeInt(count);
+        out.writeInt(activeCount);
+        // The string count is only known once the records are written, so the records are staged first
+        ByteBuffer records = ByteBuffer.allocate(count * MappedQuestionBank.RECORD_SIZE);
+        for (int index = 0; index < count; index++) {
+            Question question = bank.findByIndex(index).orElseThrow();
+            writeId(records, question.id());
+            records.putInt(stringNumber(question.questionText(), stringNumbers, strings));
+            records.putInt(question.category() == null
+                ? -1 : stringNumber(question.category(), stringNumbers, strings));
+            records.put((byte) bank.correctAnswer(index));
+            records.put((byte) (bank.isRetired(index) ? 1 : 0));
+            records.put((byte) (question.difficulty() == null ? 0 : question.difficulty().ordinal() + 1));
+            records.put((byte) 0);
+            for (Answer answer : question.optionalAnswers()) {
+                writeId(records, answer.id());
+                records.putInt(stringNumber(answer.text(), stringNumbers, strings));
+            }
+        }
+        out.writeInt(strings.size());
+        out.write(sourceDigest);
+        out.write(records.array());
+
+        Integer[] byId = new Integer[count];
+        Arrays.setAll(byId, index -> index);
+        Arrays.sort(byId, Comparator.comparing(bank::idAt, (left, right) -> MappedQuestionBank.compareIds(
+            left.getMostSignificantBits(), left.getLeastSignificantBits(),
+            right.getMostSignificantBits(), right.getLeastSignificantBits())));
+        for (int index : byId) {
+            UUID id = bank.idAt(index);
+            out.writeLong(id.getMostSignificantBits());
+            out.writeLong(id.getLeastSignificantBits());
+            out.writeInt(index);
+        }
+
+        for (int position = 0; position < activeCount; position++) {
+            out.writeInt(bank.activeIndex(position));
+        }
+        for (int rank = 0; rank < activeCount; rank++) {
+            out.writeInt(bank.byCategory(rank));
+        }
+        for (int rank = 0; rank < activeCount; rank++) {
+            out.writeInt(bank.byDifficulty(rank));
+        }
+
+        int offset = 0;
+        for (byte[] string : strings) {
+            out.writeInt(offset);
+            offset += string.length;
+        }
+        out.writeInt(offset);
+        for (byte[] string : strings) {
+            out.write(string);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads the served questions of a binary question bank.
+     *
+     * @param inputStream the stream to read from; it is not closed
+     * @return the served questions in index order
+     * @throws IOException if the stream cannot be read or is not a binary question bank of this version
+     */
+    public static List<Question> read(InputStream inputStream) throws IOException {
+        return List.copyOf(MappedQuestionBank.wrap(ByteBuffer.wrap(inputStream.readAllBytes())).active());
+    }
+
+    /**
+     * Reads the served questions of a binary question bank, if it was compiled from the given JSON.
+     *
+     * @param inputStream the stream to read from; it is not closed
+     * @param json the JSON the bank should have been compiled from
+     * @return the served questions in index order, or empty if the bank was compiled from other JSON
+     * @throws IOException if the stream cannot be read or is not a binary question bank of this version
+     */
+    static Optional<List<Question>> readIfCompiledFrom(InputStream inputStream, byte[] json) throws IOException {
+        MappedQuestionBank bank = MappedQuestionBank.wrap(ByteBuffer.wrap(inputStream.readAllBytes()));
+        if (!MessageDigest.isEqual(bank.sourceDigest(), digest(json))) {
+            return Optional.empty();
+        }
+        return Optional.of(List.copyOf(bank.active()));
+    }
+
+    /**
+     * Computes the digest recorded for the JSON a bank is compiled from.
+     *
+     * @param json the JSON
+     * @return its SHA-256 digest
+     */
+    static byte[] digest(byte[] json) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(json);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static int stringNumber(String text, Map<String, Integer> stringNumbers, List<byte[]> strings) {
+        return stringNumbers.computeIfAbsent(text, key -> {
+            strings.add(key.getBytes(StandardCharsets.UTF_8));
+            return strings.size() - 1;
+        });
+    }
+
+    private static void writeId(ByteBuffer buffer, UUID id) {
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+    }
+}
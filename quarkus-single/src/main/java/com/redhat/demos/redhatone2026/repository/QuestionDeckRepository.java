@@ -0,0 +1,143 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Repository for per-player question decks, so a player sees every question once before any question repeats.
+ *
+ * Decks are never materialized. Each player's deck is one long holding the low 16 bits of the generation of the
+ * served questions, a 16-bit shuffle seed and a 32-bit cursor, and the question at a cursor position is found by
+ * a permutation of the positions of the served questions, keyed by the seed: a four-round Feistel network over
+ * the smallest power of four covering the deck, with cycle walking to stay within it. When the cursor reaches
+ * the end of the deck, the player gets a new seed and so a new shuffle. When the questions are reloaded, their
+ * positions move whether or not their number changes, so a player's next draw from a deck built for another
+ * generation starts a new shuffle as well.
+ *
+ * States are kept in pages of atomic longs indexed by player ID and allocated as players appear, so each player
+ * costs eight bytes. The state is advanced with a compare-and-set, so concurrent requests for the same player
+ * draw different questions.
+ */
+@ApplicationScoped
+public class QuestionDeckRepository {
+
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int INITIAL_PAGES = 16;
+    private static final int ROUNDS = 4;
+
+    private final ReentrantLock pageLock = new ReentrantLock();
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[INITIAL_PAGES];
+
+    /**
+     * Draws the next question from a player's deck, starting a new shuffle when the deck is exhausted.
+     *
+     * @param playerId the player ID
+     * @param questionCount the number of questions served
+     * @param generation the generation of the served questions, as returned by QuestionRepository.findGeneration
+     * @return the position of the next question among the served questions, or -1 if none are served
+     * @throws IllegalArgumentException if the player ID is negative
+     */
+    public int nextPosition(int playerId, int questionCount, int generation) {
+        if (playerId < 0) {
+            throw new IllegalArgumentException("Player ID cannot be negative");
+        }
+        if (questionCount <= 0) {
+            return -1;
+        }
+
+        AtomicLongArray page = page(playerId);
+        int slot = playerId & (PAGE_SIZE - 1);
+        int deckGeneration = generation & 0xFFFF;
+        while (true) {
+            long state = page.get(slot);
+            int seed = (int) (state >>> 32) & 0xFFFF;
+            int cursor = (int) state;
+            // A zero state is a player without a deck; seeds are never zero once assigned
+            if (state == 0 || (int) (state >>> 48) != deckGeneration || cursor < 0 || cursor >= questionCount) {
+                seed = newSeed(seed);
+                cursor = 0;
+            }
+            long next = ((long) deckGeneration << 48) | ((long) seed << 32) | ((cursor + 1) & 0xFFFFFFFFL);
+            if (page.compareAndSet(slot, state, next)) {
+                return permute(cursor, questionCount, seed);
+            }
+        }
+    }
+
+    /**
+     * Maps a cursor position to a question position, visiting every position below the question count
+     * exactly once as the cursor runs from 0 to the question count minus one.
+     *
+     * @param position the cursor position, from 0 to the question count minus one
+     * @param questionCount the number of questions served
+     * @param seed the shuffle seed
+     * @return the question position at the cursor
+     */
+    static int permute(int position, int questionCount, int seed) {
+        int bits = Math.max(2, 32 - Integer.numberOfLeadingZeros(questionCount - 1));
+        int halfBits = (bits + 1) / 2;
+        int mask = (1 << halfBits) - 1;
+        int value = position;
+        do {
+            value = feistel(value, halfBits, mask, seed);
+        } while (value >= questionCount);
+        return value;
+    }
+
+    private static int feistel(int value, int halfBits, int mask, int seed) {
+        int left = value >>> halfBits;
+        int right = value & mask;
+        for (int round = 0; round < ROUNDS; round++) {
+            int mixed = left ^ (mix(right, seed, round) & mask);
+            left = right;
+            right = mixed;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private static int mix(int value, int seed, int round) {
+        int hash = value * 0x9E3779B9 + seed + round * 0x85EBCA6B;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    private static int newSeed(int previous) {
+        int seed;
+        do {
+            seed = ThreadLocalRandom.current().nextInt(1 << 16);
+        } while (seed == 0 || seed == previous);
+        return seed;
+    }
+
+    private AtomicLongArray page(int playerId) {
+        int pageIndex = playerId >>> PAGE_BITS;
+        AtomicLongArray[] current = pages;
+        if (pageIndex < current.length && current[pageIndex] != null) {
+            return current[pageIndex];
+        }
+
+        pageLock.lock();
+        try {
+            current = pages;
+            if (pageIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(pageIndex + 1, current.length * 2));
+            }
+            if (current[pageIndex] == null) {
+                current[pageIndex] = new AtomicLongArray(PAGE_SIZE);
+            }
+            pages = current;
+            return current[pageIndex];
+        } finally {
+            pageLock.unlock();
+        }
+    }
+}
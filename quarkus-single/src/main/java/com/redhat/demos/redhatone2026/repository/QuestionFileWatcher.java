@@ -0,0 +1,108 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the questions when the configured questions file changes.
+ *
+ * The file's modification time and size are polled on a background thread, which also does the reload, so
+ * parsing and validating new questions never happens on the request path. Polling is used rather than a
+ * file system watch service because it also notices files replaced through mounted volumes, such as a
+ * Kubernetes ConfigMap. A reload that fails is logged and the current questions stay in place until the
+ * file changes again. Nothing is watched when no questions file is configured.
+ */
+@ApplicationScoped
+public class QuestionFileWatcher {
+
+    private final QuestionRepository questionRepository;
+    private final Duration interval;
+
+    private volatile ScheduledExecutorService scheduler;
+    private volatile String lastSeen;
+
+    public QuestionFileWatcher(QuestionRepository questionRepository,
+                               @ConfigProperty(name = "trivia.questions.watch-interval", defaultValue = "5s")
+                               Duration interval) {
+        if (questionRepository == null) {
+            throw new IllegalArgumentException("QuestionRepository cannot be null");
+        }
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Watch interval must be positive");
+        }
+        this.questionRepository = questionRepository;
+        this.interval = interval;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        questionRepository.getQuestionsFile().ifPresent(this::start);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts polling the file for changes.
+     *
+     * @param file the questions file
+     */
+    void start(Path file) {
+        lastSeen = fingerprint(file);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "question-file-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> check(file), interval.toMillis(), interval.toMillis(),
+            TimeUnit.MILLISECONDS);
+        Log.infof("Watching %s for question changes every %s", file, interval);
+    }
+
+    /**
+     * Reloads the questions if the file changed since it was last seen.
+     *
+     * @param file the questions file
+     * @return true if the file changed and the questions were reloaded
+     */
+    boolean check(Path file) {
+        String current = fingerprint(file);
+        if (current == null || current.equals(lastSeen)) {
+            return false;
+        }
+        lastSeen = current;
+        try {
+            int served = questionRepository.reload();
+            Log.infof("Reloaded %d questions after %s changed", served, file);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            Log.errorf(e, "Keeping current questions; failed to reload %s", file);
+            return false;
+        }
+    }
+
+    private static String fingerprint(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.lastModifiedTime().toMillis() + ":" + attributes.size();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -2,72 +2,248 @@ package com.redhat.demos.redhatone2026.repository;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.demos.redhatone2026.model.Difficulty;
 import com.redhat.demos.redhatone2026.model.Question;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Repository for managing trivia questions using in-memory HashMap storage.
- * Questions are loaded from a JSON resource file at application startup.
+ * Repository for managing trivia questions using an immutable question bank.
+ * Questions are loaded at application startup from the file named by trivia.questions.file, or from the
+ * bundled question bank when no file is configured, and can be reloaded while the application runs. The bundled
+ * JSON resource is parsed and validated by the build and compiled into a binary bank, so startup reads it without
+ * Jackson or reflection and a malformed bundled question fails the build; a bank compiled from an earlier version
+ * of the JSON is ignored and the JSON is read instead.
+ * Each question is assigned a dense index in load order, from 0 to the number of questions minus one,
+ * so per-question state elsewhere can be kept in arrays and bitsets instead of maps keyed by UUID.
+ * Reads go through a single volatile reference to the current bank, which is replaced as a whole when
+ * the questions change, so lookups and random selection take no locks. A configured file may be JSON, held on
+ * the heap, where lookups copy nothing and allocate nothing; or a bank compiled by {@link QuestionBankCompiler},
+ * which is memory-mapped and decoded on access, so very large banks do not grow the heap.
+ * Every question must have exactly four answers, A to D, with one of them correct; malformed questions are
+ * rejected when they are loaded, and the correct answer of each question is indexed at the same time, as are
+ * the optional category and difficulty, so random questions can be filtered by them without a scan.
+ *
+ * A reload parses and validates the new questions on the calling thread, builds a new bank beside the current
+ * one, and swaps it in with a single write; requests keep reading the previous bank until then, and a reload
+ * that fails leaves it in place. Question indexes are stable across reloads: questions keep their index, new
+ * questions are appended, and questions that were removed are retired, so they can still be looked up and
+ * answered but are no longer served. A reload listener, when set, is told about each swap so derived caches
+ * can be rebuilt off the request path.
  */
 @ApplicationScoped
 public class QuestionRepository {
 
     private static final Logger LOG = Logger.getLogger(QuestionRepository.class);
     private static final String QUESTIONS_FILE = "/questions.json";
+    private static final String COMPILED_QUESTIONS_FILE = "/questions.bin";
 
-    private final HashMap<UUID, Question> questionMap;
-    private final ObjectMapper objectMapper;
+    /**
+     * Answer letters in option order.
+     */
+    public static final List<String> ANSWER_LETTERS = List.of("A", "B", "C", "D");
+
+    /**
+     * The generation reported for questions that have been replaced by a reload.
+     */
+    public static final int STALE_GENERATION = 0;
+
+    private final Optional<Path> questionsFile;
+    private final ReentrantLock reloadLock;
+    private volatile QuestionBank bank;
+    private volatile ReloadListener reloadListener;
 
     public QuestionRepository() {
-        this.questionMap = new HashMap<>();
-        this.objectMapper = new ObjectMapper();
+        this(Optional.empty());
+    }
+
+    @Inject
+    public QuestionRepository(@ConfigProperty(name = "trivia.questions.file") Optional<String> questionsFile) {
+        this.questionsFile = questionsFile.map(Path::of);
+        this.reloadLock = new ReentrantLock();
+        this.bank = QuestionBank.EMPTY;
     }
 
     /**
-     * Initializes the repository by loading questions from the JSON resource file.
+     * Initializes the repository by loading questions from the configured file or the bundled question bank.
      * Throws a runtime exception if the file is missing or malformed.
      */
     @PostConstruct
     void init() {
+        try {
+            reload();
+        } catch (IOException | IllegalArgumentException e) {
+            String errorMsg = "Failed to load questions from " + source() + ": " + e.getMessage();
+            LOG.error(errorMsg, e);
+            throw new IllegalStateException(errorMsg, e);
+        }
+    }
+
+    /**
+     * Loads the questions again from the configured file, or from the bundled question bank, and swaps them in.
+     * The bundled bank is the binary one compiled by the build when it was compiled from the current JSON
+     * resource file, and the JSON otherwise, as when running from an IDE without the build step or when
+     * quarkus:dev picks up an edited JSON file that has not been compiled again. A configured compiled bank must
+     * keep the index of every current question, which the compiler does when given the current bank.
+     *
+     * @return the number of questions served after the reload
+     * @throws IOException if the file cannot be read or parsed
+     * @throws IllegalArgumentException if a question does not have exactly four answers, one of them correct,
+     *         or a compiled bank moves a current question
+     * @throws IllegalStateException if no file is configured and the JSON resource file is missing
+     */
+    public int reload() throws IOException {
+        List<Question> questions;
+        if (questionsFile.isPresent() && MappedQuestionBank.isCompiled(questionsFile.get())) {
+            replaceBank(MappedQuestionBank.open(questionsFile.get()));
+            int served = findAll().size();
+            LOG.infof("Successfully mapped %d questions from %s, %d retired", served, source(), count() - served);
+            return served;
+        } else if (questionsFile.isPresent()) {
+            try (InputStream inputStream = Files.newInputStream(questionsFile.get())) {
+                questions = read(inputStream);
+            }
+        } else {
+            questions = readBundled();
+        }
+
+        replaceQuestions(questions);
+        int served = findAll().size();
+        LOG.infof("Successfully loaded %d questions from %s, %d retired", served, source(), count() - served);
+        return served;
+    }
+
+    /**
+     * Reads the bundled questions from the compiled bank when it was compiled from the bundled JSON, and from
+     * the JSON otherwise.
+     */
+    private List<Question> readBundled() throws IOException {
+        byte[] json;
         try (InputStream inputStream = getClass().getResourceAsStream(QUESTIONS_FILE)) {
             if (inputStream == null) {
                 String errorMsg = "Questions file not found: " + QUESTIONS_FILE;
                 LOG.error(errorMsg);
                 throw new IllegalStateException(errorMsg);
             }
+            json = inputStream.readAllBytes();
+        }
+        try (InputStream inputStream = getClass().getResourceAsStream(COMPILED_QUESTIONS_FILE)) {
+            if (inputStream != null) {
+                Optional<List<Question>> compiled = QuestionBankCompiler.readIfCompiledFrom(inputStream, json);
+                if (compiled.isPresent()) {
+                    return compiled.get();
+                }
+                LOG.infof("Ignoring %s, which was compiled from an earlier %s", COMPILED_QUESTIONS_FILE,
+                    QUESTIONS_FILE);
+            }
+        }
+        return read(new ByteArrayInputStream(json));
+    }
 
-            List<Question> questions = objectMapper.readValue(
-                inputStream,
-                new TypeReference<List<Question>>() {}
-            );
+    private List<Question> read(InputStream inputStream) throws IOException {
+        return new ObjectMapper().readValue(inputStream, new TypeReference<List<Question>>() {});
+    }
 
-            for (Question question : questions) {
-                questionMap.put(question.id(), question);
-            }
+    /**
+     * Retrieves the file questions are loaded from, if one is configured.
+     *
+     * @return Optional containing the questions file, empty when the bundled JSON resource is used
+     */
+    public Optional<Path> getQuestionsFile() {
+        return questionsFile;
+    }
 
-            LOG.infof("Successfully loaded %d questions from %s", questionMap.size(), QUESTIONS_FILE);
+    private String source() {
+        return questionsFile.map(Path::toString).orElseGet(() ->
+            getClass().getResource(COMPILED_QUESTIONS_FILE) != null ? COMPILED_QUESTIONS_FILE : QUESTIONS_FILE);
+    }
 
-        } catch (IOException e) {
-            String errorMsg = "Failed to load questions from " + QUESTIONS_FILE + ": " + e.getMessage();
-            LOG.error(errorMsg, e);
-            throw new IllegalStateException(errorMsg, e);
+    /**
+     * Loads the given questions over the current ones and swaps them in as a whole. Readers see either the
+     * previous questions or the new ones, never a mix. Questions already indexed keep their index and take
+     * the new content, new questions are appended in the given order, and questions not given are retired.
+     *
+     * @param questions the new questions; later questions that repeat an earlier ID are ignored
+     * @throws IllegalArgumentException if a question does not have exactly four answers, one of them correct;
+     *         the current questions are kept
+     */
+    void replaceQuestions(List<Question> questions) {
+        reloadLock.lock();
+        try {
+            swap(bank.reload(questions));
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Swaps in a compiled bank as a whole, after checking that it keeps the index of every current question.
+     *
+     * @param reloaded the compiled bank
+     * @throws IllegalArgumentException if a current question is missing from the compiled bank or has moved;
+     *         the current questions are kept
+     */
+    private void replaceBank(QuestionBank reloaded) {
+        reloadLock.lock();
+        try {
+            bank.requireIndexesKeptBy(reloaded);
+            swap(reloaded);
+        } finally {
+            reloadLock.unlock();
         }
     }
 
+    private void swap(QuestionBank reloaded) {
+        bank = reloaded;
+        ReloadListener listener = reloadListener;
+        if (listener != null) {
+            listener.questionsReloaded(reloaded.active());
+        }
+    }
+
+    /**
+     * Sets the listener notified after each reload, replacing any previous listener.
+     *
+     * @param listener the listener, or null to stop notifications
+     */
+    public void setReloadListener(ReloadListener listener) {
+        this.reloadListener = listener;
+    }
+
     /**
-     * Retrieves all questions.
+     * Retrieves the questions currently served, in index order. Retired questions are left out, and
+     * a new list is returned only when the questions change.
      *
-     * @return List of all questions
+     * @return unmodifiable list of the served questions
      */
     public List<Question> findAll() {
-        return new ArrayList<>(questionMap.values());
+        return bank.active();
+    }
+
+    /**
+     * Retrieves the generation of the served questions, which changes with every reload, so state kept by
+     * position among the served questions can tell that the positions have moved.
+     *
+     * @param questions the served questions, as returned by {@link #findAll()}
+     * @return the generation of the given questions, or STALE_GENERATION if they are no longer served
+     */
+    public int findGeneration(List<Question> questions) {
+        QuestionBank current = bank;
+        return current.active() == questions ? current.generation() : STALE_GENERATION;
     }
 
     /**
@@ -77,21 +253,143 @@ public class QuestionRepository {
      * @return Optional containing the question if found, empty otherwise
      */
     public Optional<Question> findById(UUID id) {
-        return Optional.ofNullable(questionMap.get(id));
+        return bank.findById(id);
+    }
+
+    /**
+     * Finds the dense index of a question.
+     *
+     * @param id the question ID
+     * @return the question's index, or -1 if no question has the given ID
+     */
+    public int indexOf(UUID id) {
+        return bank.indexOf(id);
+    }
+
+    /**
+     * Finds a question by its dense index.
+     *
+     * @param index the question index
+     * @return Optional containing the question if the index is in range, empty otherwise
+     */
+    public Optional<Question> findByIndex(int index) {
+        return bank.findByIndex(index);
+    }
+
+    /**
+     * Finds the index of a served question by its position among the served questions, as returned by
+     * {@link #findAll()}, without decoding the question.
+     *
+     * @param position the position of the question among the served questions
+     * @return the question's index, or -1 if the position is out of range
+     */
+    public int findIndexAt(int position) {
+        QuestionBank current = bank;
+        return position < 0 || position >= current.active().size() ? -1 : current.activeIndex(position);
+    }
+
+    /**
+     * Finds the declared difficulty of a question by its dense index, without decoding the question.
+     *
+     * @param index the question index
+     * @return the question's difficulty, or null if it has none or the index is out of range
+     */
+    public Difficulty findDifficulty(int index) {
+        QuestionBank current = bank;
+        return index < 0 || index >= current.size() ? null : current.difficultyAt(index);
+    }
+
+    /**
+     * Checks an answer against the question's correct answer without allocating.
+     *
+     * @param questionIndex the question index
+     * @param letter the selected answer letter
+     * @return true if the index is in range and the letter is the question's correct answer
+     */
+    public boolean isCorrect(int questionIndex, String letter) {
+        int correct = bank.correctAnswer(questionIndex);
+        return correct >= 0 && correct == answerIndex(letter);
+    }
+
+    /**
+     * Retrieves the letter of a question's correct answer.
+     *
+     * @param questionIndex the question index
+     * @return the correct answer letter, A to D, or null if the index is out of range
+     */
+    public String findCorrectAnswer(int questionIndex) {
+        int correct = bank.correctAnswer(questionIndex);
+        return correct < 0 ? null : ANSWER_LETTERS.get(correct);
+    }
+
+    /**
+     * Converts an answer letter to its option position.
+     *
+     * @param letter the answer letter
+     * @return 0 to 3 for A to D, or -1 for anything else, including null
+     */
+    public static int answerIndex(String letter) {
+        if (letter == null || letter.length() != 1) {
+            return -1;
+        }
+        int index = letter.charAt(0) - 'A';
+        return index >= 0 && index < ANSWER_LETTERS.size() ? index : -1;
+    }
+
+    /**
+     * Retrieves the number of indexed questions, including retired ones, which is also one more than
+     * the highest question index.
+     *
+     * @return the number of indexed questions
+     */
+    public int count() {
+        return bank.size();
     }
 
     /**
-     * Retrieves a random question from the repository.
+     * Retrieves a random question from the questions currently served.
      *
      * @return Optional containing a random question if any exist, empty otherwise
      */
     public Optional<Question> findRandom() {
-        if (questionMap.isEmpty()) {
+        QuestionBank current = bank;
+        List<Question> active = current.active();
+        if (active.isEmpty()) {
             return Optional.empty();
         }
+        return current.findByIndex(current.activeIndex(ThreadLocalRandom.current().nextInt(active.size())));
+    }
+
+    /**
+     * Retrieves a random question with the given category and difficulty from the questions currently served,
+     * using the bank's category and difficulty indexes rather than scanning the questions.
+     *
+     * @param category the category, matched ignoring case, or null for any category
+     * @param difficulty the difficulty, or null for any difficulty
+     * @return Optional containing a random matching question if any exist, empty otherwise
+     */
+    public Optional<Question> findRandom(String category, Difficulty difficulty) {
+        QuestionBank current = bank;
+        int position = current.randomPosition(category, difficulty);
+        return position < 0 ? Optional.empty() : current.findByIndex(current.activeIndex(position));
+    }
 
-        List<Question> questions = new ArrayList<>(questionMap.values());
-        int randomIndex = ThreadLocalRandom.current().nextInt(questions.size());
-        return Optional.of(questions.get(randomIndex));
+    /**
+     * Picks the position of a random question with the given category and difficulty among the questions
+     * currently served, as returned by {@link #findAll()}.
+     *
+     * @param category the category, matched ignoring case, or null for any category
+     * @param difficulty the difficulty, or null for any difficulty
+     * @return the position of a random matching question, or -1 if none match
+     */
+    public int findRandomPosition(String category, Difficulty difficulty) {
+        return bank.randomPosition(category, difficulty);
+    }
+
+    /**
+     * Receives the served questions after each reload.
+     */
+    public interface ReloadListener {
+        void questionsReloaded(List<Question> questions);
     }
 }
@@ -0,0 +1,162 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import com.redhat.demos.redhatone2026.model.Difficulty;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selects served questions at random by category and difficulty without scanning the bank.
+ *
+ * A bank lists the positions of its served questions in two orders: by category, then difficulty, then position;
+ * and by difficulty, then position. In those orders every category, every category and difficulty pair, and
+ * every difficulty is a contiguous range. The selector records the ranges once per bank, so a random question
+ * matching a filter is one range lookup and one read. Only the ranges are kept, so the selector's size depends
+ * on the number of categories rather than the number of questions.
+ */
+final class QuestionSelector {
+
+    static final Comparator<String> CATEGORY_ORDER = Comparator.nullsFirst(Comparator.comparing(QuestionSelector::key));
+    static final Comparator<Difficulty> DIFFICULTY_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private static final int DIFFICULTIES = Difficulty.values().length;
+
+    /**
+     * Per category, in the by-category order: the start and end of the category, then the start and end
+     * of each difficulty within it, in difficulty order. Categories are compared ignoring case, and keys are
+     * lower case.
+     */
+    private final Map<String, int[]> categories;
+
+    /**
+     * In the by-difficulty order: the start and end of each difficulty, in difficulty order.
+     */
+    private final int[] difficulties;
+
+    private QuestionSelector(Map<String, int[]> categories, int[] difficulties) {
+        this.categories = categories;
+        this.difficulties = difficulties;
+    }
+
+    /**
+     * Records the category and difficulty ranges of a bank.
+     *
+     * @param bank the bank
+     * @return the selector
+     */
+    static QuestionSelector build(QuestionBank bank) {
+        int served = bank.active().size();
+        Map<String, int[]> categories = new HashMap<>();
+        int[] difficulties = new int[2 * DIFFICULTIES];
+
+        int start = 0;
+        while (start < served) {
+            int index = bank.activeIndex(bank.byCategory(start));
+            String category = bank.categoryAt(index);
+            Difficulty difficulty = bank.difficultyAt(index);
+            int end = start + 1;
+            while (end < served) {
+                int next = bank.activeIndex(bank.byCategory(end));
+                if (CATEGORY_ORDER.compare(category, bank.categoryAt(next)) != 0
+                    || difficulty != bank.difficultyAt(next)) {
+                    break;
+                }
+                end++;
+            }
+            if (category != null) {
+                int[] ranges = categories.computeIfAbsent(key(category), key -> new int[2 + 2 * DIFFICULTIES]);
+                if (ranges[1] == 0) {
+                    ranges[0] = start;
+                }
+                ranges[1] = end;
+                if (difficulty != null) {
+                    ranges[2 + 2 * difficulty.ordinal()] = start;
+                    ranges[3 + 2 * difficulty.ordinal()] = end;
+                }
+            }
+            start = end;
+        }
+
+        start = 0;
+        while (start < served) {
+            Difficulty difficulty = bank.difficultyAt(bank.activeIndex(bank.byDifficulty(start)));
+            int end = start + 1;
+            while (end < served && bank.difficultyAt(bank.activeIndex(bank.byDifficulty(end))) == difficulty) {
+                end++;
+            }
+            if (difficulty != null) {
+                difficulties[2 * difficulty.ordinal()] = start;
+                difficulties[2 * difficulty.ordinal() + 1] = end;
+            }
+            start = end;
+        }
+        return new QuestionSelector(categories, difficulties);
+    }
+
+    /**
+     * Picks the position of a random served question matching a filter.
+     *
+     * @param bank the bank the selector was built for
+     * @param category the category, matched ignoring case, or null for any category
+     * @param difficulty the difficulty, or null for any difficulty
+     * @return the position of the question among the served questions, or -1 if none match
+     */
+    int randomPosition(QuestionBank bank, String category, Difficulty difficulty) {
+        if (category == null && difficulty == null) {
+            int served = bank.active().size();
+            return served == 0 ? -1 : ThreadLocalRandom.current().nextInt(served);
+        }
+        if (category == null) {
+            int start = difficulties[2 * difficulty.ordinal()];
+            int end = difficulties[2 * difficulty.ordinal() + 1];
+            return start == end ? -1 : bank.byDifficulty(ThreadLocalRandom.current().nextInt(start, end));
+        }
+        int[] ranges = categories.get(key(category));
+        if (ranges == null) {
+            return -1;
+        }
+        int offset = difficulty == null ? 0 : 2 + 2 * difficulty.ordinal();
+        int start = ranges[offset];
+        int end = ranges[offset + 1];
+        return start == end ? -1 : bank.byCategory(ThreadLocalRandom.current().nextInt(start, end));
+    }
+
+    /**
+     * Orders served positions by category, then difficulty, then position.
+     *
+     * @param bank the bank
+     * @return the positions in order
+     */
+    static int[] orderByCategory(QuestionBank bank) {
+        return order(bank, Comparator.comparing((Integer position) -> bank.categoryAt(bank.activeIndex(position)),
+                CATEGORY_ORDER)
+            .thenComparing(position -> bank.difficultyAt(bank.activeIndex(position)), DIFFICULTY_ORDER));
+    }
+
+    /**
+     * Orders served positions by difficulty, then position.
+     *
+     * @param bank the bank
+     * @return the positions in order
+     */
+    static int[] orderByDifficulty(QuestionBank bank) {
+        return order(bank, Comparator.comparing((Integer position) -> bank.difficultyAt(bank.activeIndex(position)),
+            DIFFICULTY_ORDER));
+    }
+
+    private static int[] order(QuestionBank bank, Comparator<Integer> comparator) {
+        Integer[] positions = new Integer[bank.active().size()];
+        Arrays.setAll(positions, position -> position);
+        // The sort is stable, so positions stay in order within each range
+        Arrays.sort(positions, comparator);
+        return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String key(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,185 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Repository for live answer statistics: how often each question is attempted and answered correctly, how often
+ * each of its answers is chosen, and how many questions each player has attempted and answered correctly.
+ *
+ * Recording an answer never takes a lock, and reading the counters never blocks it. Question counters, for
+ * attempts, correct answers and each answer, are LongAdders, which spread concurrent increments of a popular
+ * question over separate cells, so a busy room answering the same question does not contend on one counter.
+ * Player counters are one atomic long per player, holding attempts in the high 32 bits and correct
+ * answers in the low 32, which only that player's own submissions update. Both are kept in pages indexed by
+ * question index and player ID, allocated as they appear; a lock is only taken to add a page.
+ */
+@ApplicationScoped
+public class QuestionStatsRepository {
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int INITIAL_PAGES = 16;
+    private static final int ANSWERS = QuestionRepository.ANSWER_LETTERS.size();
+    private static final int QUESTION_SLOTS = 2 + ANSWERS;
+
+    private final ReentrantLock pageLock = new ReentrantLock();
+    private volatile LongAdder[][] questionPages = new LongAdder[INITIAL_PAGES][];
+    private volatile AtomicLongArray[] playerPages = new AtomicLongArray[INITIAL_PAGES];
+
+    /**
+     * Records an answer to a question.
+     *
+     * @param playerId the player ID
+     * @param questionIndex the question index
+     * @param answerPosition the position of the chosen answer among the question's stored answers, from 0 to 3
+     * @param isCorrect whether the answer was correct
+     * @throws IllegalArgumentException if the player ID or question index is negative or the answer position
+     *         is out of range
+     */
+    public void recordAnswer(int playerId, int questionIndex, int answerPosition, boolean isCorrect) {
+        if (playerId < 0) {
+            throw new IllegalArgumentException("Player ID cannot be negative");
+        }
+        if (questionIndex < 0) {
+            throw new IllegalArgumentException("Question index cannot be negative");
+        }
+        if (answerPosition < 0 || answerPosition >= ANSWERS) {
+            throw new IllegalArgumentException("Invalid answer position");
+        }
+        LongAdder[] questionPage = questionPage(questionIndex, true);
+        int slot = slot(questionIndex);
+        questionPage[slot].increment();
+        if (isCorrect) {
+            questionPage[slot + 1].increment();
+        }
+        questionPage[slot + 2 + answerPosition].increment();
+        playerPage(playerId, true).getAndAdd(playerId & (PAGE_SIZE - 1), (1L << 32) | (isCorrect ? 1 : 0));
+    }
+
+    /**
+     * Retrieves the number of answers recorded for a question.
+     *
+     * @param questionIndex the question index
+     * @return the number of answers, 0 for a question never answered
+     */
+    public long getAttempts(int questionIndex) {
+        LongAdder[] page = questionPage(questionIndex, false);
+        return page == null ? 0 : page[slot(questionIndex)].sum();
+    }
+
+    /**
+     * Retrieves the number of correct answers recorded for a question.
+     *
+     * @param questionIndex the question index
+     * @return the number of correct answers, 0 for a question never answered
+     */
+    public long getCorrect(int questionIndex) {
+        LongAdder[] page = questionPage(questionIndex, false);
+        return page == null ? 0 : page[slot(questionIndex) + 1].sum();
+    }
+
+    /**
+     * Retrieves how often each of a question's answers has been chosen. Counts recorded while they are read
+     * may or may not be included, so the counts can run slightly ahead of the attempts read before them.
+     *
+     * @param questionIndex the question index
+     * @return the number of times each answer was chosen, in the order the answers are stored
+     */
+    public long[] getAnswerCounts(int questionIndex) {
+        long[] counts = new long[ANSWERS];
+        LongAdder[] page = questionPage(questionIndex, false);
+        if (page != null) {
+            int slot = slot(questionIndex);
+            for (int answer = 0; answer < ANSWERS; answer++) {
+                counts[answer] = page[slot + 2 + answer].sum();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Retrieves the number of answers a player has submitted.
+     *
+     * @param playerId the player ID
+     * @return the number of answers, 0 for a player who has not answered
+     */
+    public int getPlayerAttempts(int playerId) {
+        return (int) (playerCounts(playerId) >>> 32);
+    }
+
+    /**
+     * Retrieves the number of correct answers a player has submitted, counting repeated questions each time.
+     *
+     * @param playerId the player ID
+     * @return the number of correct answers, 0 for a player who has not answered
+     */
+    public int getPlayerCorrect(int playerId) {
+        return (int) playerCounts(playerId);
+    }
+
+    private static int slot(int questionIndex) {
+        return QUESTION_SLOTS * (questionIndex & (PAGE_SIZE - 1));
+    }
+
+    private long playerCounts(int playerId) {
+        AtomicLongArray page = playerPage(playerId, false);
+        return page == null ? 0 : page.get(playerId & (PAGE_SIZE - 1));
+    }
+
+    private LongAdder[] questionPage(int questionIndex, boolean create) {
+        int pageIndex = questionIndex >>> PAGE_BITS;
+        LongAdder[][] current = questionPages;
+        if (questionIndex >= 0 && pageIndex < current.length && current[pageIndex] != null) {
+            return current[pageIndex];
+        }
+        if (!create || questionIndex < 0) {
+            return null;
+        }
+        pageLock.lock();
+        try {
+            current = questionPages;
+            if (pageIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(pageIndex + 1, current.length * 2));
+            }
+            if (current[pageIndex] == null) {
+                LongAdder[] page = new LongAdder[QUESTION_SLOTS * PAGE_SIZE];
+                Arrays.setAll(page, slot -> new LongAdder());
+                current[pageIndex] = page;
+            }
+            questionPages = current;
+            return current[pageIndex];
+        } finally {
+            pageLock.unlock();
+        }
+    }
+
+    private AtomicLongArray playerPage(int playerId, boolean create) {
+        int pageIndex = playerId >>> PAGE_BITS;
+        AtomicLongArray[] current = playerPages;
+        if (playerId >= 0 && pageIndex < current.length && current[pageIndex] != null) {
+            return current[pageIndex];
+        }
+        if (!create || playerId < 0) {
+            return null;
+        }
+        pageLock.lock();
+        try {
+            current = playerPages;
+            if (pageIndex >= current.length) {
+                current = Arrays.copyOf(current, Math.max(pageIndex + 1, current.length * 2));
+            }
+            if (current[pageIndex] == null) {
+                current[pageIndex] = new AtomicLongArray(PAGE_SIZE);
+            }
+            playerPages = current;
+            return current[pageIndex];
+        } finally {
+            pageLock.unlock();
+        }
+    }
+}
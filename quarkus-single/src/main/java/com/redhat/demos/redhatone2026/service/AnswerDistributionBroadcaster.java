@@ -0,0 +1,127 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.demos.redhatone2026.model.AnswerDistribution;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Multi;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes the answer distribution of a question to streaming subscribers.
+ *
+ * Every question being streamed has a single timer that samples its answer counters at a fixed interval and
+ * emits a frame only when the counts changed, so a burst of submissions is coalesced into at most one frame per
+ * interval. Each frame is serialized once and shared by every subscriber to the question. The timer only runs
+ * while the question has at least one subscriber, and is dropped when the last one leaves. Sampling reads the
+ * counters without blocking the submissions updating them, and a slow consumer keeps just the most recent frame
+ * it has not yet consumed, so streaming never holds up answers.
+ */
+@ApplicationScoped
+public class AnswerDistributionBroadcaster {
+
+    private final QuestionService questionService;
+    private final ObjectMapper objectMapper;
+    private final Duration streamInterval;
+    private final ConcurrentHashMap<Integer, Channel> channels = new ConcurrentHashMap<>();
+
+    public AnswerDistributionBroadcaster(QuestionService questionService, ObjectMapper objectMapper,
+                                         @ConfigProperty(name = "trivia.questions.distribution.stream-interval",
+                                             defaultValue = "250ms") Duration streamInterval) {
+        if (questionService == null) {
+            throw new IllegalArgumentException("QuestionService cannot be null");
+        }
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("ObjectMapper cannot be null");
+        }
+        if (streamInterval == null || streamInterval.isNegative() || streamInterval.isZero()) {
+            throw new IllegalArgumentException("Stream interval must be positive");
+        }
+        this.questionService = questionService;
+        this.objectMapper = objectMapper;
+        this.streamInterval = streamInterval;
+    }
+
+    /**
+     * Streams the answer distribution of a question as JSON AnswerDistribution frames.
+     * The current distribution is sent first, followed by a frame whenever the counts change.
+     *
+     * @param questionId the question ID
+     * @return Optional containing the Multi of serialized frames if the question exists, empty otherwise
+     * @throws IllegalArgumentException if questionId is null
+     */
+    public Optional<Multi<String>> stream(UUID questionId) {
+        int questionIndex = questionService.getQuestionIndex(questionId);
+        Optional<AnswerDistribution> initial = questionService.getAnswerDistribution(questionIndex);
+        if (initial.isEmpty()) {
+            return Optional.empty();
+        }
+        Log.debugf("New answer distribution stream subscriber for question %s", questionId);
+        Channel channel = channels.computeIfAbsent(questionIndex, Channel::new);
+        String initialFrame = channel.frameFor(initial.get());
+        return Optional.of(Multi.createBy().concatenating()
+                .streams(Multi.createFrom().item(initialFrame), channel.frames)
+                // The first shared frame usually repeats the initial one; unchanged frames are the same instance
+                .skip().repetitions()
+                .onOverflow().dropPreviousItems());
+    }
+
+    /**
+     * Returns the number of questions with a shared stream.
+     */
+    int channelCount() {
+        return channels.size();
+    }
+
+    /**
+     * The shared stream of one question's frames, and the last frame serialized for it.
+     */
+    private final class Channel {
+
+        private final Multi<String> frames;
+        private volatile Frame latestFrame;
+
+        Channel(int questionIndex) {
+            this.frames = Multi.createFrom().ticks().every(streamInterval)
+                    .onOverflow().drop()
+                    .map(tick -> questionService.getAnswerDistribution(questionIndex))
+                    // A question removed by a reload keeps its last frame rather than ending the stream
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .skip().repetitions()
+                    .map(this::frameFor)
+                    .onCancellation().invoke(() -> channels.remove(questionIndex, this))
+                    .broadcast().withCancellationAfterLastSubscriberDeparture().toAllSubscribers();
+        }
+
+        /**
+         * Returns the serialized frame for a distribution, reusing the last frame when it is unchanged.
+         */
+        String frameFor(AnswerDistribution distribution) {
+            Frame frame = latestFrame;
+            if (frame != null && frame.distribution().equals(distribution)) {
+                return frame.json();
+            }
+
+            try {
+                String json = objectMapper.writeValueAsString(distribution);
+                latestFrame = new Frame(distribution, json);
+                return json;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize answer distribution frame", e);
+            }
+        }
+    }
+
+    /**
+     * An answer distribution and its serialized form.
+     */
+    private record Frame(AnswerDistribution distribution, String json) {
+    }
+}
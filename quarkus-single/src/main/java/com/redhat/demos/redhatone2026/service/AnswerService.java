@@ -1,74 +1,86 @@
 package com.redhat.demos.redhatone2026.service;
 
-import com.redhat.demos.redhatone2026.model.Answer;
 import com.redhat.demos.redhatone2026.model.AnswerResponse;
+import com.redhat.demos.redhatone2026.model.AnswerResult;
 import com.redhat.demos.redhatone2026.model.AnswerSubmission;
 import com.redhat.demos.redhatone2026.model.Question;
 import com.redhat.demos.redhatone2026.model.TriviaQuestion;
 import com.redhat.demos.redhatone2026.repository.EnvironmentRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionRepository;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * Service layer for answer validation business logic.
  * Validates user answers, tracks scores, and constructs responses.
+ * Answers are checked against the correct-answer index the question repository builds at load time, and every
+ * checked answer is recorded in the question statistics that drive adaptive question selection.
+ * A submission carrying the token served with its question selects answers in the order they were shown;
+ * the token is verified on its own, so any instance can check it without state shared between requests.
+ * Submissions without a token are rejected, since they would be checked against the order in the bank rather than
+ * the one shown, unless trivia.answers.allow-without-token is set for clients that predate the shuffle.
  */
 @ApplicationScoped
 public class AnswerService {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final QuestionService questionService;
     private final LeaderboardService leaderboardService;
+    private final PlayerService playerService;
     private final EnvironmentRepository environmentRepository;
+    private final boolean allowWithoutToken;
 
     public AnswerService(QuestionService questionService,
                         LeaderboardService leaderboardService,
-                        EnvironmentRepository environmentRepository) {
+                        PlayerService playerService,
+                        EnvironmentRepository environmentRepository,
+                        @ConfigProperty(name = "trivia.answers.allow-without-token", defaultValue = "false")
+                        boolean allowWithoutToken) {
         if (questionService == null) {
             throw new IllegalArgumentException("QuestionService cannot be null");
         }
         if (leaderboardService == null) {
             throw new IllegalArgumentException("LeaderboardService cannot be null");
         }
+        if (playerService == null) {
+            throw new IllegalArgumentException("PlayerService cannot be null");
+        }
         if (environmentRepository == null) {
             throw new IllegalArgumentException("EnvironmentRepository cannot be null");
         }
         this.questionService = questionService;
         this.leaderboardService = leaderboardService;
+        this.playerService = playerService;
         this.environmentRepository = environmentRepository;
+        this.allowWithoutToken = allowWithoutToken;
     }
 
     /**
      * Submits an answer and returns validation result with next question.
+     * The player is identified by the player ID when present; otherwise the username is registered
+     * on first use so that clients which have not joined keep working.
+     * The selected and correct letters are in the order recorded by the submission's token, if it has one.
      *
      * @param submission the answer submission
      * @return Optional containing AnswerResponse if question found, empty otherwise
-     * @throws IllegalArgumentException if validation fails
+     * @throws IllegalArgumentException if validation fails or the token was not served with the question
      */
     public Optional<AnswerResponse> submitAnswer(AnswerSubmission submission) {
-        Log.debugf("Processing answer submission: username=%s, questionId=%s, selectedAnswer=%s",
-            submission.username(), submission.questionId(), submission.selectedAnswer());
+        Log.debugf("Processing answer submission: playerId=%s, username=%s, questionId=%s, selectedAnswer=%s",
+            submission.playerId(), submission.username(), submission.questionId(), submission.selectedAnswer());
 
         // Validate input
-        if (submission.username() == null || submission.username().isEmpty()) {
-            Log.debugf("Invalid username: %s", submission.username());
-            throw new IllegalArgumentException("Invalid username");
-        }
-        if (submission.questionId() == null) {
-            Log.debug("Invalid questionId: null");
-            throw new IllegalArgumentException("Invalid questionId");
-        }
-        if (submission.selectedAnswer() == null ||
-            !Set.of("A", "B", "C", "D").contains(submission.selectedAnswer())) {
-            Log.debugf("Invalid answer selection: %s", submission.selectedAnswer());
-            throw new IllegalArgumentException("Invalid answer selection");
-        }
+        validateSubmission(submission);
 
         // Retrieve question
-        Optional<Question> questionOptional = questionService.getQuestionById(submission.questionId());
+        int questionIndex = questionService.getQuestionIndex(submission.questionId());
+        Optional<Question> questionOptional = questionService.getQuestionByIndex(questionIndex);
         if (questionOptional.isEmpty()) {
             Log.debugf("Question not found: %s", submission.questionId());
             return Optional.empty();
@@ -77,19 +89,27 @@ public class AnswerService {
         Question question = questionOptional.get();
         Log.debugf("Found question: %s", question.questionText());
 
-        // Find correct answer and determine its letter
-        String correctAnswer = determineCorrectAnswer(question);
+        // Read the answers in the order they were shown, as recorded by the token
+        int answerOrder = answerOrder(submission, questionIndex);
+        if (answerOrder < 0) {
+            throw new IllegalArgumentException("Invalid token");
+        }
+
+        // Look up the precomputed correct answer
+        String correctAnswer = correctAnswer(submission, questionIndex, answerOrder);
         Log.debugf("Correct answer is: %s", correctAnswer);
 
         // Validate user's answer
-        boolean isCorrect = submission.selectedAnswer().equals(correctAnswer);
+        boolean isCorrect = isCorrectAnswer(submission, questionIndex, answerOrder);
         Log.debugf("User answer %s is %s", submission.selectedAnswer(), isCorrect ? "CORRECT" : "INCORRECT");
 
-        // Record answer in leaderboard
-        leaderboardService.recordAnswer(submission.username(), submission.questionId(), isCorrect);
+        // Record answer in leaderboard and in the question statistics
+        int playerId = resolvePlayerId(submission);
+        leaderboardService.recordAnswer(playerId, questionIndex, isCorrect);
+        questionService.recordAnswer(playerId, questionIndex, answerOrder, submission.selectedAnswer(), isCorrect);
 
-        // Get next question
-        Optional<TriviaQuestion> nextQuestionOptional = questionService.getRandomTriviaQuestion();
+        // Get next question from the player's deck, so it does not repeat one they have already been served
+        Optional<TriviaQuestion> nextQuestionOptional = questionService.getNextTriviaQuestion(playerId);
         TriviaQuestion nextQuestion = nextQuestionOptional.orElse(null);
         Log.debugf("Next question: %s", nextQuestion != null ? nextQuestion.questionText() : "none");
 
@@ -106,24 +126,157 @@ public class AnswerService {
     }
 
     /**
-     * Determines the correct answer letter (A, B, C, or D) for a question.
+     * Submits a batch of answers and returns one result per submission, in order.
+     * Each submission is validated independently, so an invalid entry is reported in its result
+     * without rejecting the rest. Correct answers are recorded on the leaderboard as a single batch, and the
+     * question statistics only once the leaderboard has accepted it, so a batch that is rejected and sent
+     * again is not counted twice. Unlike single submissions, no next question is returned.
      *
-     * @param question the question
-     * @return the correct answer letter
+     * @param submissions the answer submissions, at most MAX_BATCH_SIZE
+     * @return List of AnswerResult in submission order
+     * @throws IllegalArgumentException if the batch is missing, empty, or too large
      */
-    private String determineCorrectAnswer(Question question) {
-        List<Answer> answers = question.optionalAnswers();
-        for (int i = 0; i < answers.size(); i++) {
-            if (answers.get(i).isCorrect()) {
-                return switch (i) {
-                    case 0 -> "A";
-                    case 1 -> "B";
-                    case 2 -> "C";
-                    case 3 -> "D";
-                    default -> throw new IllegalStateException("Invalid answer index: " + i);
-                };
+    public List<AnswerResult> submitAnswers(List<AnswerSubmission> submissions) {
+        if (submissions == null || submissions.isEmpty()) {
+            Log.debug("Invalid batch: empty");
+            throw new IllegalArgumentException("Invalid batch");
+        }
+        if (submissions.size() > MAX_BATCH_SIZE) {
+            Log.debugf("Invalid batch size: %d", submissions.size());
+            throw new IllegalArgumentException("Batch too large");
+        }
+        Log.debugf("Processing batch of %d answer submissions", submissions.size());
+
+        List<AnswerResult> results = new ArrayList<>(submissions.size());
+        int[] playerIds = new int[submissions.size()];
+        int[] questionIndexes = new int[submissions.size()];
+        int correctCount = 0;
+        List<RecordedAnswer> recorded = new ArrayList<>(submissions.size());
+        for (AnswerSubmission submission : submissions) {
+            try {
+                validateSubmission(submission);
+            } catch (IllegalArgumentException e) {
+                results.add(new AnswerResult(null, null, e.getMessage()));
+                continue;
+            }
+
+            int questionIndex = questionService.getQuestionIndex(submission.questionId());
+            if (questionService.getCorrectAnswer(questionIndex) == null) {
+                results.add(new AnswerResult(null, null, "Question not found"));
+                continue;
+            }
+            int answerOrder = answerOrder(submission, questionIndex);
+            if (answerOrder < 0) {
+                results.add(new AnswerResult(null, null, "Invalid token"));
+                continue;
             }
+
+            String correctAnswer = correctAnswer(submission, questionIndex, answerOrder);
+            boolean isCorrect = isCorrectAnswer(submission, questionIndex, answerOrder);
+            int playerId = resolvePlayerId(submission);
+            recorded.add(new RecordedAnswer(playerId, questionIndex, answerOrder, submission.selectedAnswer(),
+                isCorrect));
+            if (isCorrect) {
+                playerIds[correctCount] = playerId;
+                questionIndexes[correctCount] = questionIndex;
+                correctCount++;
+            }
+            results.add(new AnswerResult(isCorrect, correctAnswer, null));
+        }
+
+        leaderboardService.recordCorrectAnswers(playerIds, questionIndexes, correctCount);
+        for (RecordedAnswer answer : recorded) {
+            questionService.recordAnswer(answer.playerId(), answer.questionIndex(), answer.answerOrder(),
+                answer.selectedAnswer(), answer.isCorrect());
         }
-        throw new IllegalStateException("No correct answer found for question: " + question.id());
+        Log.debugf("Processed batch of %d answer submissions, %d correct", submissions.size(), correctCount);
+        return results;
+    }
+
+    /**
+     * Validates the fields of a submission.
+     *
+     * @param submission the answer submission
+     * @throws IllegalArgumentException if the submission is missing, names an unknown player ID or one registered
+     *         to a different username than the one submitted, has no username or question ID, selects an answer
+     *         other than A, B, C, or D, or has no token when submissions without one are not allowed
+     */
+    private void validateSubmission(AnswerSubmission submission) {
+        if (submission == null) {
+            Log.debug("Invalid submission: null");
+            throw new IllegalArgumentException("Invalid submission");
+        }
+        if (submission.playerId() != null) {
+            String username = playerService.getUsername(submission.playerId());
+            if (username == null) {
+                Log.debugf("Unknown playerId: %s", submission.playerId());
+                throw new IllegalArgumentException("Invalid playerId");
+            }
+            // A player ID left over from before the server lost its state may now belong to someone else
+            if (submission.username() != null && !username.equals(submission.username().trim())) {
+                Log.debugf("playerId %s is registered to %s, not %s", submission.playerId(), username,
+                    submission.username());
+                throw new IllegalArgumentException("Invalid playerId");
+            }
+        } else if (!PlayerService.isValidUsername(submission.username())) {
+            Log.debugf("Invalid username: %s", submission.username());
+            throw new IllegalArgumentException("Invalid username");
+        }
+        if (submission.questionId() == null) {
+            Log.debug("Invalid questionId: null");
+            throw new IllegalArgumentException("Invalid questionId");
+        }
+        if (QuestionRepository.answerIndex(submission.selectedAnswer()) < 0) {
+            Log.debugf("Invalid answer selection: %s", submission.selectedAnswer());
+            throw new IllegalArgumentException("Invalid answer selection");
+        }
+        if (submission.token() == null && !allowWithoutToken) {
+            Log.debugf("Missing token for question %s", submission.questionId());
+            throw new IllegalArgumentException("Missing token");
+        }
+    }
+
+    /**
+     * Returns the order in which the submission's answers were shown, verifying its token.
+     *
+     * @return the answer order, 0 for an allowed submission without a token, or -1 if the token is invalid
+     */
+    private int answerOrder(AnswerSubmission submission, int questionIndex) {
+        if (submission.token() == null) {
+            return 0;
+        }
+        int answerOrder = questionService.getAnswerOrder(questionIndex, submission.token());
+        if (answerOrder < 0) {
+            Log.debugf("Invalid token for question %s: %s", submission.questionId(), submission.token());
+        }
+        return answerOrder;
+    }
+
+    private String correctAnswer(AnswerSubmission submission, int questionIndex, int answerOrder) {
+        return submission.token() == null
+            ? questionService.getCorrectAnswer(questionIndex)
+            : questionService.getCorrectAnswer(questionIndex, answerOrder);
+    }
+
+    private boolean isCorrectAnswer(AnswerSubmission submission, int questionIndex, int answerOrder) {
+        return submission.token() == null
+            ? questionService.isCorrectAnswer(questionIndex, submission.selectedAnswer())
+            : questionService.isCorrectAnswer(questionIndex, answerOrder, submission.selectedAnswer());
+    }
+
+    /**
+     * Returns the submission's player ID, registering the username if no player ID was given.
+     */
+    private int resolvePlayerId(AnswerSubmission submission) {
+        return submission.playerId() != null
+            ? submission.playerId()
+            : playerService.join(submission.username()).playerId();
+    }
+
+    /**
+     * A checked answer from a batch, held until the batch's correct answers are on the leaderboard.
+     */
+    private record RecordedAnswer(int playerId, int questionIndex, int answerOrder, String selectedAnswer,
+                                  boolean isCorrect) {
     }
 }
@@ -0,0 +1,102 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.demos.redhatone2026.model.LeaderboardPage;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Multi;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+/**
+ * Publishes the top of the leaderboard to streaming subscribers.
+ *
+ * A single timer samples the leaderboard snapshot at a fixed interval and emits a frame only when the
+ * entries changed, so bursts of score changes are coalesced into at most one frame per interval.
+ * Each frame is serialized once and shared by every subscriber. The timer only runs while at least one
+ * subscriber is connected, and each subscriber keeps just the most recent frame it has not yet consumed,
+ * so a slow consumer skips intermediate frames instead of holding up the others.
+ */
+@ApplicationScoped
+public class LeaderboardBroadcaster {
+
+    private final LeaderboardService leaderboardService;
+    private final ObjectMapper objectMapper;
+    private final int streamSize;
+    private final Multi<String> frames;
+    private volatile Frame latestFrame;
+
+    public LeaderboardBroadcaster(LeaderboardService leaderboardService, ObjectMapper objectMapper,
+                                  @ConfigProperty(name = "trivia.leaderboard.stream-interval", defaultValue = "250ms")
+                                  Duration streamInterval,
+                                  @ConfigProperty(name = "trivia.leaderboard.stream-size", defaultValue = "100")
+                                  int streamSize) {
+        if (leaderboardService == null) {
+            throw new IllegalArgumentException("LeaderboardService cannot be null");
+        }
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("ObjectMapper cannot be null");
+        }
+        if (streamInterval == null || streamInterval.isNegative() || streamInterval.isZero()) {
+            throw new IllegalArgumentException("Stream interval must be positive");
+        }
+        if (streamSize < 1 || streamSize > LeaderboardService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Invalid stream size");
+        }
+        this.leaderboardService = leaderboardService;
+        this.objectMapper = objectMapper;
+        this.streamSize = streamSize;
+        this.frames = Multi.createFrom().ticks().every(streamInterval)
+                .onOverflow().drop()
+                .map(tick -> leaderboardService.getLeaderboardPage(streamSize, null))
+                .skip().repetitions()
+                .map(this::frameFor)
+                .broadcast().withCancellationAfterLastSubscriberDeparture().toAllSubscribers();
+    }
+
+    /**
+     * Streams the top of the leaderboard as JSON arrays of LeaderboardEntry.
+     * The current leaderboard is sent first, followed by a frame whenever the rankings change.
+     *
+     * @return Multi of serialized leaderboard frames
+     */
+    public Multi<String> stream() {
+        Log.debug("New leaderboard stream subscriber");
+        return Multi.createBy().concatenating()
+                .streams(Multi.createFrom().item(this::currentFrame), frames)
+                // The first shared frame usually repeats the initial one; unchanged frames are the same instance
+                .skip().repetitions()
+                .onOverflow().dropPreviousItems();
+    }
+
+    private String currentFrame() {
+        return frameFor(leaderboardService.getLeaderboardPage(streamSize, null));
+    }
+
+    /**
+     * Returns the serialized frame for a page, reusing the last frame when the page is unchanged.
+     */
+    private String frameFor(LeaderboardPage page) {
+        Frame frame = latestFrame;
+        if (frame != null && frame.page().equals(page)) {
+            return frame.json();
+        }
+
+        try {
+            String json = objectMapper.writeValueAsString(page.entries());
+            latestFrame = new Frame(page, json);
+            Log.debugf("Broadcasting leaderboard frame with %d entries", page.entries().size());
+            return json;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize leaderboard frame", e);
+        }
+    }
+
+    /**
+     * A leaderboard page and its serialized form.
+     */
+    private record Frame(LeaderboardPage page, String json) {
+    }
+}
@@ -1,84 +1,289 @@
 package com.redhat.demos.redhatone2026.service;
 
 import com.redhat.demos.redhatone2026.model.LeaderboardEntry;
+import com.redhat.demos.redhatone2026.model.LeaderboardPage;
+import com.redhat.demos.redhatone2026.model.PlayerStanding;
 import com.redhat.demos.redhatone2026.repository.LeaderboardRepository;
 import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.annotation.Priority;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.interceptor.Interceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service layer for leaderboard business logic.
  * Delegates to LeaderboardRepository for data access.
+ *
+ * Answers are checked on the calling thread and then handed to a single writer thread, which applies them
+ * to the repository in batches. A recorded answer therefore becomes visible to reads shortly after
+ * {@link #recordAnswer(int, int, boolean)} returns; {@link #flush()} waits until it has been applied.
+ *
+ * Recording an answer returns, and the request is acknowledged, once the answer is queued, before it is journaled.
+ * The writer thread journals each batch as soon as it applies it, but answers still in the
+ * queue when the process crashes are lost even though the client was told they were accepted. A clean shutdown
+ * flushes the queue first. Closing this window would mean blocking every answer request on the writer thread,
+ * which event loop threads cannot do; a lost answer costs the player one point on a question they can answer again.
+ *
+ * The full leaderboard and first pages are cached in a snapshot tied to the repository version.
+ * A snapshot is only replaced once the version has moved on and the configured refresh interval
+ * has elapsed, so repeated reads between score changes return the same immutable lists.
  */
 @ApplicationScoped
 public class LeaderboardService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_NEIGHBOURS = 2;
+    public static final int MAX_NEIGHBOURS = 25;
+
+    private static final int FULL_LEADERBOARD = 0;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
     private final LeaderboardRepository leaderboardRepository;
+    private final LeaderboardWriter leaderboardWriter;
+    private final long snapshotIntervalNanos;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
 
-    public LeaderboardService(LeaderboardRepository leaderboardRepository) {
+    public LeaderboardService(LeaderboardRepository leaderboardRepository,
+                              @ConfigProperty(name = "trivia.leaderboard.snapshot-interval", defaultValue = "250ms")
+                              Duration snapshotInterval) {
         if (leaderboardRepository == null) {
             throw new IllegalArgumentException("LeaderboardRepository cannot be null");
         }
+        if (snapshotInterval == null || snapshotInterval.isNegative()) {
+            throw new IllegalArgumentException("Snapshot interval cannot be null or negative");
+        }
         this.leaderboardRepository = leaderboardRepository;
+        this.leaderboardWriter = new LeaderboardWriter(leaderboardRepository, WRITE_BUFFER_SIZE);
+        this.snapshotIntervalNanos = snapshotInterval.toNanos();
     }
 
     /**
-     * Records an answer submission for a user.
-     * Delegates to the repository for persistence.
+     * Records an answer submission for a player.
+     * The answer is validated immediately; correct answers are queued for the writer thread,
+     * and incorrect answers need no further work. A queued answer is not yet journaled, so it does not survive
+     * a crash until the writer thread has applied it.
      *
-     * @param username the username
-     * @param questionId the question ID
+     * @param playerId the player ID issued at registration
+     * @param questionIndex the dense index of the question
      * @param isCorrect whether the answer was correct
+     * @throws IllegalArgumentException if the player is not registered or the question index is negative
+     * @throws java.util.concurrent.RejectedExecutionException if the write buffer is full and the calling thread
+     *         must not block
+     */
+    public void recordAnswer(int playerId, int questionIndex, boolean isCorrect) {
+        Log.debugf("Recording answer: isCorrect=%s, playerId=%d, questionIndex=%d", isCorrect, playerId, questionIndex);
+        leaderboardRepository.validateAnswer(playerId, questionIndex);
+        if (isCorrect) {
+            leaderboardWriter.publish(playerId, questionIndex);
+        }
+    }
+
+    /**
+     * Records a batch of correct answers. Every answer is validated before any is queued,
+     * and the batch is handed to the writer thread in as few steps as the buffer allows.
+     * As with single answers, the batch is journaled after this returns, once the writer thread applies it.
+     *
+     * @param playerIds player IDs, one per answer
+     * @param questionIndexes question indexes, one per answer
+     * @param count the number of answers to record from the start of the arrays
+     * @throws IllegalArgumentException if any player is not registered or any question index is negative
+     * @throws java.util.concurrent.RejectedExecutionException if the write buffer cannot take the batch and
+     *         the calling thread must not block
      */
-    public void recordAnswer(String username, UUID questionId, boolean isCorrect) {
-        Log.debugf("Recording answer: username=%s, questionId=%s, isCorrect=%s", username, questionId, isCorrect);
-        leaderboardRepository.recordAnswer(username, questionId, isCorrect);
+    public void recordCorrectAnswers(int[] playerIds, int[] questionIndexes, int count) {
+        Log.debugf("Recording batch of %d correct answers", count);
+        for (int i = 0; i < count; i++) {
+            leaderboardRepository.validateAnswer(playerIds[i], questionIndexes[i]);
+        }
+        leaderboardWriter.publish(playerIds, questionIndexes, count);
+    }
+
+    /**
+     * Waits until every answer recorded before this call has been applied to the leaderboard.
+     * Blocks, so it must not be called from an event loop thread.
+     */
+    public void flush() {
+        leaderboardWriter.flush();
+    }
+
+    /**
+     * Applies queued answers before shutdown, ahead of observers that persist leaderboard state.
+     */
+    void onStop(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE) ShutdownEvent event) {
+        flush();
     }
 
     /**
      * Retrieves the complete leaderboard with rankings.
-     * Sorted by score descending, then username ascending as tiebreaker.
-     * Ranks are calculated sequentially based on sorted position.
+     * Sorted by score descending, then username ascending as tiebreaker; tied players share a rank.
+     * Entries come from the current snapshot, so the same list instance is returned until scores change.
      *
-     * @return List of LeaderboardEntry objects sorted and ranked
+     * @return immutable List of LeaderboardEntry objects sorted and ranked
      */
     public List<LeaderboardEntry> getLeaderboard() {
         Log.debug("Building leaderboard");
-        HashMap<String, Integer> allScores = leaderboardRepository.getAllScores();
-        Log.debugf("Retrieved %d user scores from repository", allScores.size());
-
-        if (allScores.isEmpty()) {
-            Log.debug("No scores available, returning empty leaderboard");
-            return List.of();
-        }
-
-        List<LeaderboardEntry> entries = allScores.entrySet().stream()
-                .map(entry -> {
-                    String username = entry.getKey();
-                    int score = entry.getValue();
-                    int questionsAnsweredCorrectly = leaderboardRepository.getQuestionsAnsweredCorrectly(username);
-                    Log.debugf("User %s: score=%d, questionsCorrect=%d", username, score, questionsAnsweredCorrectly);
-                    return new LeaderboardEntry(username, score, 0, questionsAnsweredCorrectly);
-                })
-                .sorted(Comparator.comparing(LeaderboardEntry::score).reversed()
-                        .thenComparing(LeaderboardEntry::username))
-                .collect(Collectors.toList());
-
-        Log.debugf("Sorted %d entries, assigning ranks", entries.size());
-        List<LeaderboardEntry> rankedEntries = new ArrayList<>();
-        for (int i = 0; i < entries.size(); i++) {
-            LeaderboardEntry entry = entries.get(i);
-            rankedEntries.add(new LeaderboardEntry(
-                    entry.username(),
-                    entry.score(),
-                    i + 1,
-                    entry.questionsAnsweredCorrectly()
-            ));
-        }
-
+        List<LeaderboardEntry> rankedEntries = currentSnapshot().firstPage(FULL_LEADERBOARD).entries();
         Log.debugf("Returning leaderboard with %d ranked entries", rankedEntries.size());
         return rankedEntries;
     }
+
+    /**
+     * Retrieves one page of the leaderboard using keyset pagination.
+     * The cursor encodes the (score, username) position of the last entry of the previous page,
+     * so each page costs O(limit) and later pages neither repeat nor skip users when scores change.
+     * First pages are served from the current snapshot.
+     *
+     * @param limit the maximum number of entries to return, between 1 and 500
+     * @param cursor the opaque cursor returned with the previous page, or null for the first page
+     * @return LeaderboardPage with ranked entries and the cursor for the next page, if any
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is malformed
+     */
+    public LeaderboardPage getLeaderboardPage(int limit, String cursor) {
+        Log.debugf("Building leaderboard page: limit=%d, cursor=%s", limit, cursor);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            Log.debugf("Invalid page limit: %d", limit);
+            throw new IllegalArgumentException("Invalid limit");
+        }
+
+        if (cursor == null || cursor.isEmpty()) {
+            return currentSnapshot().firstPage(limit);
+        }
+
+        // Fetch one extra entry to learn whether another page follows
+        PageCursor position = decodeCursor(cursor);
+        List<LeaderboardEntry> entries = leaderboardRepository.getEntriesAfter(
+                position.score(), position.username(), limit + 1);
+        return toPage(entries, limit);
+    }
+
+    /**
+     * Retrieves a player's rank and score with the nearest players above and below.
+     * The rank comes from per-score counts rather than a sort, so the cost is independent of the number of players.
+     *
+     * @param username the username
+     * @param neighbours the number of entries to include on each side, between 0 and 25
+     * @return PlayerStanding for the user
+     * @throws IllegalArgumentException if the username is empty or neighbours is out of range
+     */
+    public PlayerStanding getPlayerStanding(String username, int neighbours) {
+        Log.debugf("Getting standing: username=%s, neighbours=%d", username, neighbours);
+        if (username == null || username.isEmpty()) {
+            Log.debugf("Invalid username: %s", username);
+            throw new IllegalArgumentException("Invalid username");
+        }
+        if (neighbours < 0 || neighbours > MAX_NEIGHBOURS) {
+            Log.debugf("Invalid neighbours: %d", neighbours);
+            throw new IllegalArgumentException("Invalid neighbours");
+        }
+
+        PlayerStanding standing = leaderboardRepository.getStanding(username, neighbours);
+        Log.debugf("Standing for %s: score=%d, rank=%d", username, standing.score(), standing.rank());
+        return standing;
+    }
+
+    /**
+     * Returns the current snapshot, replacing it when the repository version has changed and the refresh
+     * interval has elapsed. Only one caller rebuilds at a time; concurrent callers keep using the previous snapshot.
+     */
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        long version = leaderboardRepository.getVersion();
+        if (current != null
+                && (current.version == version || System.nanoTime() - current.createdAtNanos < snapshotIntervalNanos)) {
+            return current;
+        }
+        if (!snapshotLock.tryLock()) {
+            if (current != null) {
+                return current;
+            }
+            snapshotLock.lock();
+        }
+        try {
+            current = snapshot;
+            if (current == null || current.version != version) {
+                Log.debugf("Replacing leaderboard snapshot: version=%d", version);
+                current = new Snapshot(version, System.nanoTime());
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private LeaderboardPage buildFirstPage(int limit) {
+        if (limit == FULL_LEADERBOARD) {
+            return new LeaderboardPage(leaderboardRepository.getRankedEntries(), null);
+        }
+        // Fetch one extra entry to learn whether another page follows
+        return toPage(leaderboardRepository.getTopEntries(limit + 1), limit);
+    }
+
+    private LeaderboardPage toPage(List<LeaderboardEntry> entries, int limit) {
+        if (entries.size() <= limit) {
+            Log.debugf("Returning final leaderboard page with %d entries", entries.size());
+            return new LeaderboardPage(entries, null);
+        }
+
+        List<LeaderboardEntry> page = entries.subList(0, limit);
+        String nextCursor = encodeCursor(page.get(limit - 1));
+        Log.debugf("Returning leaderboard page with %d entries, nextCursor=%s", page.size(), nextCursor);
+        return new LeaderboardPage(page, nextCursor);
+    }
+
+    private String encodeCursor(LeaderboardEntry lastEntry) {
+        String position = lastEntry.score() + ":" + lastEntry.username();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PageCursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split(":", 2);
+            if (parts.length != 2 || parts[1].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new PageCursor(Integer.parseInt(parts[0]), parts[1]);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 decoding errors are both IllegalArgumentExceptions
+            Log.debugf("Invalid leaderboard cursor: %s", cursor);
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Leaderboard views materialized for one repository version. Pages are built on first request
+     * and shared by every later request until the snapshot is replaced.
+     */
+    private final class Snapshot {
+        private final long version;
+        private final long createdAtNanos;
+        private final ConcurrentHashMap<Integer, LeaderboardPage> firstPages = new ConcurrentHashMap<>();
+
+        private Snapshot(long version, long createdAtNanos) {
+            this.version = version;
+            this.createdAtNanos = createdAtNanos;
+        }
+
+        private LeaderboardPage firstPage(int limit) {
+            return firstPages.computeIfAbsent(limit, LeaderboardService.this::buildFirstPage);
+        }
+    }
+
+    /**
+     * Decoded position of the last entry on the previous page.
+     */
+    private record PageCursor(int score, String username) {
+    }
 }
@@ -0,0 +1,218 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.redhat.demos.redhatone2026.repository.LeaderboardRepository;
+import io.quarkus.logging.Log;
+import io.vertx.core.Context;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Applies correct answers to the leaderboard from a single writer thread.
+ *
+ * Request threads publish answers into a bounded ring buffer: a publisher claims a sequence number with a
+ * compare-and-set, writes its slot, and then marks the slot with that sequence. The writer thread drains every
+ * contiguous published slot into a batch and records the batch under one acquisition of the repository's
+ * stripe locks, so request threads never contend with each other on leaderboard state. When the buffer is full,
+ * publishers wait for the writer to catch up, except on event loop threads, which must not block and are
+ * rejected instead. The writer spins briefly when the buffer runs dry and then parks
+ * until the next answer is published. It is started with the first answer.
+ */
+class LeaderboardWriter {
+
+    static final int MAX_BATCH_SIZE = 1024;
+
+    private static final int IDLE_SPINS = 1000;
+    private static final long FULL_BUFFER_WAIT_NANOS = 10_000;
+
+    private final LeaderboardRepository leaderboardRepository;
+    private final int capacity;
+    private final int mask;
+    private final int[] playerIds;
+    private final int[] questionIndexes;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final ReentrantLock startLock = new ReentrantLock();
+
+    private volatile long consumed;
+    private volatile long applied;
+    private volatile boolean parked;
+    private volatile Thread writerThread;
+
+    LeaderboardWriter(LeaderboardRepository leaderboardRepository, int capacity) {
+        if (leaderboardRepository == null) {
+            throw new IllegalArgumentException("LeaderboardRepository cannot be null");
+        }
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.leaderboardRepository = leaderboardRepository;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.playerIds = new int[capacity];
+        this.questionIndexes = new int[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            published.set(slot, -1);
+        }
+    }
+
+    /**
+     * Publishes a correct answer for the writer thread, waiting while the buffer is full.
+     *
+     * @param playerId the player ID
+     * @param questionIndex the dense index of the question
+     * @throws RejectedExecutionException if the buffer is full and the caller is on an event loop thread
+     */
+    void publish(int playerId, int questionIndex) {
+        ensureStarted();
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                awaitSpace();
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        int slot = (int) sequence & mask;
+        playerIds[slot] = playerId;
+        questionIndexes[slot] = questionIndex;
+        published.set(slot, sequence);
+        if (parked) {
+            wakeWriter();
+        }
+    }
+
+    /**
+     * Publishes a batch of correct answers for the writer thread, claiming as many slots as are free
+     * with each compare-and-set and waiting while the buffer is full.
+     *
+     * @param playerIds player IDs, one per answer
+     * @param questionIndexes question indexes, one per answer
+     * @param count the number of answers to publish from the start of the arrays
+     * @throws RejectedExecutionException if the buffer cannot take the whole batch and the caller
+     *         is on an event loop thread
+     */
+    void publish(int[] playerIds, int[] questionIndexes, int count) {
+        ensureStarted();
+        // Callers that cannot wait must publish the whole batch at once, so a rejection never leaves it half applied
+        boolean mayWait = !Context.isOnEventLoopThread();
+        int offset = 0;
+        while (offset < count) {
+            long first = claimed.get();
+            long available = capacity - (first - consumed);
+            if (available < (mayWait ? 1 : count - offset)) {
+                awaitSpace();
+                continue;
+            }
+            int claimedCount = (int) Math.min(available, count - offset);
+            if (!claimed.compareAndSet(first, first + claimedCount)) {
+                continue;
+            }
+
+            for (int i = 0; i < claimedCount; i++) {
+                int slot = (int) (first + i) & mask;
+                this.playerIds[slot] = playerIds[offset + i];
+                this.questionIndexes[slot] = questionIndexes[offset + i];
+                published.set(slot, first + i);
+            }
+            offset += claimedCount;
+            if (parked) {
+                wakeWriter();
+            }
+        }
+    }
+
+    /**
+     * Waits until every answer published before this call has been applied to the repository.
+     */
+    void flush() {
+        long target = claimed.get();
+        while (applied < target) {
+            wakeWriter();
+            LockSupport.parkNanos(FULL_BUFFER_WAIT_NANOS);
+        }
+    }
+
+    /**
+     * Waits briefly for the writer to free slots. Event loop threads must not block,
+     * so they are rejected instead.
+     *
+     * @throws RejectedExecutionException if called on an event loop thread
+     */
+    private void awaitSpace() {
+        if (Context.isOnEventLoopThread()) {
+            throw new RejectedExecutionException("Leaderboard write buffer is full");
+        }
+        wakeWriter();
+        LockSupport.parkNanos(FULL_BUFFER_WAIT_NANOS);
+    }
+
+    private void ensureStarted() {
+        if (writerThread != null) {
+            return;
+        }
+        startLock.lock();
+        try {
+            if (writerThread == null) {
+                Thread thread = new Thread(this::run, "leaderboard-writer");
+                thread.setDaemon(true);
+                writerThread = thread;
+                thread.start();
+            }
+        } finally {
+            startLock.unlock();
+        }
+    }
+
+    private void wakeWriter() {
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        int[] batchPlayerIds = new int[MAX_BATCH_SIZE];
+        int[] batchQuestionIndexes = new int[MAX_BATCH_SIZE];
+        int idleSpins = 0;
+        while (true) {
+            long next = consumed;
+            int count = 0;
+            while (count < MAX_BATCH_SIZE && published.get((int) next & mask) == next) {
+                int slot = (int) next & mask;
+                batchPlayerIds[count] = playerIds[slot];
+                batchQuestionIndexes[count] = questionIndexes[slot];
+                count++;
+                next++;
+            }
+
+            if (count > 0) {
+                // Slots are copied out, so publishers may reuse them while the batch is applied
+                consumed = next;
+                try {
+                    leaderboardRepository.recordCorrectAnswers(batchPlayerIds, batchQuestionIndexes, count);
+                } catch (RuntimeException e) {
+                    Log.errorf(e, "Failed to record batch of %d answers", count);
+                }
+                applied = next;
+                idleSpins = 0;
+            } else if (idleSpins < IDLE_SPINS) {
+                idleSpins++;
+                Thread.onSpinWait();
+            } else {
+                parked = true;
+                if (published.get((int) next & mask) != next) {
+                    LockSupport.park(this);
+                }
+                parked = false;
+                idleSpins = 0;
+            }
+        }
+    }
+}
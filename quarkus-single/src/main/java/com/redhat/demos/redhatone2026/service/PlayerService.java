@@ -0,0 +1,75 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.redhat.demos.redhatone2026.model.Player;
+import com.redhat.demos.redhatone2026.repository.PlayerRepository;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+
+
+/**
+ * Service layer for player registration business logic.
+ * Delegates to PlayerRepository, the dictionary between usernames and player IDs.
+ */
+@ApplicationScoped
+public class PlayerService {
+
+    /**
+     * The longest username accepted, in characters after trimming, as enforced by the SPA's validator.
+     */
+    public static final int MAX_USERNAME_LENGTH = 30;
+
+    private final PlayerRepository playerRepository;
+
+    public PlayerService(PlayerRepository playerRepository) {
+        if (playerRepository == null) {
+            throw new IllegalArgumentException("PlayerRepository cannot be null");
+        }
+        this.playerRepository = playerRepository;
+    }
+
+    /**
+     * Registers a username and returns the player with its compact ID.
+     * Joining again with the same username returns the same player ID.
+     *
+     * @param username the username
+     * @return the registered Player
+     * @throws IllegalArgumentException if the username is null, blank, or longer than MAX_USERNAME_LENGTH
+     */
+    public Player join(String username) {
+        Log.debugf("Joining player: username=%s", username);
+        if (!isValidUsername(username)) {
+            Log.debugf("Invalid username: %s", username);
+            throw new IllegalArgumentException("Invalid username");
+        }
+
+        String trimmed = username.trim();
+        int playerId = playerRepository.register(trimmed);
+        Log.debugf("Player %s joined with id %d", trimmed, playerId);
+        return new Player(playerId, trimmed);
+    }
+
+    /**
+     * Checks whether a username can be registered.
+     *
+     * @param username the username
+     * @return true if the username is neither null nor blank, and once trimmed is at most MAX_USERNAME_LENGTH
+     *         characters
+     */
+    public static boolean isValidUsername(String username) {
+        if (username == null || username.isBlank()) {
+            return false;
+        }
+        String trimmed = username.trim();
+        return trimmed.length() <= MAX_USERNAME_LENGTH;
+    }
+
+    /**
+     * Retrieves the username registered for a player ID.
+     *
+     * @param playerId the player ID
+     * @return the username, or null if no player has the given ID
+     */
+    public String getUsername(int playerId) {
+        return playerRepository.findUsername(playerId);
+    }
+}
@@ -1,36 +1,124 @@
 package com.redhat.demos.redhatone2026.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.demos.redhatone2026.model.Answer;
+import com.redhat.demos.redhatone2026.model.AnswerDistribution;
+import com.redhat.demos.redhatone2026.model.Difficulty;
 import com.redhat.demos.redhatone2026.model.Question;
 import com.redhat.demos.redhatone2026.model.TriviaQuestion;
 import com.redhat.demos.redhatone2026.repository.EnvironmentRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionDeckRepository;
 import com.redhat.demos.redhatone2026.repository.QuestionRepository;
 import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service layer for trivia question business logic.
- * Delegates to QuestionRepository for data access and EnvironmentRepository for messaging.
+ * Delegates to QuestionRepository for data access, EnvironmentRepository for messaging, and
+ * QuestionDeckRepository for the per-player order in which questions are served, unless QuestionStatsService
+ * selects questions adaptively.
+ * Every trivia question is served with its answers in a random order, recorded in a token signed by
+ * QuestionTokenService, so answers are checked in the order they were shown without keeping any state per request.
+ * Because a random trivia question only varies by question, answer order and environment message, every
+ * combination is serialized to JSON once, when the service starts and again on the reloading thread whenever the
+ * repository's questions are reloaded, so serving a random question is a lookup of pre-rendered bytes. Requests
+ * never render the whole bank: between a reload and the end of its rendering, questions from the new bank are
+ * serialized one at a time as they are served. Banks larger than
+ * trivia.questions.prerender-limit are not pre-rendered, so large memory-mapped banks stay off the heap, and
+ * their questions are serialized as they are served.
  */
 @ApplicationScoped
-public class QuestionService {
+public class QuestionService implements QuestionRepository.ReloadListener {
+
+    public static final int MAX_PREFETCH_SIZE = 20;
+
+    static final int DEFAULT_PRERENDER_LIMIT = 1_000;
 
     private final QuestionRepository questionRepository;
     private final EnvironmentRepository environmentRepository;
+    private final QuestionDeckRepository questionDeckRepository;
+    private final ObjectMapper objectMapper;
+    private final QuestionTokenService questionTokenService;
+    private final QuestionStatsService questionStatsService;
+    private final int prerenderLimit;
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private volatile RenderedQuestions renderedQuestions;
 
-    public QuestionService(QuestionRepository questionRepository, EnvironmentRepository environmentRepository) {
+    public QuestionService(QuestionRepository questionRepository, EnvironmentRepository environmentRepository,
+                           QuestionDeckRepository questionDeckRepository, ObjectMapper objectMapper,
+                           QuestionTokenService questionTokenService, QuestionStatsService questionStatsService,
+                           @ConfigProperty(name = "trivia.questions.prerender-limit",
+                               defaultValue = "1000") int prerenderLimit) {
         if (questionRepository == null) {
             throw new IllegalArgumentException("QuestionRepository cannot be null");
         }
         if (environmentRepository == null) {
             throw new IllegalArgumentException("EnvironmentRepository cannot be null");
         }
+        if (questionDeckRepository == null) {
+            throw new IllegalArgumentException("QuestionDeckRepository cannot be null");
+        }
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("ObjectMapper cannot be null");
+        }
+        if (questionTokenService == null) {
+            throw new IllegalArgumentException("QuestionTokenService cannot be null");
+        }
+        if (questionStatsService == null) {
+            throw new IllegalArgumentException("QuestionStatsService cannot be null");
+        }
         this.questionRepository = questionRepository;
         this.environmentRepository = environmentRepository;
+        this.questionDeckRepository = questionDeckRepository;
+        this.objectMapper = objectMapper;
+        this.questionTokenService = questionTokenService;
+        this.questionStatsService = questionStatsService;
+        this.prerenderLimit = prerenderLimit;
+    }
+
+    /**
+     * Renders the trivia questions at startup, so the first request does not pay for it.
+     */
+    void onStart(@Observes StartupEvent event) {
+        // The listener is set first, so a reload during startup is rendered by the reloading thread
+        questionRepository.setReloadListener(this);
+        RenderedQuestions rendered = render(questionRepository.findAll());
+        Log.debugf("Pre-rendered trivia questions for %d questions",
+            rendered.json() == null ? 0 : rendered.json().length);
+    }
+
+    /**
+     * Renders the reloaded questions on the reloading thread, so requests do not pay for it.
+     *
+     * @param questions the questions served after the reload
+     */
+    @Override
+    public void questionsReloaded(List<Question> questions) {
+        render(questions);
+    }
+
+    /**
+     * Reloads the questions from their source and swaps them in, keeping the current questions if the
+     * new ones cannot be read or are malformed.
+     *
+     * @return the number of questions served after the reload
+     * @throws IOException if the questions cannot be read or parsed
+     * @throws IllegalArgumentException if a question is malformed
+     */
+    public int reloadQuestions() throws IOException {
+        return questionRepository.reload();
     }
 
     /**
@@ -60,6 +148,129 @@ public class QuestionService {
         return question;
     }
 
+    /**
+     * Retrieves the dense index of a question, used to track per-question state compactly.
+     *
+     * @param id the question ID
+     * @return the question's index, or -1 if no question has the given ID
+     * @throws IllegalArgumentException if id is null
+     */
+    public int getQuestionIndex(UUID id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Question ID cannot be null");
+        }
+        return questionRepository.indexOf(id);
+    }
+
+    /**
+     * Retrieves a question by its dense index.
+     *
+     * @param questionIndex the question index
+     * @return Optional containing the question if the index is in range, empty otherwise
+     */
+    public Optional<Question> getQuestionByIndex(int questionIndex) {
+        return questionRepository.findByIndex(questionIndex);
+    }
+
+    /**
+     * Checks a selected answer against the question's precomputed correct answer.
+     *
+     * @param questionIndex the question index
+     * @param selectedAnswer the selected answer letter
+     * @return true if the selected answer is correct
+     */
+    public boolean isCorrectAnswer(int questionIndex, String selectedAnswer) {
+        return questionRepository.isCorrect(questionIndex, selectedAnswer);
+    }
+
+    /**
+     * Retrieves the letter of the question's correct answer.
+     *
+     * @param questionIndex the question index
+     * @return the correct answer letter, A to D, or null if the index is out of range
+     */
+    public String getCorrectAnswer(int questionIndex) {
+        return questionRepository.findCorrectAnswer(questionIndex);
+    }
+
+    /**
+     * Records a checked answer in the live question statistics that drive adaptive selection and the answer
+     * distribution, counting the chosen answer by its stored position rather than the letter it was shown at.
+     *
+     * @param playerId the player ID
+     * @param questionIndex the question index
+     * @param answerOrder the order in which the answers were shown
+     * @param selectedAnswer the letter of the selected answer as shown
+     * @param isCorrect whether the answer was correct
+     */
+    public void recordAnswer(int playerId, int questionIndex, int answerOrder, String selectedAnswer,
+                             boolean isCorrect) {
+        questionStatsService.recordAnswer(playerId, questionIndex,
+            QuestionTokenService.bankPosition(answerOrder, QuestionRepository.answerIndex(selectedAnswer)), isCorrect);
+    }
+
+    /**
+     * Retrieves how the answers submitted for a question are split between its answers.
+     *
+     * @param id the question ID
+     * @return Optional containing the distribution if the question exists, empty otherwise
+     * @throws IllegalArgumentException if id is null
+     */
+    public Optional<AnswerDistribution> getAnswerDistribution(UUID id) {
+        return questionStatsService.getAnswerDistribution(getQuestionIndex(id));
+    }
+
+    /**
+     * Retrieves how the answers submitted for a question are split between its answers.
+     *
+     * @param questionIndex the question index
+     * @return Optional containing the distribution if the question exists, empty otherwise
+     */
+    public Optional<AnswerDistribution> getAnswerDistribution(int questionIndex) {
+        return questionStatsService.getAnswerDistribution(questionIndex);
+    }
+
+    /**
+     * Verifies the token served with a question and returns the order in which its answers were shown.
+     *
+     * @param questionIndex the index of the question being answered
+     * @param token the token served with the question
+     * @return the answer order, or -1 if the token is invalid or was served with another question
+     */
+    public int getAnswerOrder(int questionIndex, String token) {
+        return questionTokenService.answerOrder(questionIndex, token);
+    }
+
+    /**
+     * Checks a selected answer, read in the order the answers were shown, against the question's correct answer.
+     *
+     * @param questionIndex the question index
+     * @param answerOrder the order in which the answers were shown
+     * @param selectedAnswer the letter of the selected answer as shown
+     * @return true if the selected answer is correct
+     */
+    public boolean isCorrectAnswer(int questionIndex, int answerOrder, String selectedAnswer) {
+        int shown = QuestionRepository.answerIndex(selectedAnswer);
+        return shown >= 0 && questionRepository.isCorrect(questionIndex,
+            QuestionRepository.ANSWER_LETTERS.get(QuestionTokenService.bankPosition(answerOrder, shown)));
+    }
+
+    /**
+     * Retrieves the letter at which the question's correct answer was shown.
+     *
+     * @param questionIndex the question index
+     * @param answerOrder the order in which the answers were shown
+     * @return the correct answer letter as shown, A to D, or null if the index is out of range
+     */
+    public String getCorrectAnswer(int questionIndex, int answerOrder) {
+        String correctAnswer = questionRepository.findCorrectAnswer(questionIndex);
+        if (correctAnswer == null) {
+            return null;
+        }
+        return QuestionRepository.ANSWER_LETTERS.get(
+            QuestionTokenService.shownPosition(answerOrder, QuestionRepository.answerIndex(correctAnswer)));
+    }
+
     /**
      * Retrieves a random question.
      *
@@ -71,7 +282,7 @@ public class QuestionService {
 
     /**
      * Retrieves a random trivia question mapped to a DTO with environment message.
-     * Maps the Question domain model to TriviaQuestion DTO, extracting answer text
+     * Maps the Question domain model to TriviaQuestion DTO, extracting answer text in a random order
      * without exposing correctness information, and includes a random environment message.
      *
      * @return Optional containing a TriviaQuestion DTO if a question exists, empty otherwise
@@ -86,23 +297,266 @@ public class QuestionService {
         }
 
         Question question = questionOptional.get();
-        List<Answer> answers = question.optionalAnswers();
         String environmentMessage = environmentRepository.getRandomMessage();
 
         Log.debugf("Building TriviaQuestion: id=%s, text=%s, envMessage=%s",
             question.id(), question.questionText(), environmentMessage);
 
-        TriviaQuestion triviaQuestion = new TriviaQuestion(
+        TriviaQuestion triviaQuestion = toTriviaQuestion(question, randomAnswerOrder(), environmentMessage);
+
+        Log.debugf("Returning trivia question: %s", triviaQuestion);
+        return Optional.of(triviaQuestion);
+    }
+
+    /**
+     * Retrieves a random trivia question with a random environment message, already serialized to JSON.
+     * The bytes are shared between requests and must not be modified.
+     *
+     * @return Optional containing the JSON of a TriviaQuestion DTO if a question exists, empty otherwise
+     */
+    public Optional<byte[]> getRandomTriviaQuestionJson() {
+        RenderedQuestions rendered = renderedQuestions();
+        byte[][][][] json = rendered.json();
+        if (rendered.questions().isEmpty()) {
+            Log.debug("No questions available in repository");
+            return Optional.empty();
+        }
+        if (json == null) {
+            List<Question> questions = rendered.questions();
+            return Optional.of(renderOne(questions.get(ThreadLocalRandom.current().nextInt(questions.size()))));
+        }
+        return Optional.of(variant(json, ThreadLocalRandom.current().nextInt(json.length)));
+    }
+
+    /**
+     * Retrieves a random trivia question with the given category and difficulty and a random environment message,
+     * already serialized to JSON. Matching questions are found through the repository's category and difficulty
+     * indexes, so the bank is never scanned. The bytes are shared between requests and must not be modified.
+     *
+     * @param category the category, matched ignoring case, or null for any category
+     * @param difficulty the difficulty, or null for any difficulty
+     * @return Optional containing the JSON of a TriviaQuestion DTO if a question matches, empty otherwise
+     */
+    public Optional<byte[]> getRandomTriviaQuestionJson(String category, Difficulty difficulty) {
+        while (true) {
+            RenderedQuestions rendered = renderedQuestions();
+            int position = questionRepository.findRandomPosition(category, difficulty);
+            if (questionRepository.findAll() != rendered.questions()) {
+                // The questions were reloaded in between, so the position may not match the rendered questions
+                continue;
+            }
+            if (position < 0) {
+                Log.debugf("No questions match category %s and difficulty %s", category, difficulty);
+                return Optional.empty();
+            }
+            byte[][][][] json = rendered.json();
+            if (json == null) {
+                return Optional.of(renderOne(rendered.questions().get(position)));
+            }
+            return Optional.of(variant(json, position));
+        }
+    }
+
+    /**
+     * Retrieves the next trivia question from a player's deck, mapped to a DTO with a random environment message.
+     * A player is served every question once before any question repeats, unless questions are selected
+     * adaptively.
+     *
+     * @param playerId the player ID
+     * @return Optional containing a TriviaQuestion DTO if a question exists, empty otherwise
+     */
+    public Optional<TriviaQuestion> getNextTriviaQuestion(int playerId) {
+        List<Question> questions = questionRepository.findAll();
+        if (questions.isEmpty()) {
+            Log.debug("No questions available in repository");
+            return Optional.empty();
+        }
+        int position = nextPosition(playerId, questions);
+        Log.debugf("Serving question %d to player %d", position, playerId);
+        return Optional.of(toTriviaQuestion(questions.get(position), randomAnswerOrder(),
+            environmentRepository.getRandomMessage()));
+    }
+
+    /**
+     * Retrieves the next trivia question from a player's deck with a random environment message,
+     * already serialized to JSON. The bytes are shared between requests and must not be modified.
+     *
+     * @param playerId the player ID
+     * @return Optional containing the JSON of a TriviaQuestion DTO if a question exists, empty otherwise
+     */
+    public Optional<byte[]> getNextTriviaQuestionJson(int playerId) {
+        RenderedQuestions rendered = renderedQuestions();
+        byte[][][][] json = rendered.json();
+        if (rendered.questions().isEmpty()) {
+            Log.debug("No questions available in repository");
+            return Optional.empty();
+        }
+        int position = nextPosition(playerId, rendered.questions());
+        Log.debugf("Serving question %d to player %d", position, playerId);
+        if (json == null) {
+            return Optional.of(renderOne(rendered.questions().get(position)));
+        }
+        return Optional.of(variant(json, position));
+    }
+
+    /**
+     * Retrieves the next trivia questions from a player's deck, each with a random environment message, as one
+     * JSON array, so a client can show upcoming questions without a round trip per question. The questions in
+     * a batch never repeat, and a batch never holds more questions than are served. Answer keys are not
+     * included; answers are still checked when they are submitted.
+     *
+     * @param playerId the player ID
+     * @param count the number of questions wanted, from 1 to MAX_PREFETCH_SIZE
+     * @return the JSON of an array of TriviaQuestion DTOs, empty if no questions are served
+     * @throws IllegalArgumentException if the count is out of range
+     */
+    public byte[] getNextTriviaQuestionsJson(int playerId, int count) {
+        if (count < 1 || count > MAX_PREFETCH_SIZE) {
+            Log.debugf("Invalid prefetch count: %d", count);
+            throw new IllegalArgumentException("Invalid count");
+        }
+        RenderedQuestions rendered = renderedQuestions();
+        List<Question> questions = rendered.questions();
+        byte[][][][] json = rendered.json();
+
+        // A batch that runs past the end of the deck continues into a new shuffle, which may start with a
+        // question already in the batch; such draws are skipped, and every position comes up within one shuffle.
+        // Adaptive selection may keep drawing from a bucket smaller than the batch, so after as many draws as
+        // there are questions the rest of the batch comes from the deck
+        int[] positions = new int[Math.min(count, questions.size())];
+        int drawn = 0;
+        int draws = 0;
+        while (drawn < positions.length) {
+            int position = draws++ < questions.size()
+                ? nextPosition(playerId, questions)
+                : deckPosition(playerId, questions);
+            if (!contains(positions, drawn, position)) {
+                positions[drawn++] = position;
+            }
+        }
+        Log.debugf("Serving %d questions to player %d", drawn, playerId);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(positions.length * 512);
+        out.write('[');
+        for (int i = 0; i < positions.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(json == null
+                ? renderOne(questions.get(positions[i]))
+                : variant(json, positions[i]));
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private int nextPosition(int playerId, List<Question> questions) {
+        int position = questionStatsService.nextPosition(playerId, questions);
+        return position >= 0 ? position : deckPosition(playerId, questions);
+    }
+
+    private int deckPosition(int playerId, List<Question> questions) {
+        return questionDeckRepository.nextPosition(playerId, questions.size(),
+            questionRepository.findGeneration(questions));
+    }
+
+    private byte[] variant(byte[][][][] json, int position) {
+        return json[position][randomAnswerOrder()][environmentRepository.getRandomMessageIndex()];
+    }
+
+    private static int randomAnswerOrder() {
+        return ThreadLocalRandom.current().nextInt(QuestionTokenService.ANSWER_ORDERS);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RenderedQuestions renderedQuestions() {
+        List<Question> questions = questionRepository.findAll();
+        RenderedQuestions rendered = renderedQuestions;
+        if (rendered != null && rendered.questions() == questions) {
+            return rendered;
+        }
+        // The repository replaces its question list as a whole, so a new list means the questions changed and
+        // are still being rendered by the reloading thread; until then, questions are serialized as they are served
+        return new RenderedQuestions(questions, null);
+    }
+
+    private RenderedQuestions render(List<Question> questions) {
+        if (questions.size() > prerenderLimit) {
+            RenderedQuestions unrendered = new RenderedQuestions(questions, null);
+            publish(unrendered);
+            Log.debugf("Not pre-rendering %d questions, more than the limit of %d", questions.size(), prerenderLimit);
+            return unrendered;
+        }
+        List<String> messages = environmentRepository.getAllMessages();
+        byte[][][][] json = new byte[questions.size()][QuestionTokenService.ANSWER_ORDERS][messages.size()][];
+        try {
+            for (int position = 0; position < questions.size(); position++) {
+                for (int answerOrder = 0; answerOrder < QuestionTokenService.ANSWER_ORDERS; answerOrder++) {
+                    for (int message = 0; message < messages.size(); message++) {
+                        json[position][answerOrder][message] = objectMapper.writeValueAsBytes(
+                            toTriviaQuestion(questions.get(position), answerOrder, messages.get(message)));
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render trivia questions: " + e.getMessage(), e);
+        }
+        RenderedQuestions rendered = new RenderedQuestions(questions, json);
+        publish(rendered);
+        Log.debugf("Rendered %d questions with %d environment messages", questions.size(), messages.size());
+        return rendered;
+    }
+
+    /**
+     * Publishes a rendering unless its questions were replaced while it was built, so a slow rendering of
+     * older questions never replaces the rendering of a later reload.
+     */
+    private void publish(RenderedQuestions rendered) {
+        publishLock.lock();
+        try {
+            if (questionRepository.findAll() == rendered.questions()) {
+                renderedQuestions = rendered;
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private byte[] renderOne(Question question) {
+        try {
+            return objectMapper.writeValueAsBytes(
+                toTriviaQuestion(question, randomAnswerOrder(), environmentRepository.getRandomMessage()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render trivia question: " + e.getMessage(), e);
+        }
+    }
+
+    private TriviaQuestion toTriviaQuestion(Question question, int answerOrder, String environmentMessage) {
+        List<Answer> answers = question.optionalAnswers();
+        return new TriviaQuestion(
             question.id(),
             question.questionText(),
-            answers.get(0).text(),
-            answers.get(1).text(),
-            answers.get(2).text(),
-            answers.get(3).text(),
-            environmentMessage
+            answers.get(QuestionTokenService.bankPosition(answerOrder, 0)).text(),
+            answers.get(QuestionTokenService.bankPosition(answerOrder, 1)).text(),
+            answers.get(QuestionTokenService.bankPosition(answerOrder, 2)).text(),
+            answers.get(QuestionTokenService.bankPosition(answerOrder, 3)).text(),
+            environmentMessage,
+            questionTokenService.issue(questionRepository.indexOf(question.id()), answerOrder)
         );
+    }
 
-        Log.debugf("Returning trivia question: %s", triviaQuestion);
-        return Optional.of(triviaQuestion);
+    /**
+     * Questions with their pre-rendered JSON, one array per question, answer order and environment message,
+     * or null JSON when there are too many questions to pre-render.
+     */
+    private record RenderedQuestions(List<Question> questions, byte[][][][] json) {
     }
 }
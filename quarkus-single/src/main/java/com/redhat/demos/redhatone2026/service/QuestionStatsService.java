@@ -0,0 +1,307 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.redhat.demos.redhatone2026.model.Answer;
+import com.redhat.demos.redhatone2026.model.AnswerCount;
+import com.redhat.demos.redhatone2026.model.AnswerDistribution;
+import com.redhat.demos.redhatone2026.model.Difficulty;
+import com.redhat.demos.redhatone2026.model.Question;
+import com.redhat.demos.redhatone2026.repository.LeaderboardRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionStatsRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service layer for live question statistics and the adaptive selection of questions they drive.
+ *
+ * Every checked answer is recorded in QuestionStatsRepository, without locking, including which of the question's
+ * answers was chosen, so presenters can show how a room split between the answers. With trivia.questions.selection
+ * set to adaptive, players are served questions whose difficulty is close to their running accuracy, so players
+ * who answer well get harder questions and players who struggle get easier ones. A question's difficulty is the
+ * share of its answers that were wrong, starting from a value set by its declared difficulty until it has been
+ * answered a few times; a player's accuracy starts at one half.
+ *
+ * Served questions are grouped into difficulty buckets on a background thread every refresh interval, so
+ * selecting a question is a bucket lookup and a random pick, whatever the size of the bank. The pick is made
+ * among the questions of the bucket closest to the player's accuracy and, when it holds fewer than
+ * MIN_CANDIDATES questions, of up to MAX_SPREAD neighbouring buckets on each side, so a small bucket does not
+ * serve the same few questions over and over; if those are all empty, the closest buckets holding questions are
+ * used. Questions the player has already answered correctly score
+ * nothing and are skipped; when every candidate looked at has been answered correctly, the caller falls back to
+ * the player's deck.
+ * Until the buckets have been built for the questions currently served, for example just after a reload, no
+ * position is selected and the caller falls back to the player's deck.
+ */
+@ApplicationScoped
+public class QuestionStatsService {
+
+    /**
+     * How questions are selected for players.
+     */
+    public enum Selection {
+        DECK,
+        ADAPTIVE
+    }
+
+    static final int BUCKETS = 10;
+
+    /**
+     * The fewest questions a pick is made among, when the neighbouring buckets hold that many.
+     */
+    static final int MIN_CANDIDATES = 4;
+
+    /**
+     * The most buckets on each side of the player's bucket that a pick spills into.
+     */
+    static final int MAX_SPREAD = 2;
+
+    /**
+     * The most questions looked at per pick for one the player has not answered correctly.
+     */
+    static final int MAX_PROBES = 64;
+
+    /**
+     * The number of answers a question's declared difficulty counts for before it has been answered.
+     */
+    static final double PRIOR_WEIGHT = 4;
+
+    private final QuestionRepository questionRepository;
+    private final QuestionStatsRepository questionStatsRepository;
+    private final LeaderboardRepository leaderboardRepository;
+    private final Selection selection;
+    private final Duration refreshInterval;
+
+    private volatile ScheduledExecutorService scheduler;
+    private volatile Buckets buckets;
+
+    @Inject
+    public QuestionStatsService(QuestionRepository questionRepository,
+                                QuestionStatsRepository questionStatsRepository,
+                                LeaderboardRepository leaderboardRepository,
+                                @ConfigProperty(name = "trivia.questions.selection", defaultValue = "deck")
+                                Selection selection,
+                                @ConfigProperty(name = "trivia.questions.adaptive.refresh-interval",
+                                    defaultValue = "1s") Duration refreshInterval) {
+        if (questionRepository == null) {
+            throw new IllegalArgumentException("QuestionRepository cannot be null");
+        }
+        if (questionStatsRepository == null) {
+            throw new IllegalArgumentException("QuestionStatsRepository cannot be null");
+        }
+        if (leaderboardRepository == null) {
+            throw new IllegalArgumentException("LeaderboardRepository cannot be null");
+        }
+        if (selection == null) {
+            throw new IllegalArgumentException("Selection cannot be null");
+        }
+        if (refreshInterval == null || refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("Refresh interval must be positive");
+        }
+        this.questionRepository = questionRepository;
+        this.questionStatsRepository = questionStatsRepository;
+        this.leaderboardRepository = leaderboardRepository;
+        this.selection = selection;
+        this.refreshInterval = refreshInterval;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (selection == Selection.ADAPTIVE) {
+            start();
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        ScheduledExecutorService executor = scheduler;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds the difficulty buckets and starts refreshing them in the background.
+     */
+    void start() {
+        refresh();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "question-stats-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, refreshInterval.toMillis(), refreshInterval.toMillis(),
+            TimeUnit.MILLISECONDS);
+        Log.infof("Selecting questions adaptively, refreshing difficulty buckets every %s", refreshInterval);
+    }
+
+    /**
+     * Records a checked answer in the question and player statistics.
+     *
+     * @param playerId the player ID
+     * @param questionIndex the question index
+     * @param answerPosition the position of the chosen answer among the question's stored answers
+     * @param isCorrect whether the answer was correct
+     */
+    public void recordAnswer(int playerId, int questionIndex, int answerPosition, boolean isCorrect) {
+        questionStatsRepository.recordAnswer(playerId, questionIndex, answerPosition, isCorrect);
+    }
+
+    /**
+     * Retrieves how the answers submitted for a question are split between its answers.
+     * The counters are read without blocking the submissions updating them.
+     *
+     * @param questionIndex the question index
+     * @return Optional containing the distribution if the index is in range, empty otherwise
+     */
+    public Optional<AnswerDistribution> getAnswerDistribution(int questionIndex) {
+        Optional<Question> question = questionRepository.findByIndex(questionIndex);
+        if (question.isEmpty()) {
+            return Optional.empty();
+        }
+        long[] counts = questionStatsRepository.getAnswerCounts(questionIndex);
+        List<Answer> answers = question.get().optionalAnswers();
+        List<AnswerCount> answerCounts = new ArrayList<>(answers.size());
+        long total = 0;
+        for (int answer = 0; answer < answers.size(); answer++) {
+            answerCounts.add(new AnswerCount(QuestionRepository.ANSWER_LETTERS.get(answer), answers.get(answer).text(),
+                counts[answer]));
+            total += counts[answer];
+        }
+        return Optional.of(new AnswerDistribution(question.get().id(), question.get().questionText(), total,
+            answerCounts));
+    }
+
+    /**
+     * Selects the position of a served question whose difficulty is close to the player's running accuracy,
+     * and which the player has not answered correctly.
+     *
+     * @param playerId the player ID
+     * @param questions the questions currently served, as returned by QuestionRepository.findAll()
+     * @return the position of the question among the served questions, or -1 if selection is not adaptive,
+     *         the difficulty buckets have not been built for these questions yet, or no question the player
+     *         has not answered correctly was found
+     */
+    public int nextPosition(int playerId, List<Question> questions) {
+        Buckets current = buckets;
+        if (selection != Selection.ADAPTIVE || current == null || current.questions() != questions
+                || questions.isEmpty()) {
+            return -1;
+        }
+        double accuracy = (questionStatsRepository.getPlayerCorrect(playerId) + 1.0)
+            / (questionStatsRepository.getPlayerAttempts(playerId) + 2.0);
+        int[] starts = current.starts();
+        int bucket = bucketOf(accuracy);
+        int lowest = bucket;
+        int highest = bucket;
+        for (int spread = 1; spread < BUCKETS; spread++) {
+            int candidates = starts[highest + 1] - starts[lowest];
+            if (candidates >= MIN_CANDIDATES || candidates > 0 && spread > MAX_SPREAD) {
+                break;
+            }
+            lowest = Math.max(0, bucket - spread);
+            highest = Math.min(BUCKETS - 1, bucket + spread);
+        }
+        int start = starts[lowest];
+        int size = starts[highest + 1] - start;
+
+        // Look from a random candidate onwards for one the player has not answered correctly
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < Math.min(size, MAX_PROBES); i++) {
+            int slot = start + (offset + i) % size;
+            if (!leaderboardRepository.hasAnsweredCorrectly(playerId, current.questionIndexes()[slot])) {
+                return current.positions()[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Estimates a question's difficulty from its answers so far and its declared difficulty.
+     *
+     * @param questionIndex the question index
+     * @return the estimated share of wrong answers, from 0 to 1
+     */
+    public double getDifficulty(int questionIndex) {
+        double correctRate = priorCorrectRate(questionRepository.findDifficulty(questionIndex));
+        long attempts = questionStatsRepository.getAttempts(questionIndex);
+        long correct = questionStatsRepository.getCorrect(questionIndex);
+        return 1 - (correct + PRIOR_WEIGHT * correctRate) / (attempts + PRIOR_WEIGHT);
+    }
+
+    /**
+     * Groups the served questions into difficulty buckets from the current statistics.
+     */
+    void refresh() {
+        List<Question> questions = questionRepository.findAll();
+        int served = questions.size();
+        int[] bucketOf = new int[served];
+        int[] indexAt = new int[served];
+        int[] starts = new int[BUCKETS + 1];
+        for (int position = 0; position < served; position++) {
+            int questionIndex = questionRepository.findIndexAt(position);
+            indexAt[position] = questionIndex;
+            bucketOf[position] = bucketOf(getDifficulty(Math.max(questionIndex, 0)));
+            starts[bucketOf[position] + 1]++;
+        }
+        if (questionRepository.findAll() != questions) {
+            // The questions were reloaded in between; the next refresh builds buckets for the new ones
+            return;
+        }
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            starts[bucket + 1] += starts[bucket];
+        }
+        int[] positions = new int[served];
+        int[] questionIndexes = new int[served];
+        int[] next = starts.clone();
+        for (int position = 0; position < served; position++) {
+            int slot = next[bucketOf[position]]++;
+            positions[slot] = position;
+            questionIndexes[slot] = indexAt[position];
+        }
+        buckets = new Buckets(questions, positions, questionIndexes, starts);
+        Log.debugf("Refreshed difficulty buckets for %d questions", served);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            Log.errorf(e, "Keeping current difficulty buckets; failed to refresh them");
+        }
+    }
+
+    private static int bucketOf(double difficulty) {
+        return Math.min(BUCKETS - 1, Math.max(0, (int) (difficulty * BUCKETS)));
+    }
+
+    private static double priorCorrectRate(Difficulty difficulty) {
+        if (difficulty == null) {
+            return 0.6;
+        }
+        return switch (difficulty) {
+            case EASY -> 0.8;
+            case MEDIUM -> 0.6;
+            case HARD -> 0.4;
+        };
+    }
+
+    /**
+     * Served questions grouped by difficulty: the positions of the questions in each bucket, easiest first,
+     * their question indexes, and where each bucket starts in them.
+     */
+    private record Buckets(List<Question> questions, int[] positions, int[] questionIndexes, int[] starts) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.redhat.demos.redhatone2026.service;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies the signed tokens that record the order in which a question's answers were shown.
+ *
+ * Each served question shows its four answers in one of the 24 possible orders. Rather than remembering the order
+ * per request, the question index and the order number are sent to the client in a token signed with HMAC-SHA256,
+ * and the client returns the token with its answer. Verifying a token is one MAC over five bytes, with no lookup
+ * and no server-side state, so any instance sharing trivia.questions.token-key can check an answer shown by
+ * another. Without a configured key, each instance signs with a random key of its own.
+ *
+ * Being stateless, tokens do not expire and are not bound to a player: a question shown in a given order always
+ * gets the same token, and a token can be replayed by anyone for as long as the key is unchanged. That is accepted
+ * here because a token only names an order whose answers the client can already read, and replaying it cannot score
+ * a question twice, since the leaderboard counts each player's correct answer to a question once.
+ */
+@ApplicationScoped
+public class QuestionTokenService {
+
+    /**
+     * The number of orders in which four answers can be shown. Order 0 shows them as they are in the bank.
+     */
+    public static final int ANSWER_ORDERS = 24;
+
+    static final int MIN_KEY_SIZE = 16;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_SIZE = Integer.BYTES + 1;
+    private static final int SIGNATURE_SIZE = 12;
+    private static final int TOKEN_LENGTH = (4 * (PAYLOAD_SIZE + SIGNATURE_SIZE) + 2) / 3;
+
+    /**
+     * Per order, the position in the bank of the answer shown at each position.
+     */
+    private static final byte[][] ORDERS = new byte[ANSWER_ORDERS][];
+
+    /**
+     * Per order, the position at which each answer in the bank is shown.
+     */
+    private static final byte[][] INVERSE_ORDERS = new byte[ANSWER_ORDERS][4];
+
+    static {
+        int order = 0;
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    int d = 6 - a - b - c;
+                    if (a == b || a == c || b == c) {
+                        continue;
+                    }
+                    ORDERS[order] = new byte[] {(byte) a, (byte) b, (byte) c, (byte) d};
+                    for (int shown = 0; shown < 4; shown++) {
+                        INVERSE_ORDERS[order][ORDERS[order][shown]] = (byte) shown;
+                    }
+                    order++;
+                }
+            }
+        }
+    }
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    @Inject
+    public QuestionTokenService(@ConfigProperty(name = "trivia.questions.token-key") Optional<String> key) {
+        this(key.map(QuestionTokenService::decodeKey).orElseGet(() -> {
+            Log.info("No trivia.questions.token-key set; question tokens are only valid on this instance");
+            return randomKey();
+        }));
+    }
+
+    /**
+     * Creates a token service signing with the given key.
+     *
+     * @param key the HMAC key, at least MIN_KEY_SIZE bytes
+     * @throws IllegalArgumentException if the key is missing or too short
+     */
+    public QuestionTokenService(byte[] key) {
+        if (key == null || key.length < MIN_KEY_SIZE) {
+            throw new IllegalArgumentException("Token key must be at least " + MIN_KEY_SIZE + " bytes");
+        }
+        this.key = new SecretKeySpec(key, ALGORITHM);
+        // Mac instances are not thread-safe, and creating one per token would cost more than the MAC itself
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Creates a token service signing with a random key, so its tokens are only valid on this instance.
+     *
+     * @return the token service
+     */
+    public static QuestionTokenService withRandomKey() {
+        return new QuestionTokenService(randomKey());
+    }
+
+    /**
+     * Issues the token for a question shown with its answers in the given order.
+     *
+     * @param questionIndex the question index
+     * @param answerOrder the answer order, from 0 to ANSWER_ORDERS - 1
+     * @return the token, URL-safe Base64 without padding
+     */
+    public String issue(int questionIndex, int answerOrder) {
+        byte[] token = new byte[PAYLOAD_SIZE + SIGNATURE_SIZE];
+        ByteBuffer.wrap(token).putInt(questionIndex).put((byte) answerOrder);
+        Mac mac = macs.get();
+        mac.update(token, 0, PAYLOAD_SIZE);
+        System.arraycopy(mac.doFinal(), 0, token, PAYLOAD_SIZE, SIGNATURE_SIZE);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Verifies a token issued for a question and returns the answer order it records.
+     *
+     * @param questionIndex the index of the question being answered
+     * @param token the token
+     * @return the answer order, or -1 if the token is malformed, was not signed with this key,
+     *         or was issued for another question
+     */
+    public int answerOrder(int questionIndex, String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return -1;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        Mac mac = macs.get();
+        mac.update(bytes, 0, PAYLOAD_SIZE);
+        byte[] signature = mac.doFinal();
+        // Compared in constant time, like MessageDigest.isEqual, without copying the truncated signatures
+        int difference = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            difference |= signature[i] ^ bytes[PAYLOAD_SIZE + i];
+        }
+        if (difference != 0) {
+            return -1;
+        }
+        ByteBuffer payload = ByteBuffer.wrap(bytes);
+        int answerOrder = payload.get(Integer.BYTES);
+        if (payload.getInt(0) != questionIndex || answerOrder < 0 || answerOrder >= ANSWER_ORDERS) {
+            return -1;
+        }
+        return answerOrder;
+    }
+
+    /**
+     * Returns the position in the bank of the answer shown at a position.
+     *
+     * @param answerOrder the answer order
+     * @param shownPosition the position at which the answer is shown, from 0 to 3
+     * @return the answer's position in the bank
+     */
+    public static int bankPosition(int answerOrder, int shownPosition) {
+        return ORDERS[answerOrder][shownPosition];
+    }
+
+    /**
+     * Returns the position at which an answer is shown.
+     *
+     * @param answerOrder the answer order
+     * @param bankPosition the answer's position in the bank, from 0 to 3
+     * @return the position at which the answer is shown
+     */
+    public static int shownPosition(int answerOrder, int bankPosition) {
+        return INVERSE_ORDERS[answerOrder][bankPosition];
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize " + ALGORITHM + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] decodeKey(String key) {
+        try {
+            return Base64.getDecoder().decode(key.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("trivia.questions.token-key must be Base64", e);
+        }
+    }
+
+    private static byte[] randomKey() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+}
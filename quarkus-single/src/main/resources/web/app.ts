@@ -15,12 +15,20 @@ interface TriviaQuestion {
     option3: string;
     option4: string;
     environment: string;
+    token?: string;
 }
 
 interface AnswerSubmission {
     username: string;
     questionId: string;
     selectedAnswer: string;
+    playerId?: number;
+    token?: string;
+}
+
+interface Player {
+    playerId: number;
+    username: string;
 }
 
 interface Answer {
@@ -49,9 +57,30 @@ interface LeaderboardEntry {
     questionsAnsweredCorrectly: number;
 }
 
-// Leaderboard auto-refresh interval in milliseconds
+interface PlayerStanding {
+    username: string;
+    score: number;
+    rank: number;
+    above: LeaderboardEntry[];
+    below: LeaderboardEntry[];
+}
+
+// Leaderboard auto-refresh interval in milliseconds, used when Server-Sent Events are unavailable
 const LEADERBOARD_REFRESH_INTERVAL = 60000;
 
+// Minimum time between standing lookups while streaming, for players outside the streamed entries
+const STANDING_REFRESH_INTERVAL = 10000;
+
+// Number of top leaderboard entries to display
+const LEADERBOARD_PAGE_SIZE = 100;
+
+// Number of upcoming questions fetched per request, and the queue length below which more are fetched
+const PREFETCH_SIZE = 5;
+const PREFETCH_LOW_WATER = 2;
+
+// Time the result of an answer is shown before the next question, in milliseconds
+const RESULT_DISPLAY_TIME = 2500;
+
 class VegasTriviaApp {
     private storageManager: StorageManager;
     private validator: UsernameValidator;
@@ -92,12 +121,18 @@ class VegasTriviaApp {
     private leaderboardErrorText: HTMLElement;
     private retryLeaderboardButton: HTMLButtonElement;
     private leaderboardList: HTMLElement;
+    private playerStanding: HTMLElement;
 
     // State
     private questionData: TriviaQuestion | null = null;
+    private questionQueue: TriviaQuestion[] = [];
+    private questionPrefetch: Promise<void> | null = null;
+    private pendingResultId: string | null = null;
     private selectedAnswer: string | null = null;
     private leaderboardData: LeaderboardEntry[] = [];
     private leaderboardRefreshTimer: number | null = null;
+    private leaderboardStream: EventSource | null = null;
+    private lastStandingFetch = 0;
 
     constructor() {
         this.storageManager = new StorageManager();
@@ -138,6 +173,7 @@ class VegasTriviaApp {
         this.leaderboardErrorText = document.getElementById('leaderboard-error-text') as HTMLElement;
         this.retryLeaderboardButton = document.getElementById('retry-leaderboard') as HTMLButtonElement;
         this.leaderboardList = document.getElementById('leaderboard-list') as HTMLElement;
+        this.playerStanding = document.getElementById('player-standing') as HTMLElement;
 
         // Get all answer buttons
         this.answerButtons = [
@@ -155,8 +191,13 @@ class VegasTriviaApp {
         const existingUsername = this.storageManager.getUsername();
 
         if (existingUsername && this.validator.validate(existingUsername).isValid) {
-            // Auto-login for returning users
-            this.showGameScreen();
+            // Auto-login for returning users, joining first if this session has no player ID yet, so the first
+            // questions and answers already carry it
+            if (this.storageManager.getPlayerId() === null) {
+                this.joinGame(existingUsername).then(() => this.showGameScreen());
+            } else {
+                this.showGameScreen();
+            }
         } else {
             // Show login screen for new users
             this.setupLoginHandlers();
@@ -218,7 +259,7 @@ class VegasTriviaApp {
 
         // Retry leaderboard button handler
         this.retryLeaderboardButton.addEventListener('click', () => {
-            this.fetchLeaderboard();
+            this.startLeaderboardUpdates();
         });
     }
 
@@ -255,18 +296,42 @@ class VegasTriviaApp {
             return;
         }
 
-        // Store username in sessionStorage
+        // Store username in sessionStorage and register it to obtain a player ID
         this.storageManager.setUsername(username);
+        const joined = this.joinGame(username);
 
         // Show welcome message
         this.showWelcomeScreen(username);
 
-        // Transition to game screen after 2.5 seconds
-        setTimeout(() => {
+        // Transition to game screen after 2.5 seconds, once the player ID is known
+        setTimeout(async () => {
+            await joined;
             this.showGameScreen();
         }, 2500);
     }
 
+    private async joinGame(username: string): Promise<void> {
+        try {
+            const response = await fetch('/api/players', {
+                method: 'POST',
+                headers: {
+                    'Content-Type': 'application/json',
+                },
+                body: JSON.stringify({ username }),
+            });
+
+            if (!response.ok) {
+                throw new Error(`Failed to join: ${response.status} ${response.statusText}`);
+            }
+
+            const player: Player = await response.json();
+            this.storageManager.setPlayerId(player.playerId);
+        } catch (error) {
+            // Answers are still attributed by username until a player ID is available
+            console.error('Error joining game:', error);
+        }
+    }
+
     private showError(message: string): void {
         this.errorDisplay.textContent = message;
         this.errorDisplay.classList.add('visible');
@@ -283,7 +348,7 @@ class VegasTriviaApp {
         this.gameScreen.classList.add('hidden');
         this.leaderboardScreen.classList.add('hidden');
         this.usernameInput.focus();
-        this.clearLeaderboardTimer();
+        this.stopLeaderboardUpdates();
     }
 
     private showWelcomeScreen(username: string): void {
@@ -295,7 +360,7 @@ class VegasTriviaApp {
 
         // Add fade-in animation
         this.welcomeScreen.classList.add('fade-in');
-        this.clearLeaderboardTimer();
+        this.stopLeaderboardUpdates();
     }
 
     private showGameScreen(): void {
@@ -304,8 +369,8 @@ class VegasTriviaApp {
         this.gameScreen.classList.remove('hidden');
         this.leaderboardScreen.classList.add('hidden');
 
-        // Clear leaderboard timer when navigating away from leaderboard
-        this.clearLeaderboardTimer();
+        // Stop leaderboard updates when navigating away from leaderboard
+        this.stopLeaderboardUpdates();
 
         // Fetch first question when game screen is shown
         this.fetchQuestion();
@@ -317,45 +382,87 @@ class VegasTriviaApp {
         this.gameScreen.classList.add('hidden');
         this.leaderboardScreen.classList.remove('hidden');
 
-        // Fetch leaderboard data when screen is shown
-        this.fetchLeaderboard();
-
-        // Start auto-refresh timer
-        this.startLeaderboardAutoRefresh();
+        // Stream leaderboard updates while the screen is shown
+        this.startLeaderboardUpdates();
     }
 
     private async fetchQuestion(): Promise<void> {
         try {
-            // Show loading state
-            this.showLoadingState();
-
-            // Fetch question from API
-            const response = await fetch('/api/questions/random');
-
-            if (!response.ok) {
-                throw new Error(`Failed to fetch question: ${response.status} ${response.statusText}`);
+            // Questions are shown from a queue of prefetched questions, so only an empty queue waits on the network
+            if (this.questionQueue.length === 0) {
+                this.showLoadingState();
+                await this.fillQuestionQueue();
             }
 
-            const question: TriviaQuestion = await response.json();
+            const question = this.questionQueue.shift();
+            if (!question) {
+                throw new Error('No questions available');
+            }
 
             // Store question data
             this.questionData = question;
 
             // Display the question
             this.displayQuestion();
+
+            // Top the queue up in the background once it runs low
+            if (this.questionQueue.length < PREFETCH_LOW_WATER) {
+                this.fillQuestionQueue().catch((error) => {
+                    console.error('Error prefetching questions:', error);
+                });
+            }
         } catch (error) {
             console.error('Error fetching question:', error);
             this.showQuestionError('Failed to load question. Please try again.');
         }
     }
 
+    private fillQuestionQueue(): Promise<void> {
+        // Share one request between callers, so the queue is never filled twice at once
+        if (this.questionPrefetch === null) {
+            this.questionPrefetch = this.requestQuestions().finally(() => {
+                this.questionPrefetch = null;
+            });
+        }
+        return this.questionPrefetch;
+    }
+
+    private async requestQuestions(): Promise<void> {
+        // Upcoming questions come from this player's deck once a player ID is known; without one there is
+        // no deck, so a single random question is fetched
+        const playerId = this.storageManager.getPlayerId();
+        const url = playerId === null
+            ? '/api/questions/random'
+            : `/api/questions/next?playerId=${playerId}&count=${PREFETCH_SIZE}`;
+        const response = await fetch(url);
+
+        if (!response.ok) {
+            throw new Error(`Failed to fetch questions: ${response.status} ${response.statusText}`);
+        }
+
+        const questions: TriviaQuestion[] = playerId === null ? [await response.json()] : await response.json();
+        this.enqueueQuestions(questions);
+    }
+
+    private enqueueQuestions(questions: TriviaQuestion[]): void {
+        questions.forEach((question) => {
+            // A new shuffle of the deck can bring back a question that is showing or already queued
+            const known = question.id === this.questionData?.id
+                || this.questionQueue.some((queued) => queued.id === question.id);
+            if (!known) {
+                this.questionQueue.push(question);
+            }
+        });
+    }
+
     private async fetchLeaderboard(): Promise<void> {
         try {
             // Show loading state
             this.showLeaderboardLoadingState();
 
-            // Fetch leaderboard from API
-            const response = await fetch('/api/leaderboard');
+            // Fetch leaderboard from API; the browser revalidates its cached copy with If-None-Match,
+            // so an unchanged leaderboard costs a 304 and is served from the HTTP cache
+            const response = await fetch(`/api/leaderboard?limit=${LEADERBOARD_PAGE_SIZE}`, { cache: 'no-cache' });
 
             if (!response.ok) {
                 throw new Error(`Failed to fetch leaderboard: ${response.status} ${response.statusText}`);
@@ -372,6 +479,54 @@ class VegasTriviaApp {
             console.error('Error fetching leaderboard:', error);
             this.showLeaderboardError('Failed to load leaderboard. Please try again.');
         }
+
+        await this.fetchPlayerStanding();
+    }
+
+    private async fetchPlayerStanding(): Promise<void> {
+        const username = this.storageManager.getUsername();
+        if (!username) {
+            this.playerStanding.classList.add('hidden');
+            return;
+        }
+
+        try {
+            const response = await fetch(`/api/leaderboard/players/${encodeURIComponent(username)}?neighbours=0`);
+
+            if (!response.ok) {
+                throw new Error(`Failed to fetch standing: ${response.status} ${response.statusText}`);
+            }
+
+            const standing: PlayerStanding = await response.json();
+            this.showPlayerStanding(standing.rank, standing.score);
+        } catch (error) {
+            // The standing is supplementary, so the leaderboard stays usable without it
+            console.error('Error fetching player standing:', error);
+            this.playerStanding.classList.add('hidden');
+        }
+    }
+
+    private showPlayerStanding(rank: number, score: number): void {
+        this.playerStanding.textContent = score > 0
+            ? `Your rank: #${rank} with ${score} correct`
+            : 'Answer a question correctly to join the leaderboard!';
+        this.playerStanding.classList.remove('hidden');
+    }
+
+    private handleLeaderboardFrame(leaderboard: LeaderboardEntry[]): void {
+        this.leaderboardData = leaderboard;
+        this.displayLeaderboard();
+
+        // Players in the streamed entries get their standing from the frame itself;
+        // everyone else looks it up, but not on every frame
+        const username = this.storageManager.getUsername();
+        const ownEntry = leaderboard.find((entry) => entry.username === username);
+        if (ownEntry) {
+            this.showPlayerStanding(ownEntry.rank, ownEntry.score);
+        } else if (Date.now() - this.lastStandingFetch >= STANDING_REFRESH_INTERVAL) {
+            this.lastStandingFetch = Date.now();
+            this.fetchPlayerStanding();
+        }
     }
 
     private displayQuestion(): void {
@@ -488,17 +643,39 @@ class VegasTriviaApp {
         });
     }
 
-    private startLeaderboardAutoRefresh(): void {
-        // Clear any existing timer
-        this.clearLeaderboardTimer();
+    private startLeaderboardUpdates(): void {
+        // Close any existing stream or timer
+        this.stopLeaderboardUpdates();
 
-        // Set up auto-refresh interval
-        this.leaderboardRefreshTimer = window.setInterval(() => {
+        if (typeof EventSource === 'undefined') {
+            // Fall back to polling when the browser cannot stream
             this.fetchLeaderboard();
-        }, LEADERBOARD_REFRESH_INTERVAL);
+            this.leaderboardRefreshTimer = window.setInterval(() => {
+                this.fetchLeaderboard();
+            }, LEADERBOARD_REFRESH_INTERVAL);
+            return;
+        }
+
+        // The server sends the current leaderboard on connect and again whenever rankings change;
+        // EventSource reconnects on its own after network errors
+        this.showLeaderboardLoadingState();
+        this.lastStandingFetch = 0;
+        this.leaderboardStream = new EventSource('/api/leaderboard/stream');
+        this.leaderboardStream.onmessage = (event: MessageEvent) => {
+            this.handleLeaderboardFrame(JSON.parse(event.data));
+        };
+        this.leaderboardStream.onerror = () => {
+            if (this.leaderboardData.length === 0) {
+                this.showLeaderboardError('Failed to load leaderboard. Please try again.');
+            }
+        };
     }
 
-    private clearLeaderboardTimer(): void {
+    private stopLeaderboardUpdates(): void {
+        if (this.leaderboardStream !== null) {
+            this.leaderboardStream.close();
+            this.leaderboardStream = null;
+        }
         if (this.leaderboardRefreshTimer !== null) {
             clearInterval(this.leaderboardRefreshTimer);
             this.leaderboardRefreshTimer = null;
@@ -538,9 +715,6 @@ class VegasTriviaApp {
                 button.disabled = true;
             });
 
-            // Show loading
-            this.showLoadingState();
-
             const username = this.storageManager.getUsername();
             if (!username) {
                 throw new Error('Username not found in session');
@@ -552,15 +726,40 @@ class VegasTriviaApp {
                 questionId: this.questionData!.id,
                 selectedAnswer: this.selectedAnswer!,
             };
+            const playerId = this.storageManager.getPlayerId();
+            if (playerId !== null) {
+                submission.playerId = playerId;
+            }
+            // The token records the order in which the answers were shown, so the selected letter is read in it
+            if (this.questionData!.token) {
+                submission.token = this.questionData!.token;
+            }
+
+            // Show the result screen straight away and move on to the next queued question after the usual delay,
+            // so waiting for the answer to be checked overlaps the delay instead of adding a round trip to it
+            this.showPendingResult(submission.questionId, this.questionData!.questionText);
+            setTimeout(() => {
+                this.pendingResultId = null;
+                this.fetchQuestion();
+            }, RESULT_DISPLAY_TIME);
 
             // Submit answer to API
-            const response = await fetch('/api/answers', {
-                method: 'POST',
-                headers: {
-                    'Content-Type': 'application/json',
-                },
-                body: JSON.stringify(submission),
-            });
+            let response = await this.postAnswer(submission);
+
+            // A player ID the server no longer recognizes for this username is dropped, and the answer is sent
+            // again under the player ID issued by joining again
+            if (submission.playerId !== undefined && response.status === 400
+                    && (await response.clone().text()) === 'Invalid playerId') {
+                this.storageManager.clearPlayerId();
+                await this.joinGame(username);
+                const newPlayerId = this.storageManager.getPlayerId();
+                if (newPlayerId === null) {
+                    delete submission.playerId;
+                } else {
+                    submission.playerId = newPlayerId;
+                }
+                response = await this.postAnswer(submission);
+            }
 
             if (!response.ok) {
                 throw new Error(`Failed to submit answer: ${response.status} ${response.statusText}`);
@@ -568,14 +767,51 @@ class VegasTriviaApp {
 
             const result: AnswerResponse = await response.json();
 
-            // Display result
-            this.displayResult(result);
+            // The next question from the player's deck is queued rather than dropped, so the deck stays in order
+            if (result.nextQuestion) {
+                this.enqueueQuestions([result.nextQuestion]);
+            }
+
+            // Display result, unless the game has already moved on to the next question
+            if (this.pendingResultId === submission.questionId) {
+                this.displayResult(result);
+            }
         } catch (error) {
             console.error('Error submitting answer:', error);
-            this.showQuestionError('Failed to submit answer. Please try again.');
+            if (this.pendingResultId !== null) {
+                this.resultMessage.textContent = 'Failed to submit answer';
+                this.resultMessage.className = 'result-message result-incorrect';
+            } else {
+                this.showQuestionError('Failed to submit answer. Please try again.');
+            }
         }
     }
 
+    private postAnswer(submission: AnswerSubmission): Promise<Response> {
+        return fetch('/api/answers', {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+            },
+            body: JSON.stringify(submission),
+        });
+    }
+
+    private showPendingResult(questionId: string, questionText: string): void {
+        this.pendingResultId = questionId;
+
+        // Hide loading and question display
+        this.questionLoading.classList.add('hidden');
+        this.questionDisplay.classList.add('hidden');
+
+        // Show the result display while the answer is checked
+        this.resultDisplay.classList.remove('hidden');
+        this.resultMessage.textContent = 'Checking answer...';
+        this.resultMessage.className = 'result-message';
+        this.resultQuestion.textContent = questionText;
+        this.resultCorrectAnswer.textContent = '';
+    }
+
     private displayResult(response: AnswerResponse): void {
         // Hide loading and question display
         this.questionLoading.classList.add('hidden');
@@ -604,22 +840,6 @@ class VegasTriviaApp {
 
         // Display correct answer with letter and text
         this.resultCorrectAnswer.textContent = `Correct answer: ${response.correctAnswer} - ${correctAnswerText}`;
-
-        // Automatically load next question after delay
-        setTimeout(() => {
-            this.loadNextQuestion(response.nextQuestion);
-        }, 2500);
-    }
-
-    private loadNextQuestion(nextQuestion: TriviaQuestion | null): void {
-        if (nextQuestion) {
-            // Use the next question from response
-            this.questionData = nextQuestion;
-            this.displayQuestion();
-        } else {
-            // Fetch a new question if none provided
-            this.fetchQuestion();
-        }
     }
 
     private showQuestionError(message: string): void {
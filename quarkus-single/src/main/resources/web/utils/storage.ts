@@ -1,9 +1,10 @@
 /**
  * SessionStorage Manager
- * Handles username storage and retrieval
+ * Handles username and player ID storage and retrieval
  */
 
 const STORAGE_KEY = 'vegas-trivia-username';
+const PLAYER_ID_KEY = 'vegas-trivia-player-id';
 
 export class StorageManager {
     /**
@@ -30,11 +31,47 @@ export class StorageManager {
     }
 
     /**
-     * Clear username from sessionStorage
+     * Store the player ID issued by the server in sessionStorage
+     */
+    setPlayerId(playerId: number): void {
+        try {
+            sessionStorage.setItem(PLAYER_ID_KEY, String(playerId));
+        } catch (error) {
+            console.error('Failed to store player ID:', error);
+        }
+    }
+
+    /**
+     * Retrieve player ID from sessionStorage
+     */
+    getPlayerId(): number | null {
+        try {
+            const playerId = sessionStorage.getItem(PLAYER_ID_KEY);
+            return playerId === null ? null : Number(playerId);
+        } catch (error) {
+            console.error('Failed to retrieve player ID:', error);
+            return null;
+        }
+    }
+
+    /**
+     * Clear the player ID from sessionStorage, keeping the username
+     */
+    clearPlayerId(): void {
+        try {
+            sessionStorage.removeItem(PLAYER_ID_KEY);
+        } catch (error) {
+            console.error('Failed to clear player ID:', error);
+        }
+    }
+
+    /**
+     * Clear username and player ID from sessionStorage
      */
     clearUsername(): void {
         try {
             sessionStorage.removeItem(STORAGE_KEY);
+            sessionStorage.removeItem(PLAYER_ID_KEY);
         } catch (error) {
             console.error('Failed to clear username:', error);
         }
@@ -8,26 +8,39 @@ import org.junit.jupiter.api.Test;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class AnswerResourceTest {
 
+    private final RequestExecutor requestExecutor = new RequestExecutor(RequestExecutor.Mode.EVENT_LOOP, null);
+
     @Test
     void shouldThrowExceptionWhenServiceIsNull() {
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
-            () -> new AnswerResource(null)
+            () -> new AnswerResource(null, requestExecutor)
         );
 
         assertEquals("AnswerService cannot be null", exception.getMessage());
     }
 
+    @Test
+    void shouldThrowExceptionWhenRequestExecutorIsNull() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new AnswerResource(mock(AnswerService.class), null)
+        );
+
+        assertEquals("RequestExecutor cannot be null", exception.getMessage());
+    }
+
     @Test
     void shouldReturnHttp200WithValidSubmission() {
         AnswerService mockService = mock(AnswerService.class);
-        AnswerResource resource = new AnswerResource(mockService);
+        AnswerResource resource = new AnswerResource(mockService, requestExecutor);
 
         UUID questionId = UUID.randomUUID();
         Answer answer1 = new Answer(UUID.randomUUID(), "Paris", true);
@@ -41,7 +54,7 @@ class AnswerResourceTest {
         AnswerSubmission submission = new AnswerSubmission("user", questionId, "A");
         when(mockService.submitAnswer(submission)).thenReturn(Optional.of(answerResponse));
 
-        Response response = resource.submitAnswer(submission);
+        Response response = resource.submitAnswer(submission).await().indefinitely();
 
         assertEquals(200, response.getStatus());
         assertEquals(answerResponse, response.getEntity());
@@ -50,13 +63,13 @@ class AnswerResourceTest {
     @Test
     void shouldReturnHttp404WhenQuestionNotFound() {
         AnswerService mockService = mock(AnswerService.class);
-        AnswerResource resource = new AnswerResource(mockService);
+        AnswerResource resource = new AnswerResource(mockService, requestExecutor);
 
         UUID questionId = UUID.randomUUID();
         AnswerSubmission submission = new AnswerSubmission("user", questionId, "A");
         when(mockService.submitAnswer(submission)).thenReturn(Optional.empty());
 
-        Response response = resource.submitAnswer(submission);
+        Response response = resource.submitAnswer(submission).await().indefinitely();
 
         assertEquals(404, response.getStatus());
         assertEquals("Question not found", response.getEntity());
@@ -65,14 +78,14 @@ class AnswerResourceTest {
     @Test
     void shouldReturnHttp400ForInvalidUsername() {
         AnswerService mockService = mock(AnswerService.class);
-        AnswerResource resource = new AnswerResource(mockService);
+        AnswerResource resource = new AnswerResource(mockService, requestExecutor);
 
         UUID questionId = UUID.randomUUID();
         AnswerSubmission submission = new AnswerSubmission("", questionId, "A");
         when(mockService.submitAnswer(submission))
             .thenThrow(new IllegalArgumentException("Invalid username"));
 
-        Response response = resource.submitAnswer(submission);
+        Response response = resource.submitAnswer(submission).await().indefinitely();
 
         assertEquals(400, response.getStatus());
         assertEquals("Invalid username", response.getEntity());
@@ -81,13 +94,13 @@ class AnswerResourceTest {
     @Test
     void shouldReturnHttp400ForInvalidQuestionId() {
         AnswerService mockService = mock(AnswerService.class);
-        AnswerResource resource = new AnswerResource(mockService);
+        AnswerResource resource = new AnswerResource(mockService, requestExecutor);
 
         AnswerSubmission submission = new AnswerSubmission("user", null, "A");
         when(mockService.submitAnswer(submission))
             .thenThrow(new IllegalArgumentException("Invalid questionId"));
 
-        Response response = resource.submitAnswer(submission);
+        Response response = resource.submitAnswer(submission).await().indefinitely();
 
         assertEquals(400, response.getStatus());
         assertEquals("Invalid questionId", response.getEntity());
@@ -96,14 +109,14 @@ class AnswerResourceTest {
     @Test
     void shouldReturnHttp400ForInvalidSelectedAnswer() {
         AnswerService mockService = mock(AnswerService.class);
-        AnswerResource resource = new AnswerResource(mockService);
+        AnswerResource resource = new AnswerResource(mockService, requestExecutor);
 
         UUID questionId = UUID.randomUUID();
         AnswerSubmission submission = new AnswerSubmission("user", questionId, "Z");
         when(mockService.submitAnswer(submission))
             .thenThrow(new IllegalArgumentException("Invalid answer selection"));
 
-        Response response = resource.submitAnswer(submission);
+        Response response = resource.submitAnswer(submission).await().indefinitely();
 
         assertEquals(400, response.getStatus());
         assertEquals("Invalid answer selection", response.getEntity());
@@ -112,14 +125,14 @@ class AnswerResourceTest {
     @Test
     void shouldReturnHttp500ForUnexpectedError() {
         AnswerService mockService = mock(AnswerService.class);
-        AnswerResource resource = new AnswerResource(mockService);
+        AnswerResource resource = new AnswerResource(mockService, requestExecutor);
 
         UUID questionId = UUID.randomUUID();
         AnswerSubmission submission = new AnswerSubmission("user", questionId, "A");
         when(mockService.submitAnswer(submission))
             .thenThrow(new RuntimeException("Unexpected error"));
 
-        Response response = resource.submitAnswer(submission);
+        Response response = resource.submitAnswer(submission).await().indefinitely();
 
         assertEquals(500, response.getStatus());
         assertEquals("Internal server error", response.getEntity());
@@ -128,7 +141,7 @@ class AnswerResourceTest {
     @Test
     void shouldReturnIncorrectAnswerResponse() {
         AnswerService mockService = mock(AnswerService.class);
-        AnswerResource resource = new AnswerResource(mockService);
+        AnswerResource resource = new AnswerResource(mockService, requestExecutor);
 
         UUID questionId = UUID.randomUUID();
         Answer answer1 = new Answer(UUID.randomUUID(), "Paris", false);
@@ -142,11 +155,54 @@ class AnswerResourceTest {
         AnswerSubmission submission = new AnswerSubmission("user", questionId, "A");
         when(mockService.submitAnswer(submission)).thenReturn(Optional.of(answerResponse));
 
-        Response response = resource.submitAnswer(submission);
+        Response response = resource.submitAnswer(submission).await().indefinitely();
 
         assertEquals(200, response.getStatus());
         AnswerResponse result = (AnswerResponse) response.getEntity();
         assertFalse(result.isCorrect());
         assertEquals("B", result.correctAnswer());
     }
+
+    @Test
+    void shouldReturnHttp200WithBatchResults() {
+        AnswerService mockService = mock(AnswerService.class);
+        AnswerResource resource = new AnswerResource(mockService, requestExecutor);
+
+        List<AnswerSubmission> submissions = List.of(new AnswerSubmission("user", UUID.randomUUID(), "A"));
+        List<AnswerResult> results = List.of(new AnswerResult(true, "A", null));
+        when(mockService.submitAnswers(submissions)).thenReturn(results);
+
+        Response response = resource.submitAnswers(submissions).await().indefinitely();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(results, response.getEntity());
+    }
+
+    @Test
+    void shouldReturnHttp400ForInvalidBatch() {
+        AnswerService mockService = mock(AnswerService.class);
+        AnswerResource resource = new AnswerResource(mockService, requestExecutor);
+
+        when(mockService.submitAnswers(List.of())).thenThrow(new IllegalArgumentException("Invalid batch"));
+
+        Response response = resource.submitAnswers(List.of()).await().indefinitely();
+
+        assertEquals(400, response.getStatus());
+        assertEquals("Invalid batch", response.getEntity());
+    }
+
+    @Test
+    void shouldReturnHttp503WhenLeaderboardIsBusy() {
+        AnswerService mockService = mock(AnswerService.class);
+        AnswerResource resource = new AnswerResource(mockService, requestExecutor);
+
+        AnswerSubmission submission = new AnswerSubmission("user", UUID.randomUUID(), "A");
+        when(mockService.submitAnswer(submission))
+            .thenThrow(new RejectedExecutionException("Leaderboard write buffer is full"));
+
+        Response response = resource.submitAnswer(submission).await().indefinitely();
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeaderString("Retry-After"));
+    }
 }
@@ -1,16 +1,28 @@
 package com.redhat.demos.redhatone2026;
 
 import com.redhat.demos.redhatone2026.model.LeaderboardEntry;
+import com.redhat.demos.redhatone2026.model.LeaderboardPage;
+import com.redhat.demos.redhatone2026.model.PlayerStanding;
 import com.redhat.demos.redhatone2026.service.LeaderboardService;
+import io.quarkus.test.common.http.TestHTTPResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.InjectMock;
 import io.restassured.http.ContentType;
 import org.junit.jupiter.api.Test;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
 /**
@@ -23,6 +35,9 @@ class LeaderboardResourceTest {
     @InjectMock
     LeaderboardService leaderboardService;
 
+    @TestHTTPResource("/api/leaderboard/stream")
+    URI streamUri;
+
     @Test
     void shouldReturnEmptyLeaderboardWithHttp200() {
         when(leaderboardService.getLeaderboard()).thenReturn(List.of());
@@ -109,4 +124,158 @@ class LeaderboardResourceTest {
                 .body("[0].rank", is(1))
                 .body("[1].rank", is(2));
     }
+
+    @Test
+    void shouldReturnLeaderboardPageWithNextCursorHeader() {
+        List<LeaderboardEntry> entries = List.of(
+                new LeaderboardEntry("alice", 15, 1, 15),
+                new LeaderboardEntry("bob", 12, 2, 12)
+        );
+
+        when(leaderboardService.getLeaderboardPage(2, null)).thenReturn(new LeaderboardPage(entries, "next-page"));
+
+        given()
+                .queryParam("limit", 2)
+                .when().get("/api/leaderboard")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .header("X-Next-Cursor", is("next-page"))
+                .body("size()", is(2))
+                .body("[1].username", is("bob"))
+                .body("[1].rank", is(2));
+    }
+
+    @Test
+    void shouldReturnHttp304WhenLeaderboardUnchanged() {
+        List<LeaderboardEntry> entries = List.of(new LeaderboardEntry("alice", 15, 1, 15));
+
+        when(leaderboardService.getLeaderboard()).thenReturn(entries);
+
+        String etag = given()
+                .when().get("/api/leaderboard")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .header("Cache-Control", is("no-cache"))
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/api/leaderboard")
+                .then()
+                .statusCode(304)
+                .header("ETag", is(etag));
+    }
+
+    @Test
+    void shouldReturnNewETagWhenLeaderboardChanges() {
+        when(leaderboardService.getLeaderboard()).thenReturn(List.of(new LeaderboardEntry("alice", 15, 1, 15)));
+
+        String etag = given()
+                .when().get("/api/leaderboard")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        when(leaderboardService.getLeaderboard()).thenReturn(List.of(new LeaderboardEntry("alice", 16, 1, 16)));
+
+        given()
+                .header("If-None-Match", etag)
+                .when().get("/api/leaderboard")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(etag))
+                .body("[0].score", is(16));
+    }
+
+    @Test
+    void shouldReturnHttp304ForUnchangedFirstPage() {
+        LeaderboardPage page = new LeaderboardPage(List.of(new LeaderboardEntry("alice", 15, 1, 15)), "next-page");
+
+        when(leaderboardService.getLeaderboardPage(1, null)).thenReturn(page);
+
+        String etag = given()
+                .queryParam("limit", 1)
+                .when().get("/api/leaderboard")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+
+        given()
+                .queryParam("limit", 1)
+                .header("If-None-Match", etag)
+                .when().get("/api/leaderboard")
+                .then()
+                .statusCode(304)
+                .header("X-Next-Cursor", is("next-page"));
+    }
+
+    @Test
+    void shouldStreamLeaderboardAsServerSentEvents() throws Exception {
+        LeaderboardPage page = new LeaderboardPage(List.of(new LeaderboardEntry("alice", 15, 1, 15)), null);
+
+        when(leaderboardService.getLeaderboardPage(100, null)).thenReturn(page);
+
+        HttpRequest request = HttpRequest.newBuilder(streamUri).header("Accept", "text/event-stream").build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                .get(10, TimeUnit.SECONDS);
+
+        try (Stream<String> lines = response.body()) {
+            assertEquals(200, response.statusCode());
+            String firstEvent = lines.filter(line -> line.startsWith("data:")).findFirst().orElseThrow();
+            assertEquals("data:[{\"username\":\"alice\",\"score\":15,\"rank\":1,\"questionsAnsweredCorrectly\":15}]",
+                    firstEvent);
+        }
+    }
+
+    @Test
+    void shouldReturnHttp400ForInvalidCursor() {
+        when(leaderboardService.getLeaderboardPage(10, "bogus"))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        given()
+                .queryParam("limit", 10)
+                .queryParam("cursor", "bogus")
+                .when().get("/api/leaderboard")
+                .then()
+                .statusCode(400)
+                .body(is("Invalid cursor"));
+    }
+
+    @Test
+    void shouldReturnPlayerStandingWithNeighbours() {
+        PlayerStanding standing = new PlayerStanding("bob", 12, 2,
+                List.of(new LeaderboardEntry("alice", 15, 1, 15)),
+                List.of(new LeaderboardEntry("charlie", 10, 3, 10)));
+
+        when(leaderboardService.getPlayerStanding("bob", 1)).thenReturn(standing);
+
+        given()
+                .queryParam("neighbours", 1)
+                .when().get("/api/leaderboard/players/bob")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("username", is("bob"))
+                .body("score", is(12))
+                .body("rank", is(2))
+                .body("above[0].username", is("alice"))
+                .body("below[0].username", is("charlie"));
+    }
+
+    @Test
+    void shouldReturnStandingOfPlayerNamedAfterStreamPath() {
+        when(leaderboardService.getPlayerStanding("stream", LeaderboardService.DEFAULT_NEIGHBOURS))
+                .thenReturn(new PlayerStanding("stream", 3, 1, List.of(), List.of()));
+
+        given()
+                .when().get("/api/leaderboard/players/stream")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("username", is("stream"))
+                .body("score", is(3));
+    }
 }
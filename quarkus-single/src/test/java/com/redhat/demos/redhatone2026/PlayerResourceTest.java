@@ -0,0 +1,55 @@
+package com.redhat.demos.redhatone2026;
+
+import com.redhat.demos.redhatone2026.model.Player;
+import com.redhat.demos.redhatone2026.model.PlayerRegistration;
+import com.redhat.demos.redhatone2026.repository.PlayerRepository;
+import com.redhat.demos.redhatone2026.service.PlayerService;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PlayerResourceTest {
+
+    @Test
+    void shouldThrowExceptionWhenServiceIsNull() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new PlayerResource(null)
+        );
+
+        assertEquals("PlayerService cannot be null", exception.getMessage());
+    }
+
+    @Test
+    void shouldReturnHttp200WithPlayerId() {
+        PlayerResource resource = new PlayerResource(new PlayerService(new PlayerRepository()));
+
+        Response response = resource.join(new PlayerRegistration("alice"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(new Player(0, "alice"), response.getEntity());
+    }
+
+    @Test
+    void shouldReturnHttp400ForMissingUsername() {
+        PlayerResource resource = new PlayerResource(new PlayerService(new PlayerRepository()));
+
+        Response response = resource.join(null);
+
+        assertEquals(400, response.getStatus());
+        assertEquals("Invalid username", response.getEntity());
+    }
+
+    @Test
+    void shouldReturnHttp500OnUnexpectedException() {
+        PlayerService mockService = mock(PlayerService.class);
+        when(mockService.join("alice")).thenThrow(new RuntimeException("boom"));
+        PlayerResource resource = new PlayerResource(mockService);
+
+        Response response = resource.join(new PlayerRegistration("alice"));
+
+        assertEquals(500, response.getStatus());
+    }
+}
@@ -1,17 +1,36 @@
 package com.redhat.demos.redhatone2026;
 
+import com.redhat.demos.redhatone2026.model.Difficulty;
+import com.redhat.demos.redhatone2026.model.Question;
 import com.redhat.demos.redhatone2026.model.TriviaQuestion;
+import com.redhat.demos.redhatone2026.repository.QuestionRepository;
+import com.redhat.demos.redhatone2026.service.AnswerDistributionBroadcaster;
+import com.redhat.demos.redhatone2026.service.PlayerService;
+import com.redhat.demos.redhatone2026.service.QuestionService;
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
 import io.restassured.response.Response;
+import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @QuarkusTest
 class QuestionResourceTest {
 
+    @Inject
+    QuestionRepository questionRepository;
+
     @Test
     void shouldReturnRandomQuestionWithValidJsonStructure() {
         Response response = given()
@@ -82,4 +101,178 @@ class QuestionResourceTest {
         assertFalse(jsonResponse.contains("isCorrect"),
             "Response should not contain 'isCorrect' field");
     }
+
+    @Test
+    void shouldServeEveryQuestionOnceToPlayerBeforeRepeating() {
+        int playerId = given()
+            .contentType(ContentType.JSON)
+            .body("{\"username\":\"deck-player\"}")
+            .when().post("/api/players")
+            .then()
+            .statusCode(200)
+            .extract().path("playerId");
+        int questionCount = questionRepository.count();
+
+        Set<String> served = new HashSet<>();
+        for (int i = 0; i < questionCount; i++) {
+            served.add(given()
+                .queryParam("playerId", playerId)
+                .when().get("/api/questions/random")
+                .then()
+                .statusCode(200)
+                .extract().path("id"));
+        }
+
+        assertEquals(questionCount, served.size());
+    }
+
+    @Test
+    void shouldRejectUnknownPlayerId() {
+        given()
+            .queryParam("playerId", 999_999)
+            .when().get("/api/questions/random")
+            .then()
+            .statusCode(400);
+    }
+
+    @Test
+    void shouldServeOnlyQuestionsMatchingCategoryAndDifficulty() {
+        Set<String> expected = new HashSet<>();
+        for (Question question : questionRepository.findAll()) {
+            if ("landmarks".equals(question.category()) && question.difficulty() == Difficulty.EASY) {
+                expected.add(question.id().toString());
+            }
+        }
+        assertFalse(expected.isEmpty());
+
+        for (int i = 0; i < 20; i++) {
+            String id = given()
+                .queryParam("category", "Landmarks")
+                .queryParam("difficulty", "easy")
+                .when().get("/api/questions/random")
+                .then()
+                .statusCode(200)
+                .extract().path("id");
+            assertTrue(expected.contains(id), "Unexpected question " + id);
+        }
+    }
+
+    @Test
+    void shouldRejectUnknownDifficultyAndFindNothingForUnknownCategory() {
+        given()
+            .queryParam("difficulty", "impossible")
+            .when().get("/api/questions/random")
+            .then()
+            .statusCode(400);
+
+        given()
+            .queryParam("category", "no-such-category")
+            .when().get("/api/questions/random")
+            .then()
+            .statusCode(404);
+    }
+
+    @Test
+    void shouldPrefetchDistinctQuestionsForPlayerWithoutAnswerKeys() {
+        int playerId = given()
+            .contentType(ContentType.JSON)
+            .body("{\"username\":\"prefetch-player\"}")
+            .when().post("/api/players")
+            .then()
+            .statusCode(200)
+            .extract().path("playerId");
+
+        List<Map<String, Object>> questions = given()
+            .queryParam("playerId", playerId)
+            .queryParam("count", 5)
+            .when().get("/api/questions/next")
+            .then()
+            .statusCode(200)
+            .contentType(ContentType.JSON)
+            .extract().jsonPath().getList("$");
+
+        assertEquals(5, questions.size());
+        Set<Object> ids = new HashSet<>();
+        for (Map<String, Object> question : questions) {
+            ids.add(question.get("id"));
+            assertNotNull(question.get("option1"));
+            assertFalse(question.containsKey("optionalAnswers"));
+            assertFalse(question.containsKey("correctAnswer"));
+        }
+        assertEquals(5, ids.size());
+    }
+
+    @Test
+    void shouldRejectPrefetchWithoutKnownPlayerOrWithInvalidCount() {
+        given()
+            .when().get("/api/questions/next")
+            .then()
+            .statusCode(400);
+
+        given()
+            .queryParam("playerId", 999_999)
+            .when().get("/api/questions/next")
+            .then()
+            .statusCode(400);
+
+        int playerId = given()
+            .contentType(ContentType.JSON)
+            .body("{\"username\":\"prefetch-count\"}")
+            .when().post("/api/players")
+            .then()
+            .statusCode(200)
+            .extract().path("playerId");
+        for (int count : new int[] {0, QuestionService.MAX_PREFETCH_SIZE + 1}) {
+            given()
+                .queryParam("playerId", playerId)
+                .queryParam("count", count)
+                .when().get("/api/questions/next")
+                .then()
+                .statusCode(400)
+                .body(is("Invalid count"));
+        }
+    }
+
+    @Test
+    void shouldReloadQuestionsKeepingTheirIndexes() {
+        int indexBefore = questionRepository.indexOf(questionRepository.findAll().get(0).id());
+
+        given()
+            .header(QuestionResource.RELOAD_KEY_HEADER, "test-reload-key")
+            .when().post("/api/questions/reload")
+            .then()
+            .statusCode(200)
+            .body("questions", is(questionRepository.findAll().size()));
+
+        assertEquals(indexBefore, questionRepository.indexOf(questionRepository.findAll().get(0).id()));
+    }
+
+    @Test
+    void shouldRejectReloadWithoutTheReloadKey() {
+        given()
+            .when().post("/api/questions/reload")
+            .then()
+            .statusCode(403)
+            .body(is("Invalid reload key"));
+
+        given()
+            .header(QuestionResource.RELOAD_KEY_HEADER, "wrong-key")
+            .when().post("/api/questions/reload")
+            .then()
+            .statusCode(403)
+            .body(is("Invalid reload key"));
+    }
+
+    @Test
+    void shouldDisableReloadWhenNoReloadKeyIsConfigured() {
+        QuestionService questionService = mock(QuestionService.class);
+        QuestionResource resource = new QuestionResource(questionService, mock(PlayerService.class),
+            mock(AnswerDistributionBroadcaster.class), Optional.empty());
+
+        jakarta.ws.rs.core.Response response = resource.reload("test-reload-key");
+
+        assertEquals(403, response.getStatus());
+        assertEquals("Reload is disabled", response.getEntity());
+        verifyNoInteractions(questionService);
+    }
 }
@@ -0,0 +1,62 @@
+package com.redhat.demos.redhatone2026;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestExecutorTest {
+
+    @Test
+    void shouldRejectNullMode() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new RequestExecutor(null, Runnable::run)
+        );
+
+        assertEquals("Mode cannot be null", exception.getMessage());
+    }
+
+    @Test
+    void shouldRequireExecutorOutsideEventLoopMode() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new RequestExecutor(RequestExecutor.Mode.VIRTUAL_THREADS, null)
+        );
+
+        assertEquals("Executor cannot be null", exception.getMessage());
+    }
+
+    @Test
+    void shouldRunInlineInEventLoopMode() {
+        RequestExecutor executor = new RequestExecutor(RequestExecutor.Mode.EVENT_LOOP, null);
+        Thread caller = Thread.currentThread();
+
+        Thread worker = executor.run(Thread::currentThread).await().indefinitely();
+
+        assertSame(caller, worker);
+    }
+
+    @Test
+    void shouldRunOnVirtualThreadInVirtualThreadMode() {
+        try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            RequestExecutor executor = new RequestExecutor(RequestExecutor.Mode.VIRTUAL_THREADS, virtualThreads);
+
+            Thread worker = executor.run(Thread::currentThread).await().indefinitely();
+
+            assertTrue(worker.isVirtual());
+            assertEquals(RequestExecutor.Mode.VIRTUAL_THREADS, executor.getMode());
+        }
+    }
+
+    @Test
+    void shouldPropagateFailures() {
+        RequestExecutor executor = new RequestExecutor(RequestExecutor.Mode.EVENT_LOOP, null);
+
+        assertThrows(IllegalStateException.class, () -> executor.run(() -> {
+            throw new IllegalStateException("boom");
+        }).await().indefinitely());
+    }
+}
@@ -1,15 +1,21 @@
 package com.redhat.demos.redhatone2026.integration;
 
+import com.redhat.demos.redhatone2026.model.Answer;
 import com.redhat.demos.redhatone2026.model.AnswerSubmission;
+import com.redhat.demos.redhatone2026.repository.QuestionRepository;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.Matchers.anyOf;
 
 /**
@@ -19,6 +25,9 @@ import static org.hamcrest.Matchers.anyOf;
 @QuarkusTest
 class AnswerSubmissionIntegrationTest {
 
+    @Inject
+    QuestionRepository questionRepository;
+
     @Test
     void shouldSubmitCorrectAnswerAndReturnValidResponse() {
         // First get a random question to get a valid question ID
@@ -47,6 +56,129 @@ class AnswerSubmissionIntegrationTest {
             ));
     }
 
+    @Test
+    void shouldJoinAndSubmitAnswerWithPlayerId() {
+        UUID questionId = UUID.fromString(given()
+            .when().get("/api/questions/random")
+            .then()
+            .statusCode(200)
+            .extract().path("id"));
+
+        int playerId = given()
+            .contentType(ContentType.JSON)
+            .body("{\"username\":\"joiner\"}")
+            .when().post("/api/players")
+            .then()
+            .statusCode(200)
+            .body("username", is("joiner"))
+            .extract().path("playerId");
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(new AnswerSubmission(null, questionId, "A", playerId))
+            .when().post("/api/answers")
+            .then()
+            .statusCode(200)
+            .body("correctAnswer", notNullValue());
+    }
+
+    @Test
+    void shouldCheckAnswerInTheOrderItWasShown() {
+        Map<String, String> question = given()
+            .when().get("/api/questions/random")
+            .then()
+            .statusCode(200)
+            .body("token", notNullValue())
+            .extract().jsonPath().getMap("$");
+        UUID questionId = UUID.fromString(question.get("id"));
+        String correctText = questionRepository.findById(questionId).orElseThrow().optionalAnswers().stream()
+            .filter(Answer::isCorrect).findFirst().orElseThrow().text();
+        List<String> options = List.of(question.get("option1"), question.get("option2"), question.get("option3"),
+            question.get("option4"));
+        String correctLetter = QuestionRepository.ANSWER_LETTERS.get(options.indexOf(correctText));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(new AnswerSubmission("shuffled-player", questionId, correctLetter, null, question.get("token")))
+            .when().post("/api/answers")
+            .then()
+            .statusCode(200)
+            .body("isCorrect", is(true))
+            .body("correctAnswer", is(correctLetter));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(new AnswerSubmission("shuffled-player", questionId, correctLetter, null,
+                question.get("token").substring(1) + "A"))
+            .when().post("/api/answers")
+            .then()
+            .statusCode(400)
+            .body(is("Invalid token"));
+    }
+
+    @Test
+    void shouldCountSubmittedAnswerInDistributionByTheAnswerChosen() {
+        Map<String, String> question = given()
+            .when().get("/api/questions/random")
+            .then()
+            .statusCode(200)
+            .extract().jsonPath().getMap("$");
+        UUID questionId = UUID.fromString(question.get("id"));
+        List<String> options = List.of(question.get("option1"), question.get("option2"), question.get("option3"),
+            question.get("option4"));
+        List<Answer> answers = questionRepository.findById(questionId).orElseThrow().optionalAnswers();
+        int storedPosition = answers.indexOf(answers.stream()
+            .filter(answer -> answer.text().equals(options.get(3))).findFirst().orElseThrow());
+        String countPath = "answers[" + storedPosition + "].count";
+        int countBefore = given()
+            .when().get("/api/questions/" + questionId + "/answers")
+            .then()
+            .statusCode(200)
+            .body("questionId", is(questionId.toString()))
+            .body("answers.size()", is(4))
+            .body("answers[" + storedPosition + "].text", is(options.get(3)))
+            .body("answers[0].isCorrect", nullValue())
+            .extract().path(countPath);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(new AnswerSubmission("distribution-player", questionId, "D", null, question.get("token")))
+            .when().post("/api/answers")
+            .then()
+            .statusCode(200);
+
+        given()
+            .when().get("/api/questions/" + questionId + "/answers")
+            .then()
+            .statusCode(200)
+            .body(countPath, is(countBefore + 1));
+    }
+
+    @Test
+    void shouldNotFindDistributionForUnknownQuestion() {
+        given()
+            .when().get("/api/questions/" + UUID.randomUUID() + "/answers")
+            .then()
+            .statusCode(404)
+            .body(is("Question not found"));
+
+        given()
+            .when().get("/api/questions/" + UUID.randomUUID() + "/answers/stream")
+            .then()
+            .statusCode(404);
+    }
+
+    @Test
+    void shouldRejectUnknownPlayerId() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(new AnswerSubmission(null, UUID.randomUUID(), "A", Integer.MAX_VALUE))
+            .when().post("/api/answers")
+            .then()
+            .statusCode(400)
+            .body(is("Invalid playerId"));
+    }
+
     @Test
     void shouldRejectInvalidUsername() {
         UUID questionId = UUID.randomUUID();
@@ -208,4 +340,41 @@ class AnswerSubmissionIntegrationTest {
             .then()
             .statusCode(anyOf(is(200), is(404)));
     }
+
+    @Test
+    void shouldSubmitBatchAndReturnResultsInOrder() {
+        UUID questionId = UUID.fromString(given()
+            .when().get("/api/questions/random")
+            .then()
+            .statusCode(200)
+            .extract().path("id"));
+
+        List<AnswerSubmission> submissions = List.of(
+            new AnswerSubmission("batchuser", questionId, "A"),
+            new AnswerSubmission("batchuser", UUID.randomUUID(), "A"),
+            new AnswerSubmission("batchuser", questionId, "E"));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(submissions)
+            .when().post("/api/answers/batch")
+            .then()
+            .statusCode(200)
+            .body("size()", is(3))
+            .body("[0].correctAnswer", notNullValue())
+            .body("[0].error", nullValue())
+            .body("[1].error", is("Question not found"))
+            .body("[2].error", is("Invalid answer selection"));
+    }
+
+    @Test
+    void shouldRejectEmptyBatch() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("[]")
+            .when().post("/api/answers/batch")
+            .then()
+            .statusCode(400)
+            .body(is("Invalid batch"));
+    }
 }
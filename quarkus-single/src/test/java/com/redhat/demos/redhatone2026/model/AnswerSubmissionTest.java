@@ -25,6 +25,18 @@ class AnswerSubmissionTest {
         assertEquals("testuser", submission.username());
         assertEquals(questionId, submission.questionId());
         assertEquals("A", submission.selectedAnswer());
+        assertNull(submission.playerId());
+    }
+
+    @Test
+    void shouldDeserializePlayerIdFromJson() throws JsonProcessingException {
+        String json = "{\"playerId\":7,\"questionId\":\"550e8400-e29b-41d4-a716-446655440000\",\"selectedAnswer\":\"C\"}";
+
+        AnswerSubmission submission = objectMapper.readValue(json, AnswerSubmission.class);
+
+        assertEquals(7, submission.playerId());
+        assertNull(submission.username());
+        assertEquals("C", submission.selectedAnswer());
     }
 
     @Test
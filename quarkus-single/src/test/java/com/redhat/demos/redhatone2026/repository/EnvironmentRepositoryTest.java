@@ -5,6 +5,7 @@ import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -55,4 +56,16 @@ class EnvironmentRepositoryTest {
         assertTrue(message.length() > 10,
             "Message should be reasonably descriptive (more than 10 characters)");
     }
+
+    @Test
+    void shouldPickRandomIndexWithinAllMessages() {
+        List<String> messages = environmentRepository.getAllMessages();
+
+        assertEquals(4, messages.size());
+        for (int i = 0; i < 50; i++) {
+            int index = environmentRepository.getRandomMessageIndex();
+            assertTrue(index >= 0 && index < messages.size(), "Index out of range: " + index);
+        }
+        assertTrue(messages.contains(environmentRepository.getRandomMessage()));
+    }
 }
@@ -0,0 +1,171 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private QuestionRepository questions;
+    private PlayerRepository players;
+    private LeaderboardRepository leaderboard;
+    private LeaderboardJournal journal;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        questions = new QuestionRepository();
+        questions.init();
+        players = new PlayerRepository();
+        leaderboard = new LeaderboardRepository(players);
+        journal = startJournal(players, leaderboard);
+    }
+
+    @Test
+    void shouldRestoreRegistrationsAndAnswersFromTheLog() throws Exception {
+        int alice = players.register("alice");
+        int bob = players.register("bob");
+        leaderboard.recordAnswer(alice, 0, true);
+        leaderboard.recordAnswer(alice, 1, true);
+        leaderboard.recordAnswer(bob, 1, true);
+        leaderboard.recordAnswer(bob, 2, false);
+        journal.flush();
+
+        PlayerRepository restoredPlayers = new PlayerRepository();
+        LeaderboardRepository restored = recover(restoredPlayers);
+
+        assertEquals(alice, restoredPlayers.findId("alice"));
+        assertEquals(bob, restoredPlayers.findId("bob"));
+        assertEquals(2, restored.getScore(alice));
+        assertEquals(1, restored.getScore(bob));
+        assertEquals(leaderboard.getRankedEntries(), restored.getRankedEntries());
+    }
+
+    @Test
+    void shouldRestoreFromSnapshotAndLogTail() throws Exception {
+        int alice = players.register("alice");
+        leaderboard.recordAnswer(alice, 0, true);
+        journal.snapshot();
+        int bob = players.register("bob");
+        leaderboard.recordAnswer(bob, 0, true);
+        leaderboard.recordAnswer(alice, 1, true);
+        journal.flush();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(path -> path.toString().endsWith(".bin")).count());
+        }
+
+        PlayerRepository restoredPlayers = new PlayerRepository();
+        LeaderboardRepository restored = recover(restoredPlayers);
+
+        assertEquals(2, restored.getScore(alice));
+        assertEquals(1, restored.getScore(bob));
+        assertEquals(leaderboard.getRankedEntries(), restored.getRankedEntries());
+        assertEquals(2, restoredPlayers.register("carol"));
+    }
+
+    @Test
+    void shouldRestoreUsernamesLongerThanSixteenBitLengthsFromLogAndSnapshot() throws Exception {
+        // Longer than 65,535 UTF-8 bytes, the most a short length or writeUTF can describe
+        String oversized = "\u00e9".repeat(40_000);
+        int alice = players.register(oversized);
+        leaderboard.recordAnswer(alice, 0, true);
+        int bob = players.register("bob");
+        leaderboard.recordAnswer(bob, 0, true);
+        journal.flush();
+
+        PlayerRepository replayedPlayers = new PlayerRepository();
+        LeaderboardRepository replayed = recover(replayedPlayers);
+        assertEquals(alice, replayedPlayers.findId(oversized));
+        assertEquals(bob, replayedPlayers.findId("bob"));
+        assertEquals(1, replayed.getScore(bob));
+
+        journal.snapshot();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.filter(path -> path.toString().endsWith(".bin")).count());
+        }
+        PlayerRepository restoredPlayers = new PlayerRepository();
+        LeaderboardRepository restored = recover(restoredPlayers);
+        assertEquals(alice, restoredPlayers.findId(oversized));
+        assertEquals(leaderboard.getRankedEntries(), restored.getRankedEntries());
+    }
+
+    @Test
+    void shouldContinueJournalingAfterRecovery() throws Exception {
+        int alice = players.register("alice");
+        leaderboard.recordAnswer(alice, 0, true);
+        journal.close();
+
+        PlayerRepository restartedPlayers = new PlayerRepository();
+        LeaderboardRepository restarted = new LeaderboardRepository(restartedPlayers);
+        LeaderboardJournal restartedJournal = startJournal(restartedPlayers, restarted);
+        restarted.recordAnswer(restartedPlayers.register("bob"), 0, true);
+        restarted.recordAnswer(alice, 1, true);
+        restartedJournal.close();
+
+        PlayerRepository restoredPlayers = new PlayerRepository();
+        LeaderboardRepository restored = recover(restoredPlayers);
+
+        assertEquals(2, restored.getScore(alice));
+        assertEquals(1, restored.getScore(restoredPlayers.findId("bob")));
+    }
+
+    @Test
+    void shouldRecoverOneMillionAnswers() throws Exception {
+        int answersPerPlayer = questions.count();
+        int playerCount = 1_000_000 / answersPerPlayer + 1;
+        for (int i = 0; i < playerCount; i++) {
+            int playerId = players.register("player-" + i);
+            for (int question = 0; question < answersPerPlayer; question++) {
+                // Append directly rather than through recordAnswer to keep debug logging out of the setup
+                journal.correctAnswerRecorded(playerId, question);
+            }
+        }
+        journal.flush();
+
+        PlayerRepository restoredPlayers = new PlayerRepository();
+        LeaderboardRepository restored = recover(restoredPlayers);
+
+        assertEquals(playerCount, restoredPlayers.count());
+        assertEquals(answersPerPlayer, restored.getScore(playerCount - 1));
+        assertEquals(playerCount, restored.getRankedEntries().size());
+    }
+
+    @Test
+    void shouldRejectNullDependencies() {
+        assertThrows(IllegalArgumentException.class, () ->
+            new LeaderboardJournal(null, leaderboard, questions, true, directory.toString(),
+                Duration.ofMillis(10), Duration.ofSeconds(60)));
+        assertThrows(IllegalArgumentException.class, () ->
+            new LeaderboardJournal(players, null, questions, true, directory.toString(),
+                Duration.ofMillis(10), Duration.ofSeconds(60)));
+        assertThrows(IllegalArgumentException.class, () ->
+            new LeaderboardJournal(players, leaderboard, null, true, directory.toString(),
+                Duration.ofMillis(10), Duration.ofSeconds(60)));
+    }
+
+    private LeaderboardJournal startJournal(PlayerRepository playerRepository,
+                                            LeaderboardRepository leaderboardRepository) throws Exception {
+        LeaderboardJournal started = new LeaderboardJournal(playerRepository, leaderboardRepository, questions, true,
+            directory.toString(), Duration.ofMillis(10), Duration.ofHours(1));
+        started.recover();
+        started.start();
+        return started;
+    }
+
+    private LeaderboardRepository recover(PlayerRepository playerRepository) throws Exception {
+        LeaderboardRepository leaderboardRepository = new LeaderboardRepository(playerRepository);
+        new LeaderboardJournal(playerRepository, leaderboardRepository, questions, true,
+            directory.toString(), Duration.ofMillis(10), Duration.ofHours(1)).recover();
+        return leaderboardRepository;
+    }
+}
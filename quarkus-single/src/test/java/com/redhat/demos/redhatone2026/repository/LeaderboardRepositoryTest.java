@@ -1,102 +1,168 @@
 package com.redhat.demos.redhatone2026.repository;
 
+import com.redhat.demos.redhatone2026.model.LeaderboardEntry;
+import com.redhat.demos.redhatone2026.model.PlayerStanding;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.UUID;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class LeaderboardRepositoryTest {
 
+    /**
+     * Leaderboard state per player, including the ranking index, measures about 100 bytes with ten correct
+     * answers on JDK 21 with compressed oops; a HashSet of UUIDs alone took about 770 bytes for ten answers.
+     */
+    private static final int ANSWERS_PER_MEASURED_PLAYER = 10;
+    private static final long MAX_BYTES_PER_PLAYER = 256;
+
+    private PlayerRepository players;
     private LeaderboardRepository repository;
+    private int questionCount;
 
     @BeforeEach
     void setUp() {
-        repository = new LeaderboardRepository();
+        players = new PlayerRepository();
+        repository = new LeaderboardRepository(players);
     }
 
     @Test
     void shouldIncrementScoreOnFirstCorrectAnswer() {
-        UUID questionId = UUID.randomUUID();
+        int questionIndex = nextQuestion();
+
+        repository.recordAnswer(id("user1"), questionIndex, true);
+
+        assertEquals(1, repository.getScore(id("user1")));
+    }
+
+    @Test
+    void shouldAdvanceVersionOnlyWhenScoreChanges() {
+        int questionIndex = nextQuestion();
+        long initialVersion = repository.getVersion();
+
+        repository.recordAnswer(id("testuser"), questionIndex, false);
+        assertEquals(initialVersion, repository.getVersion());
+
+        repository.recordAnswer(id("testuser"), questionIndex, true);
+        long versionAfterScore = repository.getVersion();
+        assertTrue(versionAfterScore > initialVersion);
+
+        repository.recordAnswer(id("testuser"), questionIndex, true);
+        assertEquals(versionAfterScore, repository.getVersion());
+    }
+
+    @Test
+    void shouldTrackQuestionsBeyondFirstBitsetWord() {
+        repository.recordAnswer(id("user1"), 3, true);
+        repository.recordAnswer(id("user1"), 64, true);
+        repository.recordAnswer(id("user1"), 200, true);
+        repository.recordAnswer(id("user1"), 200, true);
+
+        assertEquals(3, repository.getScore(id("user1")));
+    }
 
-        repository.recordAnswer("user1", questionId, true);
+    @Test
+    void shouldRejectUnknownPlayerId() {
+        assertThrows(IllegalArgumentException.class, () -> repository.recordAnswer(99, nextQuestion(), true));
+    }
 
-        assertEquals(1, repository.getScore("user1"));
+    @Test
+    void shouldTrackPlayersBeyondInitialCapacity() {
+        for (int i = 0; i < 3000; i++) {
+            repository.recordAnswer(id("player" + i), 0, true);
+        }
+
+        assertEquals(3000, repository.getAllScores().size());
+        assertEquals(1, repository.getScore(id("player2999")));
+        assertEquals(1, repository.getStanding("player2999", 0).rank());
+    }
+
+    @Test
+    void shouldRejectNegativeQuestionIndex() {
+        assertThrows(IllegalArgumentException.class, () -> repository.recordAnswer(id("user1"), -1, true));
     }
 
     @Test
     void shouldNotIncrementScoreOnDuplicateCorrectAnswer() {
-        UUID questionId = UUID.randomUUID();
+        int questionIndex = nextQuestion();
 
-        repository.recordAnswer("user1", questionId, true);
-        repository.recordAnswer("user1", questionId, true);
+        repository.recordAnswer(id("user1"), questionIndex, true);
+        repository.recordAnswer(id("user1"), questionIndex, true);
 
-        assertEquals(1, repository.getScore("user1"));
+        assertEquals(1, repository.getScore(id("user1")));
     }
 
     @Test
     void shouldNotIncrementScoreOnIncorrectAnswer() {
-        UUID questionId = UUID.randomUUID();
+        int questionIndex = nextQuestion();
 
-        repository.recordAnswer("user1", questionId, false);
+        repository.recordAnswer(id("user1"), questionIndex, false);
 
-        assertEquals(0, repository.getScore("user1"));
+        assertEquals(0, repository.getScore(id("user1")));
     }
 
     @Test
     void shouldTrackMultipleUsersIndependently() {
-        UUID question1 = UUID.randomUUID();
-        UUID question2 = UUID.randomUUID();
+        int question1 = nextQuestion();
+        int question2 = nextQuestion();
 
-        repository.recordAnswer("user1", question1, true);
-        repository.recordAnswer("user2", question2, true);
-        repository.recordAnswer("user1", question2, true);
+        repository.recordAnswer(id("user1"), question1, true);
+        repository.recordAnswer(id("user2"), question2, true);
+        repository.recordAnswer(id("user1"), question2, true);
 
-        assertEquals(2, repository.getScore("user1"));
-        assertEquals(1, repository.getScore("user2"));
+        assertEquals(2, repository.getScore(id("user1")));
+        assertEquals(1, repository.getScore(id("user2")));
     }
 
     @Test
     void shouldIncrementScoreForMultipleCorrectAnswersToDistinctQuestions() {
-        UUID question1 = UUID.randomUUID();
-        UUID question2 = UUID.randomUUID();
-        UUID question3 = UUID.randomUUID();
+        int question1 = nextQuestion();
+        int question2 = nextQuestion();
+        int question3 = nextQuestion();
 
-        repository.recordAnswer("user1", question1, true);
-        repository.recordAnswer("user1", question2, true);
-        repository.recordAnswer("user1", question3, true);
+        repository.recordAnswer(id("user1"), question1, true);
+        repository.recordAnswer(id("user1"), question2, true);
+        repository.recordAnswer(id("user1"), question3, true);
 
-        assertEquals(3, repository.getScore("user1"));
+        assertEquals(3, repository.getScore(id("user1")));
     }
 
     @Test
     void shouldReturnZeroForUserWithNoCorrectAnswers() {
-        assertEquals(0, repository.getScore("newuser"));
+        assertEquals(0, repository.getScore(id("newuser")));
     }
 
     @Test
     void shouldHandleMixOfCorrectAndIncorrectAnswers() {
-        UUID question1 = UUID.randomUUID();
-        UUID question2 = UUID.randomUUID();
-        UUID question3 = UUID.randomUUID();
+        int question1 = nextQuestion();
+        int question2 = nextQuestion();
+        int question3 = nextQuestion();
 
-        repository.recordAnswer("user1", question1, true);
-        repository.recordAnswer("user1", question2, false);
-        repository.recordAnswer("user1", question3, true);
-        repository.recordAnswer("user1", question1, true); // duplicate
+        repository.recordAnswer(id("user1"), question1, true);
+        repository.recordAnswer(id("user1"), question2, false);
+        repository.recordAnswer(id("user1"), question3, true);
+        repository.recordAnswer(id("user1"), question1, true); // duplicate
 
-        assertEquals(2, repository.getScore("user1"));
+        assertEquals(2, repository.getScore(id("user1")));
     }
 
     @Test
     void shouldReturnAllScores() {
-        UUID question1 = UUID.randomUUID();
-        UUID question2 = UUID.randomUUID();
+        int question1 = nextQuestion();
+        int question2 = nextQuestion();
 
-        repository.recordAnswer("user1", question1, true);
-        repository.recordAnswer("user2", question2, true);
+        repository.recordAnswer(id("user1"), question1, true);
+        repository.recordAnswer(id("user2"), question2, true);
 
         var allScores = repository.getAllScores();
 
@@ -107,37 +173,51 @@ class LeaderboardRepositoryTest {
 
     @Test
     void shouldReturnQuestionsAnsweredCorrectlyForNewUser() {
-        int count = repository.getQuestionsAnsweredCorrectly("newuser");
+        int count = repository.getQuestionsAnsweredCorrectly(id("newuser"));
         assertEquals(0, count);
     }
 
     @Test
     void shouldReturnQuestionsAnsweredCorrectlyAfterCorrectAnswers() {
-        UUID questionId1 = UUID.randomUUID();
-        UUID questionId2 = UUID.randomUUID();
+        int questionId1 = nextQuestion();
+        int questionId2 = nextQuestion();
 
-        repository.recordAnswer("alice", questionId1, true);
-        repository.recordAnswer("alice", questionId2, true);
+        repository.recordAnswer(id("alice"), questionId1, true);
+        repository.recordAnswer(id("alice"), questionId2, true);
 
-        int count = repository.getQuestionsAnsweredCorrectly("alice");
+        int count = repository.getQuestionsAnsweredCorrectly(id("alice"));
         assertEquals(2, count);
     }
 
     @Test
     void shouldNotCountDuplicateQuestionsAnsweredCorrectly() {
-        UUID questionId = UUID.randomUUID();
+        int questionIndex = nextQuestion();
 
-        repository.recordAnswer("bob", questionId, true);
-        repository.recordAnswer("bob", questionId, true);
+        repository.recordAnswer(id("bob"), questionIndex, true);
+        repository.recordAnswer(id("bob"), questionIndex, true);
 
-        int count = repository.getQuestionsAnsweredCorrectly("bob");
+        int count = repository.getQuestionsAnsweredCorrectly(id("bob"));
         assertEquals(1, count);
     }
 
+    @Test
+    void shouldReportOnlyQuestionsAnsweredCorrectly() {
+        int answered = nextQuestion();
+        int missed = nextQuestion();
+
+        repository.recordAnswer(id("dana"), answered, true);
+        repository.recordAnswer(id("dana"), missed, false);
+
+        assertTrue(repository.hasAnsweredCorrectly(id("dana"), answered));
+        assertFalse(repository.hasAnsweredCorrectly(id("dana"), missed));
+        assertFalse(repository.hasAnsweredCorrectly(id("dana"), 100_000));
+        assertFalse(repository.hasAnsweredCorrectly(id("erin"), answered));
+    }
+
     @Test
     void shouldReturnDefensiveCopyOfAllScores() {
-        UUID questionId = UUID.randomUUID();
-        repository.recordAnswer("charlie", questionId, true);
+        int questionIndex = nextQuestion();
+        repository.recordAnswer(id("charlie"), questionIndex, true);
 
         HashMap<String, Integer> scores1 = repository.getAllScores();
         HashMap<String, Integer> scores2 = repository.getAllScores();
@@ -156,4 +236,308 @@ class LeaderboardRepositoryTest {
         HashMap<String, Integer> scores = repository.getAllScores();
         assertTrue(scores.isEmpty());
     }
+
+    @Test
+    void shouldReturnRankedEntriesOrderedByScoreThenUsername() {
+        repository.recordAnswer(id("carol"), nextQuestion(), true);
+        repository.recordAnswer(id("bob"), nextQuestion(), true);
+        repository.recordAnswer(id("bob"), nextQuestion(), true);
+        repository.recordAnswer(id("alice"), nextQuestion(), true);
+
+        List<LeaderboardEntry> entries = repository.getRankedEntries();
+
+        assertEquals(3, entries.size());
+        assertEquals(new LeaderboardEntry("bob", 2, 1, 2), entries.get(0));
+        assertEquals(new LeaderboardEntry("alice", 1, 2, 1), entries.get(1));
+        assertEquals(new LeaderboardEntry("carol", 1, 2, 1), entries.get(2));
+    }
+
+    @Test
+    void shouldKeepSingleRankedEntryPerUserAfterScoreChanges() {
+        int questionIndex = nextQuestion();
+        repository.recordAnswer(id("alice"), questionIndex, true);
+        repository.recordAnswer(id("alice"), questionIndex, true);
+        repository.recordAnswer(id("alice"), nextQuestion(), true);
+        repository.recordAnswer(id("alice"), nextQuestion(), false);
+
+        List<LeaderboardEntry> entries = repository.getRankedEntries();
+
+        assertEquals(1, entries.size());
+        assertEquals(2, entries.get(0).score());
+    }
+
+    @Test
+    void shouldReturnTopEntriesUpToLimit() {
+        repository.recordAnswer(id("alice"), nextQuestion(), true);
+        repository.recordAnswer(id("bob"), nextQuestion(), true);
+        repository.recordAnswer(id("carol"), nextQuestion(), true);
+
+        List<LeaderboardEntry> entries = repository.getTopEntries(2);
+
+        assertEquals(2, entries.size());
+        assertEquals("alice", entries.get(0).username());
+        assertEquals("bob", entries.get(1).username());
+    }
+
+    @Test
+    void shouldReturnEntriesAfterPositionWithRanksSharedAcrossPages() {
+        recordCorrectAnswers("alice", 2);
+        recordCorrectAnswers("bob", 2);
+        recordCorrectAnswers("carol", 1);
+
+        List<LeaderboardEntry> entries = repository.getEntriesAfter(2, "alice", 10);
+
+        assertEquals(2, entries.size());
+        assertEquals(new LeaderboardEntry("bob", 2, 1, 2), entries.get(0));
+        assertEquals(new LeaderboardEntry("carol", 1, 3, 1), entries.get(1));
+    }
+
+    @Test
+    void shouldRankEntriesTheSameWayAsStandings() {
+        recordCorrectAnswers("alice", 3);
+        recordCorrectAnswers("bob", 2);
+        recordCorrectAnswers("carol", 2);
+        recordCorrectAnswers("dave", 1);
+
+        for (LeaderboardEntry entry : repository.getRankedEntries()) {
+            assertEquals(repository.getStanding(entry.username(), 0).rank(), entry.rank(), entry.username());
+        }
+    }
+
+    @Test
+    void shouldReturnStandingWithSharedRankForTiesAndNeighbours() {
+        recordCorrectAnswers("alice", 3);
+        recordCorrectAnswers("bob", 2);
+        recordCorrectAnswers("carol", 2);
+        recordCorrectAnswers("dave", 1);
+
+        PlayerStanding standing = repository.getStanding("carol", 1);
+
+        assertEquals("carol", standing.username());
+        assertEquals(2, standing.score());
+        assertEquals(2, standing.rank());
+        assertEquals(List.of(new LeaderboardEntry("bob", 2, 2, 2)), standing.above());
+        assertEquals(List.of(new LeaderboardEntry("dave", 1, 4, 1)), standing.below());
+    }
+
+    @Test
+    void shouldPlaceUnrankedPlayerAfterEveryRankedPlayer() {
+        recordCorrectAnswers("alice", 2);
+        recordCorrectAnswers("bob", 1);
+
+        PlayerStanding standing = repository.getStanding("newuser", 5);
+
+        assertEquals(0, standing.score());
+        assertEquals(3, standing.rank());
+        assertEquals(2, standing.above().size());
+        assertEquals("alice", standing.above().get(0).username());
+        assertEquals("bob", standing.above().get(1).username());
+        assertTrue(standing.below().isEmpty());
+    }
+
+    @Test
+    void shouldUpdateStandingAsScoresChange() {
+        recordCorrectAnswers("alice", 1);
+        recordCorrectAnswers("bob", 2);
+        assertEquals(2, repository.getStanding("alice", 0).rank());
+
+        recordCorrectAnswers("alice", 2);
+
+        assertEquals(1, repository.getStanding("alice", 0).rank());
+        assertEquals(2, repository.getStanding("bob", 0).rank());
+    }
+
+    @Test
+    void shouldNotifyListenerOnlyWhenScoreChanges() {
+        List<String> recorded = new ArrayList<>();
+        repository.setAnswerListener((playerId, questionIndex) -> recorded.add(playerId + ":" + questionIndex));
+        int alice = id("alice");
+
+        repository.recordAnswer(alice, 4, true);
+        repository.recordAnswer(alice, 4, true);
+        repository.recordAnswer(alice, 5, false);
+
+        assertEquals(List.of(alice + ":4"), recorded);
+    }
+
+    @Test
+    void shouldServeReadsWhileListenerOfBatchIsBlocked() throws Exception {
+        int alice = id("alice");
+        int bob = id("bob");
+        CountDownLatch listenerEntered = new CountDownLatch(1);
+        CountDownLatch releaseListener = new CountDownLatch(1);
+        repository.setAnswerListener((playerId, questionIndex) -> {
+            listenerEntered.countDown();
+            try {
+                releaseListener.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> batch = writer.submit(() ->
+                repository.recordCorrectAnswers(new int[] {alice, bob, alice}, new int[] {0, 0, 1}, 3));
+            assertTrue(listenerEntered.await(5, TimeUnit.SECONDS));
+
+            // The batch is applied and its journal listener is still running, yet no read waits for it
+            PlayerStanding standing = repository.getStanding("bob", 1);
+            assertEquals(2, standing.rank());
+            assertEquals(List.of("alice"), standing.above().stream().map(LeaderboardEntry::username).toList());
+            assertEquals(List.of("alice", "bob"),
+                repository.getTopEntries(10).stream().map(LeaderboardEntry::username).toList());
+            assertEquals(List.of("bob"),
+                repository.getEntriesAfter(2, "alice", 10).stream().map(LeaderboardEntry::username).toList());
+
+            releaseListener.countDown();
+            assertEquals(3, batch.get(5, TimeUnit.SECONDS));
+        } finally {
+            releaseListener.countDown();
+            writer.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRankRestoredAnswersAfterRebuild() {
+        int alice = id("alice");
+        int bob = id("bob");
+        repository.restoreCorrectAnswer(alice, 0);
+        repository.restoreCorrectAnswer(alice, 0);
+        repository.restoreCorrectAnswer(bob, 0);
+        repository.restoreCorrectAnswer(bob, 70);
+        long versionBefore = repository.getVersion();
+
+        repository.rebuildRankings();
+
+        assertEquals(1, repository.getScore(alice));
+        assertEquals(2, repository.getScore(bob));
+        assertEquals(List.of("bob", "alice"),
+            repository.getRankedEntries().stream().map(LeaderboardEntry::username).toList());
+        assertEquals(2, repository.getStanding("alice", 0).rank());
+        assertTrue(repository.getVersion() > versionBefore);
+        assertEquals(2, repository.getCorrectQuestions(bob).length);
+    }
+
+    @Test
+    void shouldKeepPerPlayerStateCompact() {
+        int playerCount = 20_000;
+        int[] playerIds = new int[playerCount];
+        int[] questionIndexes = new int[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            playerIds[i] = players.register("player-" + i);
+        }
+
+        long heapBefore = usedHeap();
+        LeaderboardRepository measured = new LeaderboardRepository(players);
+        for (int answer = 0; answer < ANSWERS_PER_MEASURED_PLAYER; answer++) {
+            // Spread the answers over the bank so each bitset spans more than one word
+            Arrays.fill(questionIndexes, answer * 7);
+            measured.recordCorrectAnswers(playerIds, questionIndexes, playerCount);
+        }
+        long bytesPerPlayer = (usedHeap() - heapBefore) / playerCount;
+
+        assertEquals(ANSWERS_PER_MEASURED_PLAYER, measured.getScore(playerIds[playerCount - 1]));
+        assertTrue(bytesPerPlayer < MAX_BYTES_PER_PLAYER,
+            "Leaderboard state takes " + bytesPerPlayer + " bytes per player");
+    }
+
+    @Test
+    void shouldNotLoseScoresUnderConcurrentSubmissions() throws Exception {
+        int submitters = 2000;
+        int questionsPerSubmitter = 10;
+        List<Integer> questions = new ArrayList<>();
+        for (int i = 0; i < questionsPerSubmitter; i++) {
+            questions.add(nextQuestion());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < submitters; i++) {
+            String username = "player" + i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int questionIndex : questions) {
+                    repository.recordAnswer(id(username), questionIndex, true);
+                    repository.recordAnswer(id(username), questionIndex, true); // duplicate
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        HashMap<String, Integer> allScores = repository.getAllScores();
+        assertEquals(submitters, allScores.size());
+        for (int i = 0; i < submitters; i++) {
+            assertEquals(questionsPerSubmitter, allScores.get("player" + i));
+            assertEquals(questionsPerSubmitter, repository.getQuestionsAnsweredCorrectly(id("player" + i)));
+        }
+    }
+
+    @Test
+    void shouldReturnConsistentSnapshotWhileScoresChange() throws Exception {
+        int writers = 8;
+        int answersPerWriter = 1000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < answersPerWriter; i++) {
+                    int questionIndex = writer * answersPerWriter + i;
+                    repository.recordAnswer(id("user" + (i % 4)), questionIndex, true);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        int previousTotal = 0;
+        while (futures.stream().anyMatch(future -> !future.isDone())) {
+            int total = repository.getAllScores().values().stream().mapToInt(Integer::intValue).sum();
+            assertTrue(total >= previousTotal, "Snapshot totals should never go backwards");
+            previousTotal = total;
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int finalTotal = repository.getAllScores().values().stream().mapToInt(Integer::intValue).sum();
+        assertEquals(writers * answersPerWriter, finalTotal);
+    }
+
+    /**
+     * Returns the heap in use after collecting garbage, for rough measurements over many objects.
+     */
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private int id(String username) {
+        return players.register(username);
+    }
+
+    private int nextQuestion() {
+        return questionCount++;
+    }
+
+    private void recordCorrectAnswers(String username, int count) {
+        for (int i = 0; i < count; i++) {
+            repository.recordAnswer(id(username), nextQuestion(), true);
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import com.redhat.demos.redhatone2026.model.Question;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.redhat.demos.redhatone2026.repository.QuestionBankCompilerTest.compile;
+import static com.redhat.demos.redhatone2026.repository.QuestionBankCompilerTest.question;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedQuestionBankTest {
+
+    @TempDir
+    Path directory;
+
+    private List<Question> questions;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        questions = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            questions.add(question("Question " + i + "?", i % 4));
+        }
+        file = directory.resolve("questions.bin");
+        Files.write(file, compile(questions));
+    }
+
+    @Test
+    void shouldDecodeQuestionsOnAccess() throws Exception {
+        MappedQuestionBank bank = MappedQuestionBank.open(file);
+
+        assertEquals(questions.size(), bank.size());
+        assertEquals(questions, bank.active());
+        for (int index = 0; index < questions.size(); index++) {
+            Question question = questions.get(index);
+            assertEquals(index, bank.indexOf(question.id()));
+            assertEquals(question.id(), bank.idAt(index));
+            assertEquals(Optional.of(question), bank.findByIndex(index));
+            assertEquals(Optional.of(question), bank.findById(question.id()));
+            assertEquals(index % 4, bank.correctAnswer(index));
+            assertEquals(index, bank.activeIndex(index));
+            assertFalse(bank.isRetired(index));
+        }
+    }
+
+    @Test
+    void shouldHandleUnknownIdsAndIndexes() throws Exception {
+        MappedQuestionBank bank = MappedQuestionBank.open(file);
+
+        assertEquals(-1, bank.indexOf(UUID.randomUUID()));
+        assertEquals(-1, bank.indexOf(new UUID(Long.MIN_VALUE, Long.MIN_VALUE)));
+        assertEquals(-1, bank.indexOf(new UUID(Long.MAX_VALUE, Long.MAX_VALUE)));
+        assertEquals(Optional.empty(), bank.findByIndex(-1));
+        assertEquals(Optional.empty(), bank.findByIndex(questions.size()));
+        assertEquals(-1, bank.correctAnswer(questions.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> bank.active().get(questions.size()));
+    }
+
+    @Test
+    void shouldReloadOntoTheHeapKeepingIndexes() throws Exception {
+        MappedQuestionBank bank = MappedQuestionBank.open(file);
+        Question added = question("Added?", 1);
+
+        QuestionBank reloaded = bank.reload(List.of(questions.get(3), added));
+
+        assertInstanceOf(ArrayQuestionBank.class, reloaded);
+        assertEquals(List.of(questions.get(3), added), reloaded.active());
+        assertEquals(questions.size(), reloaded.indexOf(added.id()));
+        bank.requireIndexesKeptBy(reloaded);
+    }
+
+    @Test
+    void shouldRejectBankThatMovesQuestions() throws Exception {
+        MappedQuestionBank bank = MappedQuestionBank.open(file);
+        List<Question> reordered = new ArrayList<>(questions);
+        reordered.add(0, reordered.remove(1));
+        Path moved = directory.resolve("moved.bin");
+        Files.write(moved, compile(reordered));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> bank.requireIndexesKeptBy(MappedQuestionBank.open(moved)));
+    }
+
+    @Test
+    void shouldRecognizeCompiledFiles() throws Exception {
+        Path json = directory.resolve("questions.json");
+        Files.writeString(json, "[]");
+
+        assertTrue(MappedQuestionBank.isCompiled(file));
+        assertFalse(MappedQuestionBank.isCompiled(json));
+    }
+}
@@ -0,0 +1,101 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerRepositoryTest {
+
+    private PlayerRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new PlayerRepository();
+    }
+
+    @Test
+    void shouldIssueDenseIdsInRegistrationOrder() {
+        assertEquals(0, repository.register("alice"));
+        assertEquals(1, repository.register("bob"));
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    void shouldReturnSameIdWhenRegisteringAgain() {
+        int first = repository.register("alice");
+
+        assertEquals(first, repository.register("alice"));
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void shouldLookUpBothDirections() {
+        int playerId = repository.register("alice");
+
+        assertEquals(playerId, repository.findId("alice"));
+        assertEquals("alice", repository.findUsername(playerId));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownPlayers() {
+        repository.register("alice");
+
+        assertEquals(-1, repository.findId("bob"));
+        assertNull(repository.findUsername(1));
+        assertNull(repository.findUsername(-1));
+    }
+
+    @Test
+    void shouldContinueIssuingIdsAfterRestoredPlayers() {
+        repository.restore(3, "dave");
+
+        assertEquals(3, repository.findId("dave"));
+        assertEquals("dave", repository.findUsername(3));
+        assertEquals(4, repository.register("erin"));
+    }
+
+    @Test
+    void shouldNotifyListenerOfNewRegistrationsOnly() {
+        List<String> registered = new ArrayList<>();
+        repository.setRegistrationListener((playerId, username) -> registered.add(playerId + ":" + username));
+
+        repository.register("alice");
+        repository.register("alice");
+        repository.restore(1, "bob");
+
+        assertEquals(List.of("0:alice"), registered);
+    }
+
+    @Test
+    void shouldIssueUniqueIdsUnderConcurrentRegistration() throws Exception {
+        int players = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            String username = "player" + (i % (players / 2));
+            futures.add(executor.submit(() -> repository.register(username)));
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        for (Future<Integer> future : futures) {
+            ids.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertEquals(players / 2, ids.size());
+        assertEquals(players / 2, repository.count());
+        for (int playerId : ids) {
+            assertEquals(playerId, repository.findId(repository.findUsername(playerId)));
+        }
+    }
+}
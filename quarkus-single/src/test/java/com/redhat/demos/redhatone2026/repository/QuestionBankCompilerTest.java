@@ -0,0 +1,158 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.demos.redhatone2026.model.Answer;
+import com.redhat.demos.redhatone2026.model.Difficulty;
+import com.redhat.demos.redhatone2026.model.Question;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionBankCompilerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldCompileBundledQuestionsLosslessly(@TempDir Path directory) throws Exception {
+        Path source = Path.of("src/main/resources/questions.json");
+        Path target = directory.resolve("questions.bin");
+
+        QuestionBankCompiler.main(new String[] {source.toString(), target.toString()});
+
+        List<Question> expected = objectMapper.readValue(source.toFile(),
+            objectMapper.getTypeFactory().constructCollectionType(List.class, Question.class));
+        try (InputStream inputStream = Files.newInputStream(target)) {
+            assertEquals(expected, QuestionBankCompiler.read(inputStream));
+        }
+    }
+
+    @Test
+    void shouldOnlyReadBankCompiledFromTheSameJson(@TempDir Path directory) throws Exception {
+        Path source = directory.resolve("questions.json");
+        Path target = directory.resolve("questions.bin");
+        List<Question> questions = List.of(question("Original?", 0));
+        objectMapper.writeValue(source.toFile(), questions);
+        QuestionBankCompiler.main(new String[] {source.toString(), target.toString()});
+
+        byte[] json = Files.readAllBytes(source);
+        byte[] edited = objectMapper.writeValueAsBytes(List.of(question("Edited?", 1)));
+        try (InputStream inputStream = Files.newInputStream(target)) {
+            assertEquals(questions, QuestionBankCompiler.readIfCompiledFrom(inputStream, json).orElseThrow());
+        }
+        try (InputStream inputStream = Files.newInputStream(target)) {
+            assertTrue(QuestionBankCompiler.readIfCompiledFrom(inputStream, edited).isEmpty());
+        }
+        // A bank not compiled from a file matches no JSON
+        assertTrue(QuestionBankCompiler.readIfCompiledFrom(new ByteArrayInputStream(compile(questions)), json)
+            .isEmpty());
+    }
+
+    @Test
+    void shouldRoundTripQuestions() throws Exception {
+        Question plain = question("Plain?", 0);
+        List<Question> questions = List.of(
+            plain,
+            question("Ünïcödé — “quoted” 🚀?", 3),
+            new Question(UUID.randomUUID(), "Classified?", plain.optionalAnswers(), "history", Difficulty.HARD));
+
+        assertEquals(questions, QuestionBankCompiler.read(new ByteArrayInputStream(compile(questions))));
+    }
+
+    @Test
+    void shouldStoreRepeatedTextsOnce() throws Exception {
+        String shared = "A long answer text that many questions share ".repeat(10);
+        List<Question> questions = List.of(
+            new Question(UUID.randomUUID(), shared, List.of(
+                new Answer(UUID.randomUUID(), shared, true),
+                new Answer(UUID.randomUUID(), shared, false),
+                new Answer(UUID.randomUUID(), shared, false),
+                new Answer(UUID.randomUUID(), shared, false))),
+            new Question(UUID.randomUUID(), shared, List.of(
+                new Answer(UUID.randomUUID(), shared, false),
+                new Answer(UUID.randomUUID(), shared, true),
+                new Answer(UUID.randomUUID(), shared, false),
+                new Answer(UUID.randomUUID(), shared, false))));
+
+        byte[] compiled = compile(questions);
+
+        assertTrue(compiled.length < 2 * shared.length(), "Compiled size " + compiled.length);
+        assertEquals(questions, QuestionBankCompiler.read(new ByteArrayInputStream(compiled)));
+    }
+
+    @Test
+    void shouldKeepIndexesOfCurrentBank(@TempDir Path directory) throws Exception {
+        Question first = question("First?", 0);
+        Question second = question("Second?", 1);
+        Question third = question("Third?", 2);
+        Path source = directory.resolve("questions.json");
+        Path current = directory.resolve("current.bin");
+        Path next = directory.resolve("next.bin");
+        objectMapper.writeValue(source.toFile(), List.of(first, second));
+        QuestionBankCompiler.main(new String[] {source.toString(), current.toString()});
+
+        objectMapper.writeValue(source.toFile(), List.of(third, second));
+        QuestionBankCompiler.main(new String[] {source.toString(), next.toString(), current.toString()});
+
+        MappedQuestionBank bank = MappedQuestionBank.open(next);
+        assertEquals(3, bank.size());
+        assertEquals(0, bank.indexOf(first.id()));
+        assertTrue(bank.isRetired(0));
+        assertEquals(2, bank.indexOf(third.id()));
+        assertEquals(List.of(second, third), bank.active());
+        MappedQuestionBank.open(current).requireIndexesKeptBy(bank);
+    }
+
+    @Test
+    void shouldFailCompilationOfMalformedQuestions(@TempDir Path directory) throws Exception {
+        Path source = directory.resolve("questions.json");
+        Path target = directory.resolve("questions.bin");
+        Question twoCorrect = new Question(UUID.randomUUID(), "Two correct?", List.of(
+            new Answer(UUID.randomUUID(), "A", true),
+            new Answer(UUID.randomUUID(), "B", true),
+            new Answer(UUID.randomUUID(), "C", false),
+            new Answer(UUID.randomUUID(), "D", false)));
+        objectMapper.writeValue(source.toFile(), List.of(twoCorrect));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> QuestionBankCompiler.main(new String[] {source.toString(), target.toString()}));
+        assertFalse(Files.exists(target));
+    }
+
+    @Test
+    void shouldRejectDataThatIsNotABinaryQuestionBank() throws Exception {
+        byte[] compiled = compile(List.of(question("Valid?", 0)));
+        byte[] wrongVersion = compiled.clone();
+        wrongVersion[7]++;
+        byte[] truncated = Arrays.copyOf(compiled, compiled.length - 1);
+
+        assertThrows(IOException.class,
+            () -> QuestionBankCompiler.read(new ByteArrayInputStream("[{\"id\": 1}]".getBytes())));
+        assertThrows(IOException.class, () -> QuestionBankCompiler.read(new ByteArrayInputStream(wrongVersion)));
+        assertThrows(IOException.class, () -> QuestionBankCompiler.read(new ByteArrayInputStream(truncated)));
+    }
+
+    static byte[] compile(List<Question> questions) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        QuestionBankCompiler.write(QuestionBank.EMPTY.reload(questions), outputStream);
+        return outputStream.toByteArray();
+    }
+
+    static Question question(String text, int correct) {
+        return new Question(UUID.randomUUID(), text, List.of(
+            new Answer(UUID.randomUUID(), text + " A", correct == 0),
+            new Answer(UUID.randomUUID(), text + " B", correct == 1),
+            new Answer(UUID.randomUUID(), text + " C", correct == 2),
+            new Answer(UUID.randomUUID(), text + " D", correct == 3)));
+    }
+}
@@ -0,0 +1,121 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionDeckRepositoryTest {
+
+    private static final int GENERATION = 1;
+
+    private final QuestionDeckRepository decks = new QuestionDeckRepository();
+
+    @Test
+    void shouldPermuteEveryIndexExactlyOnce() {
+        for (int questionCount : new int[] {1, 2, 3, 15, 16, 17, 100, 1000}) {
+            for (int seed : new int[] {1, -1, 42, 0x5EED}) {
+                boolean[] seen = new boolean[questionCount];
+                for (int position = 0; position < questionCount; position++) {
+                    int index = QuestionDeckRepository.permute(position, questionCount, seed);
+                    assertTrue(index >= 0 && index < questionCount, "Index out of range: " + index);
+                    assertFalse(seen[index], "Repeated index " + index + " for " + questionCount + " questions");
+                    seen[index] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldServeWholeDeckBeforeRepeatingAndThenReshuffle() {
+        int questionCount = 15;
+        for (int deck = 0; deck < 3; deck++) {
+            boolean[] seen = new boolean[questionCount];
+            for (int i = 0; i < questionCount; i++) {
+                int index = decks.nextPosition(3, questionCount, GENERATION);
+                assertFalse(seen[index], "Repeated index " + index + " in deck " + deck);
+                seen[index] = true;
+            }
+        }
+    }
+
+    @Test
+    void shouldReshuffleWhenQuestionsAreReloadedMidDeck() {
+        for (int i = 0; i < 5; i++) {
+            decks.nextPosition(7, 15, 1);
+        }
+        // The bank grows from 15 to 20 questions part way through the deck
+        assertWholeDeckServed(7, 20, 2);
+
+        for (int i = 0; i < 5; i++) {
+            decks.nextPosition(7, 20, 3);
+        }
+        // A reload retires one question and adds another, so the count stays the same but positions move
+        assertWholeDeckServed(7, 20, 4);
+    }
+
+    @Test
+    void shouldKeepDecksOfPlayersIndependent() {
+        int questionCount = 15;
+        decks.nextPosition(0, questionCount, GENERATION);
+        decks.nextPosition(0, questionCount, GENERATION);
+
+        boolean[] seen = new boolean[questionCount];
+        for (int i = 0; i < questionCount; i++) {
+            int index = decks.nextPosition(100_000, questionCount, GENERATION);
+            assertFalse(seen[index]);
+            seen[index] = true;
+        }
+    }
+
+    @Test
+    void shouldServeEachQuestionOncePerDeckUnderConcurrentDraws() throws Exception {
+        int questionCount = 15;
+        int threads = 8;
+        int decksPerThread = 100;
+        AtomicIntegerArray served = new AtomicIntegerArray(questionCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < decksPerThread * questionCount; i++) {
+                    served.incrementAndGet(decks.nextPosition(1, questionCount, GENERATION));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (int index = 0; index < questionCount; index++) {
+            assertEquals(threads * decksPerThread, served.get(index), "Question " + index);
+        }
+    }
+
+    @Test
+    void shouldReturnNegativeIndexForEmptyBank() {
+        assertEquals(-1, decks.nextPosition(0, 0, GENERATION));
+    }
+
+    @Test
+    void shouldRejectNegativePlayerId() {
+        assertThrows(IllegalArgumentException.class, () -> decks.nextPosition(-1, 15, GENERATION));
+    }
+
+    private void assertWholeDeckServed(int playerId, int questionCount, int generation) {
+        boolean[] seen = new boolean[questionCount];
+        for (int i = 0; i < questionCount; i++) {
+            int index = decks.nextPosition(playerId, questionCount, generation);
+            assertFalse(seen[index], "Repeated index " + index + " in generation " + generation);
+            seen[index] = true;
+        }
+    }
+}
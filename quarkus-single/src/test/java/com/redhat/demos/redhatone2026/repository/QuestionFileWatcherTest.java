@@ -0,0 +1,84 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.demos.redhatone2026.model.Answer;
+import com.redhat.demos.redhatone2026.model.Question;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionFileWatcherTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Path file;
+    private QuestionRepository repository;
+    private QuestionFileWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = directory.resolve("questions.json");
+        objectMapper.writeValue(file.toFile(), List.of(question("First?")));
+        repository = new QuestionRepository(Optional.of(file.toString()));
+        repository.init();
+        watcher = new QuestionFileWatcher(repository, Duration.ofHours(1));
+        watcher.start(file);
+    }
+
+    @Test
+    void shouldReloadWhenFileChanges() throws Exception {
+        assertFalse(watcher.check(file));
+
+        Question second = question("Second?");
+        objectMapper.writeValue(file.toFile(), List.of(repository.findAll().get(0), second));
+        touch();
+
+        assertTrue(watcher.check(file));
+        assertEquals(2, repository.findAll().size());
+        assertEquals(1, repository.indexOf(second.id()));
+        assertFalse(watcher.check(file));
+    }
+
+    @Test
+    void shouldKeepCurrentQuestionsWhenChangedFileIsMalformed() throws Exception {
+        List<Question> before = repository.findAll();
+
+        Files.writeString(file, "not json");
+        touch();
+
+        assertFalse(watcher.check(file));
+        assertSame(before, repository.findAll());
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new QuestionFileWatcher(null, Duration.ofSeconds(5)));
+        assertThrows(IllegalArgumentException.class, () -> new QuestionFileWatcher(repository, Duration.ZERO));
+    }
+
+    private void touch() throws Exception {
+        // Move the modification time forward so the change is seen even on coarse-grained file systems
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+    }
+
+    private static Question question(String text) {
+        return new Question(UUID.randomUUID(), text, List.of(
+            new Answer(UUID.randomUUID(), "Yes", true),
+            new Answer(UUID.randomUUID(), "No", false),
+            new Answer(UUID.randomUUID(), "Maybe", false),
+            new Answer(UUID.randomUUID(), "Never", false)));
+    }
+}
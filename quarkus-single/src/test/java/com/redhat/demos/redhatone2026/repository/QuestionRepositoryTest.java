@@ -1,11 +1,18 @@
 package com.redhat.demos.redhatone2026.repository;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.demos.redhatone2026.model.Answer;
 import com.redhat.demos.redhatone2026.model.Question;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -60,6 +67,25 @@ class QuestionRepositoryTest {
         assertFalse(found.isPresent());
     }
 
+    @Test
+    void shouldAssignDenseIndexToEveryQuestion() {
+        List<Question> questions = questionRepository.findAll();
+        boolean[] seen = new boolean[questionRepository.count()];
+
+        assertEquals(questions.size(), questionRepository.count());
+        for (Question question : questions) {
+            int index = questionRepository.indexOf(question.id());
+            assertTrue(index >= 0 && index < seen.length, "Index out of range: " + index);
+            assertFalse(seen[index], "Duplicate index: " + index);
+            seen[index] = true;
+        }
+    }
+
+    @Test
+    void shouldReturnNegativeIndexForNonExistentId() {
+        assertEquals(-1, questionRepository.indexOf(UUID.randomUUID()));
+    }
+
     @Test
     void shouldFindRandomQuestion() {
         Optional<Question> randomQuestion = questionRepository.findRandom();
@@ -85,4 +111,204 @@ class QuestionRepositoryTest {
             assertTrue(correctAnswerCount >= 1, "Question should have at least one correct answer");
         }
     }
+
+    @Test
+    void shouldShareAnUnmodifiableListOfAllQuestions() {
+        List<Question> questions = questionRepository.findAll();
+
+        assertSame(questions, questionRepository.findAll());
+        assertThrows(UnsupportedOperationException.class, () -> questions.remove(0));
+        for (int index = 0; index < questions.size(); index++) {
+            assertEquals(index, questionRepository.indexOf(questions.get(index).id()));
+        }
+    }
+
+    @Test
+    void shouldReturnEmptyForIndexOutOfRange() {
+        assertFalse(questionRepository.findByIndex(-1).isPresent());
+        assertFalse(questionRepository.findByIndex(questionRepository.count()).isPresent());
+    }
+
+    @Test
+    void shouldReplaceQuestionsAsAWholeKeepingIndexesStable() {
+        QuestionRepository repository = new QuestionRepository();
+        assertFalse(repository.findRandom().isPresent());
+
+        Question first = question("First?");
+        Question second = question("Second?");
+        repository.replaceQuestions(List.of(first, second, first));
+
+        assertEquals(2, repository.count());
+        assertEquals(List.of(first, second), repository.findAll());
+        assertEquals(1, repository.indexOf(second.id()));
+        assertEquals(Optional.of(second), repository.findById(second.id()));
+
+        Question third = question("Third?");
+        Question editedSecond = new Question(second.id(), "Second, edited?", second.optionalAnswers());
+        repository.replaceQuestions(List.of(third, editedSecond));
+
+        // The first question is retired: it keeps its index and stays answerable, but is no longer served
+        assertEquals(3, repository.count());
+        assertEquals(List.of(editedSecond, third), repository.findAll());
+        assertEquals(0, repository.indexOf(first.id()));
+        assertEquals(Optional.of(first), repository.findByIndex(0));
+        assertEquals(1, repository.indexOf(second.id()));
+        assertEquals("Second, edited?", repository.findByIndex(1).orElseThrow().questionText());
+        assertEquals(2, repository.indexOf(third.id()));
+        for (int i = 0; i < 20; i++) {
+            assertNotEquals(first, repository.findRandom().orElseThrow());
+        }
+
+        repository.replaceQuestions(List.of(first));
+
+        assertEquals(3, repository.count());
+        assertEquals(List.of(first), repository.findAll());
+        assertEquals(0, repository.indexOf(first.id()));
+    }
+
+    @Test
+    void shouldReloadQuestionsFromConfiguredFileAndNotifyListener(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("questions.json");
+        ObjectMapper objectMapper = new ObjectMapper();
+        Question first = question("First?");
+        Question second = question("Second?");
+        objectMapper.writeValue(file.toFile(), List.of(first));
+        QuestionRepository repository = new QuestionRepository(Optional.of(file.toString()));
+        repository.init();
+        List<List<Question>> notified = new ArrayList<>();
+        repository.setReloadListener(notified::add);
+
+        objectMapper.writeValue(file.toFile(), List.of(first, second));
+        assertEquals(2, repository.reload());
+
+        assertEquals(List.of(first, second), repository.findAll());
+        assertEquals(List.of(repository.findAll()), notified);
+        assertEquals(Optional.of(file), repository.getQuestionsFile());
+    }
+
+    @Test
+    void shouldChangeGenerationOnEveryReloadAndReportReplacedQuestionsAsStale() throws Exception {
+        List<Question> before = questionRepository.findAll();
+        int generation = questionRepository.findGeneration(before);
+        assertNotEquals(QuestionRepository.STALE_GENERATION, generation);
+        assertEquals(generation, questionRepository.findGeneration(questionRepository.findAll()));
+
+        questionRepository.reload();
+
+        assertEquals(QuestionRepository.STALE_GENERATION, questionRepository.findGeneration(before));
+        int reloaded = questionRepository.findGeneration(questionRepository.findAll());
+        assertNotEquals(QuestionRepository.STALE_GENERATION, reloaded);
+        assertNotEquals(generation, reloaded);
+    }
+
+    @Test
+    void shouldMapCompiledQuestionsFileAndRejectOneThatMovesQuestions(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("questions.bin");
+        Question first = question("First?");
+        Question second = question("Second?");
+        Files.write(file, QuestionBankCompilerTest.compile(List.of(first, second)));
+        QuestionRepository repository = new QuestionRepository(Optional.of(file.toString()));
+        repository.init();
+
+        assertEquals(List.of(first, second), repository.findAll());
+        assertEquals(1, repository.indexOf(second.id()));
+        assertEquals("B", repository.findCorrectAnswer(0));
+        assertTrue(repository.isCorrect(1, "B"));
+
+        replace(file, QuestionBankCompilerTest.compile(List.of(second, first)));
+        assertThrows(IllegalArgumentException.class, repository::reload);
+        assertEquals(List.of(first, second), repository.findAll());
+
+        Question third = question("Third?");
+        replace(file, QuestionBankCompilerTest.compile(List.of(first, second, third)));
+        assertEquals(3, repository.reload());
+        assertEquals(2, repository.indexOf(third.id()));
+    }
+
+    @Test
+    void shouldKeepCurrentQuestionsWhenReloadFails(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("questions.json");
+        Question first = question("First?");
+        new ObjectMapper().writeValue(file.toFile(), List.of(first));
+        QuestionRepository repository = new QuestionRepository(Optional.of(file.toString()));
+        repository.init();
+
+        Files.writeString(file, "[{\"id\": \"not json");
+        assertThrows(IOException.class, repository::reload);
+        Files.delete(file);
+        assertThrows(IOException.class, repository::reload);
+
+        assertEquals(List.of(first), repository.findAll());
+    }
+
+    @Test
+    void shouldCheckAnswersAgainstPrecomputedCorrectAnswer() {
+        for (int index = 0; index < questionRepository.count(); index++) {
+            Question question = questionRepository.findByIndex(index).orElseThrow();
+            String correctAnswer = questionRepository.findCorrectAnswer(index);
+            int correct = QuestionRepository.answerIndex(correctAnswer);
+
+            assertTrue(question.optionalAnswers().get(correct).isCorrect());
+            for (String letter : QuestionRepository.ANSWER_LETTERS) {
+                assertEquals(letter.equals(correctAnswer), questionRepository.isCorrect(index, letter));
+            }
+        }
+        assertFalse(questionRepository.isCorrect(-1, "A"));
+        assertFalse(questionRepository.isCorrect(questionRepository.count(), "A"));
+        assertNull(questionRepository.findCorrectAnswer(questionRepository.count()));
+    }
+
+    @Test
+    void shouldConvertOnlyAnswerLettersToIndexes() {
+        assertEquals(0, QuestionRepository.answerIndex("A"));
+        assertEquals(3, QuestionRepository.answerIndex("D"));
+        assertEquals(-1, QuestionRepository.answerIndex("E"));
+        assertEquals(-1, QuestionRepository.answerIndex("a"));
+        assertEquals(-1, QuestionRepository.answerIndex("AB"));
+        assertEquals(-1, QuestionRepository.answerIndex(""));
+        assertEquals(-1, QuestionRepository.answerIndex(null));
+    }
+
+    @Test
+    void shouldRejectMalformedQuestionsAndKeepCurrentOnes() {
+        QuestionRepository repository = new QuestionRepository();
+        Question valid = question("Valid?");
+        repository.replaceQuestions(List.of(valid));
+
+        Question threeAnswers = new Question(UUID.randomUUID(), "Three?", List.of(
+            new Answer(UUID.randomUUID(), "A", true),
+            new Answer(UUID.randomUUID(), "B", false),
+            new Answer(UUID.randomUUID(), "C", false)));
+        Question twoCorrect = new Question(UUID.randomUUID(), "Two correct?", List.of(
+            new Answer(UUID.randomUUID(), "A", true),
+            new Answer(UUID.randomUUID(), "B", true),
+            new Answer(UUID.randomUUID(), "C", false),
+            new Answer(UUID.randomUUID(), "D", false)));
+        Question noneCorrect = new Question(UUID.randomUUID(), "None correct?", List.of(
+            new Answer(UUID.randomUUID(), "A", false),
+            new Answer(UUID.randomUUID(), "B", false),
+            new Answer(UUID.randomUUID(), "C", false),
+            new Answer(UUID.randomUUID(), "D", false)));
+
+        for (Question malformed : List.of(threeAnswers, twoCorrect, noneCorrect)) {
+            assertThrows(IllegalArgumentException.class,
+                () -> repository.replaceQuestions(List.of(valid, malformed)));
+        }
+        assertEquals(List.of(valid), repository.findAll());
+    }
+
+    private static void replace(Path file, byte[] content) throws IOException {
+        // A mapped bank must be replaced by moving a new file over it, never rewritten in place
+        Path next = file.resolveSibling(file.getFileName() + ".next");
+        Files.write(next, content);
+        Files.move(next, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Question question(String text) {
+        return new Question(UUID.randomUUID(), text, List.of(
+            new Answer(UUID.randomUUID(), "Yes", false),
+            new Answer(UUID.randomUUID(), "No", true),
+            new Answer(UUID.randomUUID(), "Maybe", false),
+            new Answer(UUID.randomUUID(), "Never", false)));
+    }
 }
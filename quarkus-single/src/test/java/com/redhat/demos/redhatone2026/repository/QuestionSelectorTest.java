@@ -0,0 +1,96 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import com.redhat.demos.redhatone2026.model.Answer;
+import com.redhat.demos.redhatone2026.model.Difficulty;
+import com.redhat.demos.redhatone2026.model.Question;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionSelectorTest {
+
+    private static final String[] CATEGORIES = {"history", "Landmarks", "LANDMARKS", null};
+
+    @Test
+    void shouldSelectOnlyAndEveryMatchingQuestionFromHeapBank() {
+        assertSelectsMatchingQuestions(bank());
+    }
+
+    @Test
+    void shouldSelectOnlyAndEveryMatchingQuestionFromCompiledBank() throws Exception {
+        QuestionBank heap = bank();
+        byte[] compiled = QuestionBankCompilerTest.compile(heap.active());
+
+        assertSelectsMatchingQuestions(MappedQuestionBank.wrap(ByteBuffer.wrap(compiled)));
+    }
+
+    @Test
+    void shouldSelectOnlyServedQuestions() {
+        List<Question> questions = questions();
+        QuestionBank bank = QuestionBank.EMPTY.reload(questions).reload(questions.subList(0, 10));
+
+        for (int i = 0; i < 200; i++) {
+            int position = bank.randomPosition("history", null);
+            assertTrue(position >= 0 && position < bank.active().size());
+            assertEquals("history", bank.active().get(position).category());
+        }
+    }
+
+    @Test
+    void shouldFindNothingForUnknownCategoryOrEmptyBank() {
+        assertEquals(-1, bank().randomPosition("geography", null));
+        assertEquals(-1, bank().randomPosition("geography", Difficulty.EASY));
+        assertEquals(-1, QuestionBank.EMPTY.randomPosition(null, null));
+        assertEquals(-1, QuestionBank.EMPTY.randomPosition("history", Difficulty.HARD));
+        assertEquals(-1, QuestionBank.EMPTY.randomPosition(null, Difficulty.HARD));
+    }
+
+    private static void assertSelectsMatchingQuestions(QuestionBank bank) {
+        List<Difficulty> difficulties = new ArrayList<>(Arrays.asList(Difficulty.values()));
+        difficulties.add(null);
+        for (String category : new String[] {"history", "landmarks", "LandMarks", null}) {
+            for (Difficulty difficulty : difficulties) {
+                Set<Question> expected = new HashSet<>();
+                for (Question question : bank.active()) {
+                    if ((category == null || category.equalsIgnoreCase(question.category()))
+                        && (difficulty == null || difficulty == question.difficulty())) {
+                        expected.add(question);
+                    }
+                }
+                Set<Question> selected = new HashSet<>();
+                for (int i = 0; i < 2000; i++) {
+                    int position = bank.randomPosition(category, difficulty);
+                    if (position >= 0) {
+                        selected.add(bank.active().get(position));
+                    }
+                }
+                assertEquals(expected, selected, "category " + category + ", difficulty " + difficulty);
+            }
+        }
+    }
+
+    private static QuestionBank bank() {
+        return QuestionBank.EMPTY.reload(questions());
+    }
+
+    private static List<Question> questions() {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Difficulty difficulty = i % 5 == 4 ? null : Difficulty.values()[i % 3];
+            questions.add(new Question(UUID.randomUUID(), "Question " + i + "?", List.of(
+                new Answer(UUID.randomUUID(), "A", true),
+                new Answer(UUID.randomUUID(), "B", false),
+                new Answer(UUID.randomUUID(), "C", false),
+                new Answer(UUID.randomUUID(), "D", false)), CATEGORIES[i % CATEGORIES.length], difficulty));
+        }
+        return questions;
+    }
+}
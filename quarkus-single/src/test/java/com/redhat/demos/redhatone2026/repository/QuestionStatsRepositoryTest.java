@@ -0,0 +1,110 @@
+package com.redhat.demos.redhatone2026.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionStatsRepositoryTest {
+
+    private final QuestionStatsRepository stats = new QuestionStatsRepository();
+
+    @Test
+    void shouldCountAttemptsAndCorrectAnswersPerQuestionAndPlayer() {
+        stats.recordAnswer(1, 7, 0, true);
+        stats.recordAnswer(1, 7, 2, false);
+        stats.recordAnswer(2, 7, 0, true);
+        stats.recordAnswer(2, 100_000, 3, false);
+
+        assertEquals(3, stats.getAttempts(7));
+        assertEquals(2, stats.getCorrect(7));
+        assertEquals(1, stats.getAttempts(100_000));
+        assertEquals(0, stats.getCorrect(100_000));
+        assertEquals(2, stats.getPlayerAttempts(1));
+        assertEquals(1, stats.getPlayerCorrect(1));
+        assertEquals(2, stats.getPlayerAttempts(2));
+        assertEquals(1, stats.getPlayerCorrect(2));
+    }
+
+    @Test
+    void shouldCountHowOftenEachAnswerIsChosen() {
+        stats.recordAnswer(1, 7, 0, true);
+        stats.recordAnswer(2, 7, 0, true);
+        stats.recordAnswer(3, 7, 2, false);
+        stats.recordAnswer(1, 8, 3, false);
+
+        assertArrayEquals(new long[] {2, 0, 1, 0}, stats.getAnswerCounts(7));
+        assertArrayEquals(new long[] {0, 0, 0, 1}, stats.getAnswerCounts(8));
+        assertArrayEquals(new long[] {0, 0, 0, 0}, stats.getAnswerCounts(9));
+        assertArrayEquals(new long[] {0, 0, 0, 0}, stats.getAnswerCounts(-1));
+    }
+
+    @Test
+    void shouldReportNothingForUnansweredQuestionsAndUnknownPlayers() {
+        assertEquals(0, stats.getAttempts(3));
+        assertEquals(0, stats.getCorrect(5_000_000));
+        assertEquals(0, stats.getAttempts(-1));
+        assertEquals(0, stats.getPlayerAttempts(5_000_000));
+        assertEquals(0, stats.getPlayerCorrect(-1));
+    }
+
+    @Test
+    void shouldRejectNegativePlayerIdOrQuestionIndex() {
+        assertThrows(IllegalArgumentException.class, () -> stats.recordAnswer(-1, 0, 0, true));
+        assertThrows(IllegalArgumentException.class, () -> stats.recordAnswer(0, -1, 0, true));
+    }
+
+    @Test
+    void shouldRejectAnswerPositionOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> stats.recordAnswer(0, 0, -1, true));
+        assertThrows(IllegalArgumentException.class, () -> stats.recordAnswer(0, 0, 4, true));
+        assertEquals(0, stats.getAttempts(0));
+    }
+
+    @Test
+    void shouldCountEveryAnswerRecordedConcurrently() throws Exception {
+        int threads = 8;
+        int answersPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int playerId = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < answersPerThread; i++) {
+                        stats.recordAnswer(playerId, i % 3, i % 4, i % 2 == 0);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals((long) threads * answersPerThread,
+            stats.getAttempts(0) + stats.getAttempts(1) + stats.getAttempts(2));
+        assertEquals((long) threads * answersPerThread / 2,
+            stats.getCorrect(0) + stats.getCorrect(1) + stats.getCorrect(2));
+        long[] chosen = new long[4];
+        for (int questionIndex = 0; questionIndex < 3; questionIndex++) {
+            long[] counts = stats.getAnswerCounts(questionIndex);
+            for (int answer = 0; answer < 4; answer++) {
+                chosen[answer] += counts[answer];
+            }
+        }
+        assertArrayEquals(new long[] {threads * answersPerThread / 4, threads * answersPerThread / 4,
+            threads * answersPerThread / 4, threads * answersPerThread / 4}, chosen);
+        for (int t = 0; t < threads; t++) {
+            assertEquals(answersPerThread, stats.getPlayerAttempts(t));
+            assertEquals(answersPerThread / 2, stats.getPlayerCorrect(t));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.demos.redhatone2026.model.AnswerDistribution;
+import com.redhat.demos.redhatone2026.model.Question;
+import com.redhat.demos.redhatone2026.repository.EnvironmentRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionDeckRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionRepository;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerDistributionBroadcasterTest {
+
+    private static final Duration STREAM_INTERVAL = Duration.ofMillis(20);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final QuestionRepository questionRepository = new QuestionRepository();
+    private QuestionService questionService;
+    private AnswerDistributionBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        questionRepository.reload();
+        questionService = QuestionServices.create(questionRepository, new EnvironmentRepository(),
+            new QuestionDeckRepository(), objectMapper);
+        broadcaster = new AnswerDistributionBroadcaster(questionService, objectMapper, STREAM_INTERVAL);
+    }
+
+    @Test
+    void shouldThrowExceptionForMissingDependenciesOrInvalidInterval() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new AnswerDistributionBroadcaster(null, objectMapper, STREAM_INTERVAL));
+        assertThrows(IllegalArgumentException.class,
+            () -> new AnswerDistributionBroadcaster(questionService, null, STREAM_INTERVAL));
+        assertThrows(IllegalArgumentException.class,
+            () -> new AnswerDistributionBroadcaster(questionService, objectMapper, Duration.ZERO));
+    }
+
+    @Test
+    void shouldNotStreamUnknownQuestion() {
+        assertTrue(broadcaster.stream(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void shouldSendCurrentDistributionOnSubscribeAndThenOnlyChanges() throws Exception {
+        Question question = questionRepository.findByIndex(0).orElseThrow();
+        questionService.recordAnswer(1, 0, 0, "B", false);
+
+        AssertSubscriber<String> subscriber = broadcaster.stream(question.id()).orElseThrow()
+            .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        subscriber.awaitItems(1);
+        assertEquals(1, frame(subscriber, 0).total());
+        assertEquals(1, frame(subscriber, 0).answers().get(1).count());
+
+        // Unchanged counts are not sent again
+        Thread.sleep(STREAM_INTERVAL.toMillis() * 5);
+        assertEquals(1, subscriber.getItems().size());
+
+        questionService.recordAnswer(2, 0, 0, "C", false);
+        subscriber.awaitItems(2, Duration.ofSeconds(5));
+        AnswerDistribution latest = frame(subscriber, 1);
+        assertEquals(2, latest.total());
+        assertEquals(List.of(0L, 1L, 1L, 0L),
+            latest.answers().stream().map(answer -> answer.count()).toList());
+        subscriber.cancel();
+    }
+
+    @Test
+    void shouldShareOneStreamPerQuestionWhileItHasSubscribers() {
+        Question question = questionRepository.findByIndex(0).orElseThrow();
+
+        AssertSubscriber<String> first = broadcaster.stream(question.id()).orElseThrow()
+            .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        AssertSubscriber<String> second = broadcaster.stream(question.id()).orElseThrow()
+            .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        assertEquals(1, broadcaster.channelCount());
+
+        questionService.recordAnswer(1, 0, 0, "A", true);
+        first.awaitItems(2, Duration.ofSeconds(5));
+        second.awaitItems(2, Duration.ofSeconds(5));
+        assertSame(first.getItems().get(1), second.getItems().get(1), "Each frame should be serialized once");
+
+        first.cancel();
+        assertEquals(1, broadcaster.channelCount(), "The stream is kept while a subscriber remains");
+        second.cancel();
+        assertEquals(0, broadcaster.channelCount(), "The stream is dropped after the last subscriber leaves");
+    }
+
+    private AnswerDistribution frame(AssertSubscriber<String> subscriber, int index) throws Exception {
+        return objectMapper.readValue(subscriber.getItems().get(index), AnswerDistribution.class);
+    }
+}
@@ -2,11 +2,15 @@ package com.redhat.demos.redhatone2026.service;
 
 import com.redhat.demos.redhatone2026.model.*;
 import com.redhat.demos.redhatone2026.repository.EnvironmentRepository;
+import com.redhat.demos.redhatone2026.repository.PlayerRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionRepository;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,7 +24,7 @@ class AnswerServiceTest {
 
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
-            () -> new AnswerService(null, leaderboardService, environmentRepository)
+            () -> new AnswerService(null, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true)
         );
 
         assertEquals("QuestionService cannot be null", exception.getMessage());
@@ -33,12 +37,26 @@ class AnswerServiceTest {
 
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
-            () -> new AnswerService(questionService, null, environmentRepository)
+            () -> new AnswerService(questionService, null, new PlayerService(new PlayerRepository()), environmentRepository, true)
         );
 
         assertEquals("LeaderboardService cannot be null", exception.getMessage());
     }
 
+    @Test
+    void shouldThrowExceptionWhenPlayerServiceIsNull() {
+        QuestionService questionService = mock(QuestionService.class);
+        LeaderboardService leaderboardService = mock(LeaderboardService.class);
+        EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new AnswerService(questionService, leaderboardService, null, environmentRepository, true)
+        );
+
+        assertEquals("PlayerService cannot be null", exception.getMessage());
+    }
+
     @Test
     void shouldThrowExceptionWhenEnvironmentRepositoryIsNull() {
         QuestionService questionService = mock(QuestionService.class);
@@ -46,7 +64,7 @@ class AnswerServiceTest {
 
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
-            () -> new AnswerService(questionService, leaderboardService, null)
+            () -> new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), null, true)
         );
 
         assertEquals("EnvironmentRepository cannot be null", exception.getMessage());
@@ -57,7 +75,7 @@ class AnswerServiceTest {
         QuestionService questionService = mock(QuestionService.class);
         LeaderboardService leaderboardService = mock(LeaderboardService.class);
         EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
-        AnswerService service = new AnswerService(questionService, leaderboardService, environmentRepository);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
 
         UUID questionId = UUID.randomUUID();
         Answer answer1 = new Answer(UUID.randomUUID(), "Paris", true);
@@ -68,8 +86,8 @@ class AnswerServiceTest {
 
         TriviaQuestion nextQuestion = new TriviaQuestion(UUID.randomUUID(), "Next?", "A", "B", "C", "D", "Msg");
 
-        when(questionService.getQuestionById(questionId)).thenReturn(Optional.of(question));
-        when(questionService.getRandomTriviaQuestion()).thenReturn(Optional.of(nextQuestion));
+        stubQuestion(questionService, question, 12);
+        when(questionService.getNextTriviaQuestion(anyInt())).thenReturn(Optional.of(nextQuestion));
 
         AnswerSubmission submission = new AnswerSubmission("testuser", questionId, "A");
         Optional<AnswerResponse> response = service.submitAnswer(submission);
@@ -79,7 +97,8 @@ class AnswerServiceTest {
         assertEquals("A", response.get().correctAnswer());
         assertEquals(question, response.get().originalQuestion());
         assertEquals(nextQuestion, response.get().nextQuestion());
-        verify(leaderboardService, times(1)).recordAnswer("testuser", questionId, true);
+        verify(leaderboardService, times(1)).recordAnswer(0, 12, true);
+        verify(questionService, times(1)).recordAnswer(0, 12, 0, "A", true);
     }
 
     @Test
@@ -87,7 +106,7 @@ class AnswerServiceTest {
         QuestionService questionService = mock(QuestionService.class);
         LeaderboardService leaderboardService = mock(LeaderboardService.class);
         EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
-        AnswerService service = new AnswerService(questionService, leaderboardService, environmentRepository);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
 
         UUID questionId = UUID.randomUUID();
         Answer answer1 = new Answer(UUID.randomUUID(), "Paris", false);
@@ -98,8 +117,8 @@ class AnswerServiceTest {
 
         TriviaQuestion nextQuestion = new TriviaQuestion(UUID.randomUUID(), "Next?", "A", "B", "C", "D", "Msg");
 
-        when(questionService.getQuestionById(questionId)).thenReturn(Optional.of(question));
-        when(questionService.getRandomTriviaQuestion()).thenReturn(Optional.of(nextQuestion));
+        stubQuestion(questionService, question, 12);
+        when(questionService.getNextTriviaQuestion(anyInt())).thenReturn(Optional.of(nextQuestion));
 
         AnswerSubmission submission = new AnswerSubmission("testuser", questionId, "A");
         Optional<AnswerResponse> response = service.submitAnswer(submission);
@@ -107,7 +126,8 @@ class AnswerServiceTest {
         assertTrue(response.isPresent());
         assertFalse(response.get().isCorrect());
         assertEquals("B", response.get().correctAnswer());
-        verify(leaderboardService, times(1)).recordAnswer("testuser", questionId, false);
+        verify(leaderboardService, times(1)).recordAnswer(0, 12, false);
+        verify(questionService, times(1)).recordAnswer(0, 12, 0, "A", false);
     }
 
     @Test
@@ -115,7 +135,7 @@ class AnswerServiceTest {
         QuestionService questionService = mock(QuestionService.class);
         LeaderboardService leaderboardService = mock(LeaderboardService.class);
         EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
-        AnswerService service = new AnswerService(questionService, leaderboardService, environmentRepository);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
 
         UUID questionId = UUID.randomUUID();
         AnswerSubmission submission = new AnswerSubmission("", questionId, "A");
@@ -126,6 +146,153 @@ class AnswerServiceTest {
         );
 
         assertEquals("Invalid username", exception.getMessage());
+        AnswerSubmission oversized = new AnswerSubmission("a".repeat(PlayerService.MAX_USERNAME_LENGTH + 1),
+            questionId, "A");
+        assertEquals("Invalid username",
+            assertThrows(IllegalArgumentException.class, () -> service.submitAnswer(oversized)).getMessage());
+        verifyNoInteractions(leaderboardService);
+    }
+
+    @Test
+    void shouldRecordAnswerForRegisteredPlayerId() {
+        QuestionService questionService = mock(QuestionService.class);
+        LeaderboardService leaderboardService = mock(LeaderboardService.class);
+        EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
+        PlayerService playerService = new PlayerService(new PlayerRepository());
+        playerService.join("someone else");
+        int playerId = playerService.join("testuser").playerId();
+        AnswerService service = new AnswerService(questionService, leaderboardService, playerService, environmentRepository, true);
+
+        UUID questionId = UUID.randomUUID();
+        Answer answer1 = new Answer(UUID.randomUUID(), "Paris", true);
+        Answer answer2 = new Answer(UUID.randomUUID(), "London", false);
+        Answer answer3 = new Answer(UUID.randomUUID(), "Berlin", false);
+        Answer answer4 = new Answer(UUID.randomUUID(), "Madrid", false);
+        Question question = new Question(questionId, "Capital of France?", List.of(answer1, answer2, answer3, answer4));
+
+        stubQuestion(questionService, question, 4);
+
+        AnswerSubmission submission = new AnswerSubmission(null, questionId, "A", playerId);
+        Optional<AnswerResponse> response = service.submitAnswer(submission);
+
+        assertTrue(response.isPresent());
+        verify(leaderboardService, times(1)).recordAnswer(playerId, 4, true);
+    }
+
+    @Test
+    void shouldCheckAnswerInTheOrderRecordedByToken() {
+        QuestionService questionService = mock(QuestionService.class);
+        LeaderboardService leaderboardService = mock(LeaderboardService.class);
+        EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, false);
+
+        UUID questionId = UUID.randomUUID();
+        Answer answer1 = new Answer(UUID.randomUUID(), "Paris", true);
+        Answer answer2 = new Answer(UUID.randomUUID(), "London", false);
+        Answer answer3 = new Answer(UUID.randomUUID(), "Berlin", false);
+        Answer answer4 = new Answer(UUID.randomUUID(), "Madrid", false);
+        Question question = new Question(questionId, "Capital of France?", List.of(answer1, answer2, answer3, answer4));
+
+        stubQuestion(questionService, question, 4);
+        when(questionService.getAnswerOrder(4, "shuffled")).thenReturn(3);
+        when(questionService.getCorrectAnswer(4, 3)).thenReturn("C");
+        when(questionService.isCorrectAnswer(4, 3, "C")).thenReturn(true);
+
+        Optional<AnswerResponse> response = service.submitAnswer(
+            new AnswerSubmission("testuser", questionId, "C", null, "shuffled"));
+        List<AnswerResult> results = service.submitAnswers(List.of(
+            new AnswerSubmission("testuser", questionId, "A", null, "shuffled"),
+            new AnswerSubmission("testuser", questionId, "C", null, "shuffled")));
+
+        assertTrue(response.isPresent());
+        assertTrue(response.get().isCorrect());
+        assertEquals("C", response.get().correctAnswer());
+        assertEquals(List.of(new AnswerResult(false, "C", null), new AnswerResult(true, "C", null)), results);
+        verify(leaderboardService, times(1)).recordAnswer(0, 4, true);
+    }
+
+    @Test
+    void shouldRejectTokenNotServedWithTheQuestion() {
+        QuestionService questionService = mock(QuestionService.class);
+        LeaderboardService leaderboardService = mock(LeaderboardService.class);
+        EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, false);
+
+        UUID questionId = UUID.randomUUID();
+        Answer answer1 = new Answer(UUID.randomUUID(), "Paris", true);
+        Answer answer2 = new Answer(UUID.randomUUID(), "London", false);
+        Answer answer3 = new Answer(UUID.randomUUID(), "Berlin", false);
+        Answer answer4 = new Answer(UUID.randomUUID(), "Madrid", false);
+        Question question = new Question(questionId, "Capital of France?", List.of(answer1, answer2, answer3, answer4));
+
+        stubQuestion(questionService, question, 4);
+        when(questionService.getAnswerOrder(4, "forged")).thenReturn(-1);
+        AnswerSubmission submission = new AnswerSubmission("testuser", questionId, "A", null, "forged");
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> service.submitAnswer(submission)
+        );
+
+        assertEquals("Invalid token", exception.getMessage());
+        verifyNoInteractions(leaderboardService);
+        assertEquals(List.of(new AnswerResult(null, null, "Invalid token")), service.submitAnswers(List.of(submission)));
+    }
+
+    @Test
+    void shouldRejectSubmissionWithoutTokenUnlessAllowed() {
+        QuestionService questionService = mock(QuestionService.class);
+        LeaderboardService leaderboardService = mock(LeaderboardService.class);
+        EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, false);
+
+        AnswerSubmission submission = new AnswerSubmission("testuser", UUID.randomUUID(), "A");
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> service.submitAnswer(submission)
+        );
+
+        assertEquals("Missing token", exception.getMessage());
+        verifyNoInteractions(questionService, leaderboardService);
+        assertEquals(List.of(new AnswerResult(null, null, "Missing token")), service.submitAnswers(List.of(submission)));
+    }
+
+    @Test
+    void shouldThrowExceptionForUnknownPlayerId() {
+        QuestionService questionService = mock(QuestionService.class);
+        LeaderboardService leaderboardService = mock(LeaderboardService.class);
+        EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
+
+        AnswerSubmission submission = new AnswerSubmission(null, UUID.randomUUID(), "A", 42);
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> service.submitAnswer(submission)
+        );
+
+        assertEquals("Invalid playerId", exception.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionForPlayerIdRegisteredToAnotherUsername() {
+        QuestionService questionService = mock(QuestionService.class);
+        LeaderboardService leaderboardService = mock(LeaderboardService.class);
+        EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
+        PlayerService playerService = new PlayerService(new PlayerRepository());
+        int aliceId = playerService.join("alice").playerId();
+        AnswerService service = new AnswerService(questionService, leaderboardService, playerService, environmentRepository, true);
+
+        AnswerSubmission submission = new AnswerSubmission("mallory", UUID.randomUUID(), "A", aliceId);
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> service.submitAnswer(submission)
+        );
+
+        assertEquals("Invalid playerId", exception.getMessage());
+        assertEquals(List.of(new AnswerResult(null, null, "Invalid playerId")), service.submitAnswers(List.of(submission)));
     }
 
     @Test
@@ -133,7 +300,7 @@ class AnswerServiceTest {
         QuestionService questionService = mock(QuestionService.class);
         LeaderboardService leaderboardService = mock(LeaderboardService.class);
         EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
-        AnswerService service = new AnswerService(questionService, leaderboardService, environmentRepository);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
 
         AnswerSubmission submission = new AnswerSubmission("user", null, "A");
 
@@ -150,7 +317,7 @@ class AnswerServiceTest {
         QuestionService questionService = mock(QuestionService.class);
         LeaderboardService leaderboardService = mock(LeaderboardService.class);
         EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
-        AnswerService service = new AnswerService(questionService, leaderboardService, environmentRepository);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
 
         UUID questionId = UUID.randomUUID();
         AnswerSubmission submission = new AnswerSubmission("user", questionId, "Z");
@@ -168,10 +335,10 @@ class AnswerServiceTest {
         QuestionService questionService = mock(QuestionService.class);
         LeaderboardService leaderboardService = mock(LeaderboardService.class);
         EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
-        AnswerService service = new AnswerService(questionService, leaderboardService, environmentRepository);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
 
         UUID questionId = UUID.randomUUID();
-        when(questionService.getQuestionById(questionId)).thenReturn(Optional.empty());
+        when(questionService.getQuestionIndex(questionId)).thenReturn(-1);
 
         AnswerSubmission submission = new AnswerSubmission("user", questionId, "A");
         Optional<AnswerResponse> response = service.submitAnswer(submission);
@@ -184,7 +351,7 @@ class AnswerServiceTest {
         QuestionService questionService = mock(QuestionService.class);
         LeaderboardService leaderboardService = mock(LeaderboardService.class);
         EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
-        AnswerService service = new AnswerService(questionService, leaderboardService, environmentRepository);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
 
         UUID questionId = UUID.randomUUID();
         Answer answer1 = new Answer(UUID.randomUUID(), "A1", true);
@@ -195,8 +362,8 @@ class AnswerServiceTest {
 
         TriviaQuestion nextQuestion = new TriviaQuestion(UUID.randomUUID(), "Q2?", "B1", "B2", "B3", "B4", "Env");
 
-        when(questionService.getQuestionById(questionId)).thenReturn(Optional.of(question));
-        when(questionService.getRandomTriviaQuestion()).thenReturn(Optional.of(nextQuestion));
+        stubQuestion(questionService, question, 0);
+        when(questionService.getNextTriviaQuestion(anyInt())).thenReturn(Optional.of(nextQuestion));
 
         AnswerSubmission submission = new AnswerSubmission("user", questionId, "A");
         Optional<AnswerResponse> response = service.submitAnswer(submission);
@@ -205,4 +372,99 @@ class AnswerServiceTest {
         assertNotNull(response.get().nextQuestion());
         assertEquals(nextQuestion, response.get().nextQuestion());
     }
+
+    @Test
+    void shouldReturnBatchResultsInOrderAndRecordCorrectAnswersTogether() {
+        QuestionService questionService = mock(QuestionService.class);
+        LeaderboardService leaderboardService = mock(LeaderboardService.class);
+        EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
+
+        UUID questionId = UUID.randomUUID();
+        Answer answer1 = new Answer(UUID.randomUUID(), "Paris", false);
+        Answer answer2 = new Answer(UUID.randomUUID(), "London", true);
+        Answer answer3 = new Answer(UUID.randomUUID(), "Berlin", false);
+        Answer answer4 = new Answer(UUID.randomUUID(), "Madrid", false);
+        Question question = new Question(questionId, "Capital of UK?", List.of(answer1, answer2, answer3, answer4));
+
+        stubQuestion(questionService, question, 5);
+
+        List<AnswerResult> results = service.submitAnswers(List.of(
+            new AnswerSubmission("alice", questionId, "B"),
+            new AnswerSubmission("bob", questionId, "A"),
+            new AnswerSubmission("", questionId, "B"),
+            new AnswerSubmission("carol", UUID.randomUUID(), "B"),
+            new AnswerSubmission("carol", questionId, "B")));
+
+        assertEquals(List.of(
+            new AnswerResult(true, "B", null),
+            new AnswerResult(false, "B", null),
+            new AnswerResult(null, null, "Invalid username"),
+            new AnswerResult(null, null, "Question not found"),
+            new AnswerResult(true, "B", null)), results);
+        verify(leaderboardService, times(1)).recordCorrectAnswers(
+            argThat(ids -> ids[0] == 0 && ids[1] == 2), argThat(indexes -> indexes[0] == 5 && indexes[1] == 5), eq(2));
+        verify(leaderboardService, never()).recordAnswer(anyInt(), anyInt(), anyBoolean());
+        verify(questionService, times(1)).recordAnswer(0, 5, 0, "B", true);
+        verify(questionService, times(1)).recordAnswer(1, 5, 0, "A", false);
+        verify(questionService, times(1)).recordAnswer(2, 5, 0, "B", true);
+        verify(questionService, times(3)).recordAnswer(anyInt(), anyInt(), anyInt(), anyString(), anyBoolean());
+    }
+
+    @Test
+    void shouldNotRecordQuestionStatsForBatchRejectedByLeaderboard() {
+        QuestionService questionService = mock(QuestionService.class);
+        LeaderboardService leaderboardService = mock(LeaderboardService.class);
+        EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
+
+        UUID questionId = UUID.randomUUID();
+        Answer answer1 = new Answer(UUID.randomUUID(), "Paris", false);
+        Answer answer2 = new Answer(UUID.randomUUID(), "London", true);
+        Answer answer3 = new Answer(UUID.randomUUID(), "Berlin", false);
+        Answer answer4 = new Answer(UUID.randomUUID(), "Madrid", false);
+        Question question = new Question(questionId, "Capital of UK?", List.of(answer1, answer2, answer3, answer4));
+        stubQuestion(questionService, question, 5);
+        doThrow(new RejectedExecutionException("Leaderboard write buffer is full"))
+            .when(leaderboardService).recordCorrectAnswers(any(), any(), anyInt());
+
+        List<AnswerSubmission> batch = List.of(
+            new AnswerSubmission("alice", questionId, "B"),
+            new AnswerSubmission("bob", questionId, "A"));
+        assertThrows(RejectedExecutionException.class, () -> service.submitAnswers(batch));
+
+        verify(questionService, never()).recordAnswer(anyInt(), anyInt(), anyInt(), anyString(), anyBoolean());
+    }
+
+    @Test
+    void shouldRejectEmptyOrOversizedBatch() {
+        QuestionService questionService = mock(QuestionService.class);
+        LeaderboardService leaderboardService = mock(LeaderboardService.class);
+        EnvironmentRepository environmentRepository = mock(EnvironmentRepository.class);
+        AnswerService service = new AnswerService(questionService, leaderboardService, new PlayerService(new PlayerRepository()), environmentRepository, true);
+
+        AnswerSubmission submission = new AnswerSubmission("user", UUID.randomUUID(), "A");
+        List<AnswerSubmission> oversized = Collections.nCopies(AnswerService.MAX_BATCH_SIZE + 1, submission);
+
+        assertEquals("Invalid batch", assertThrows(IllegalArgumentException.class,
+            () -> service.submitAnswers(List.of())).getMessage());
+        assertEquals("Invalid batch", assertThrows(IllegalArgumentException.class,
+            () -> service.submitAnswers(null)).getMessage());
+        assertEquals("Batch too large", assertThrows(IllegalArgumentException.class,
+            () -> service.submitAnswers(oversized)).getMessage());
+        verifyNoInteractions(leaderboardService);
+    }
+
+    private static void stubQuestion(QuestionService questionService, Question question, int questionIndex) {
+        int correct = 0;
+        while (!question.optionalAnswers().get(correct).isCorrect()) {
+            correct++;
+        }
+        String correctAnswer = QuestionRepository.ANSWER_LETTERS.get(correct);
+        when(questionService.getQuestionIndex(question.id())).thenReturn(questionIndex);
+        when(questionService.getQuestionByIndex(questionIndex)).thenReturn(Optional.of(question));
+        when(questionService.getCorrectAnswer(questionIndex)).thenReturn(correctAnswer);
+        when(questionService.isCorrectAnswer(eq(questionIndex), anyString()))
+            .thenAnswer(invocation -> correctAnswer.equals(invocation.getArgument(1)));
+    }
 }
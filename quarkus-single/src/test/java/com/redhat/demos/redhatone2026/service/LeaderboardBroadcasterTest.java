@@ -0,0 +1,101 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.demos.redhatone2026.repository.LeaderboardRepository;
+import com.redhat.demos.redhatone2026.repository.PlayerRepository;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardBroadcasterTest {
+
+    private static final Duration STREAM_INTERVAL = Duration.ofMillis(20);
+
+    private final PlayerRepository players = new PlayerRepository();
+
+    @Test
+    void shouldThrowExceptionWhenServiceIsNull() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new LeaderboardBroadcaster(null, new ObjectMapper(), STREAM_INTERVAL, 10)
+        );
+
+        assertEquals("LeaderboardService cannot be null", exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectInvalidStreamSize() {
+        LeaderboardService service = new LeaderboardService(new LeaderboardRepository(players), Duration.ZERO);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new LeaderboardBroadcaster(service, new ObjectMapper(), STREAM_INTERVAL, 0));
+    }
+
+    @Test
+    void shouldSendCurrentLeaderboardOnSubscribe() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        repository.recordAnswer(players.register("alice"), 0, true);
+        LeaderboardBroadcaster broadcaster = newBroadcaster(repository, 10);
+
+        AssertSubscriber<String> subscriber = broadcaster.stream()
+                .subscribe().withSubscriber(AssertSubscriber.create(1));
+
+        subscriber.awaitItems(1);
+        assertEquals("[{\"username\":\"alice\",\"score\":1,\"rank\":1,\"questionsAnsweredCorrectly\":1}]",
+                subscriber.getItems().get(0));
+        subscriber.cancel();
+    }
+
+    @Test
+    void shouldPushFrameWhenRankingsChange() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        repository.recordAnswer(players.register("alice"), 0, true);
+        LeaderboardBroadcaster broadcaster = newBroadcaster(repository, 1);
+
+        AssertSubscriber<String> subscriber = broadcaster.stream()
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        subscriber.awaitItems(1);
+
+        repository.recordAnswer(players.register("bob"), 0, true);
+        repository.recordAnswer(players.register("bob"), 1, true);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!latestItem(subscriber).contains("\"username\":\"bob\"") && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(latestItem(subscriber).contains("\"username\":\"bob\""), latestItem(subscriber));
+        subscriber.cancel();
+    }
+
+    @Test
+    void shouldShareFramesBetweenSubscribers() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        repository.recordAnswer(players.register("alice"), 0, true);
+        LeaderboardBroadcaster broadcaster = newBroadcaster(repository, 10);
+
+        AssertSubscriber<String> first = broadcaster.stream()
+                .subscribe().withSubscriber(AssertSubscriber.create(1));
+        AssertSubscriber<String> second = broadcaster.stream()
+                .subscribe().withSubscriber(AssertSubscriber.create(1));
+
+        first.awaitItems(1);
+        second.awaitItems(1);
+        assertSame(first.getItems().get(0), second.getItems().get(0));
+        first.cancel();
+        second.cancel();
+    }
+
+    private String latestItem(AssertSubscriber<String> subscriber) {
+        List<String> items = subscriber.getItems();
+        return items.get(items.size() - 1);
+    }
+
+    private LeaderboardBroadcaster newBroadcaster(LeaderboardRepository repository, int streamSize) {
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
+        return new LeaderboardBroadcaster(service, new ObjectMapper(), STREAM_INTERVAL, streamSize);
+    }
+}
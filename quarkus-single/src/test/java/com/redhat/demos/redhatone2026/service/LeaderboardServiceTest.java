@@ -1,70 +1,85 @@
 package com.redhat.demos.redhatone2026.service;
 
 import com.redhat.demos.redhatone2026.model.LeaderboardEntry;
+import com.redhat.demos.redhatone2026.model.LeaderboardPage;
+import com.redhat.demos.redhatone2026.model.PlayerStanding;
 import com.redhat.demos.redhatone2026.repository.LeaderboardRepository;
+import com.redhat.demos.redhatone2026.repository.PlayerRepository;
 import org.junit.jupiter.api.Test;
 
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
-import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class LeaderboardServiceTest {
 
+    private final PlayerRepository players = new PlayerRepository();
+    private int questionCount;
+
     @Test
     void shouldThrowExceptionWhenRepositoryIsNull() {
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
-            () -> new LeaderboardService(null)
+            () -> new LeaderboardService(null, Duration.ZERO)
         );
 
         assertEquals("LeaderboardRepository cannot be null", exception.getMessage());
     }
 
     @Test
-    void shouldDelegateRecordAnswerToRepository() {
-        LeaderboardRepository mockRepository = mock(LeaderboardRepository.class);
-        LeaderboardService service = new LeaderboardService(mockRepository);
-        UUID questionId = UUID.randomUUID();
+    void shouldApplyCorrectAnswerByFlush() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
+        int alice = players.register("alice");
 
-        service.recordAnswer("testuser", questionId, true);
+        service.recordAnswer(alice, 7, true);
+        service.flush();
 
-        verify(mockRepository, times(1)).recordAnswer("testuser", questionId, true);
+        assertEquals(1, repository.getScore(alice));
+        assertEquals(1, service.getLeaderboard().size());
     }
 
     @Test
-    void shouldDelegateIncorrectAnswerToRepository() {
+    void shouldValidateButNotQueueIncorrectAnswer() {
         LeaderboardRepository mockRepository = mock(LeaderboardRepository.class);
-        LeaderboardService service = new LeaderboardService(mockRepository);
-        UUID questionId = UUID.randomUUID();
+        LeaderboardService service = new LeaderboardService(mockRepository, Duration.ZERO);
+        int questionIndex = 7;
 
-        service.recordAnswer("testuser", questionId, false);
+        service.recordAnswer(1, questionIndex, false);
+        service.flush();
 
-        verify(mockRepository, times(1)).recordAnswer("testuser", questionId, false);
+        verify(mockRepository, times(1)).validateAnswer(1, questionIndex);
+        verify(mockRepository, never()).recordCorrectAnswers(any(), any(), anyInt());
     }
 
     @Test
-    void shouldDelegateMultipleRecordAnswerCalls() {
-        LeaderboardRepository mockRepository = mock(LeaderboardRepository.class);
-        LeaderboardService service = new LeaderboardService(mockRepository);
-        UUID question1 = UUID.randomUUID();
-        UUID question2 = UUID.randomUUID();
+    void shouldRejectUnknownPlayerOnCallingThread() {
+        LeaderboardService service = new LeaderboardService(new LeaderboardRepository(players), Duration.ZERO);
 
-        service.recordAnswer("user1", question1, true);
-        service.recordAnswer("user2", question2, false);
+        assertThrows(IllegalArgumentException.class, () -> service.recordAnswer(42, 0, true));
+    }
 
-        verify(mockRepository, times(1)).recordAnswer("user1", question1, true);
-        verify(mockRepository, times(1)).recordAnswer("user2", question2, false);
+    @Test
+    void shouldApplyMultipleRecordAnswerCalls() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
+        int alice = players.register("alice");
+        int bob = players.register("bob");
+
+        service.recordAnswer(alice, 3, true);
+        service.recordAnswer(bob, 4, false);
+        service.recordAnswer(alice, 3, true);
+        service.flush();
+
+        assertEquals(1, repository.getScore(alice));
+        assertEquals(0, repository.getScore(bob));
     }
 
     @Test
     void shouldReturnEmptyLeaderboardWhenNoUsers() {
-        LeaderboardRepository mockRepository = mock(LeaderboardRepository.class);
-        when(mockRepository.getAllScores()).thenReturn(new HashMap<>());
-
-        LeaderboardService service = new LeaderboardService(mockRepository);
+        LeaderboardService service = new LeaderboardService(new LeaderboardRepository(players), Duration.ZERO);
         List<LeaderboardEntry> leaderboard = service.getLeaderboard();
 
         assertTrue(leaderboard.isEmpty());
@@ -72,18 +87,12 @@ class LeaderboardServiceTest {
 
     @Test
     void shouldSortLeaderboardByScoreDescending() {
-        LeaderboardRepository mockRepository = mock(LeaderboardRepository.class);
-        HashMap<String, Integer> scores = new HashMap<>();
-        scores.put("alice", 15);
-        scores.put("bob", 20);
-        scores.put("charlie", 10);
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        recordCorrectAnswers(repository, "alice", 15);
+        recordCorrectAnswers(repository, "bob", 20);
+        recordCorrectAnswers(repository, "charlie", 10);
 
-        when(mockRepository.getAllScores()).thenReturn(scores);
-        when(mockRepository.getQuestionsAnsweredCorrectly("alice")).thenReturn(15);
-        when(mockRepository.getQuestionsAnsweredCorrectly("bob")).thenReturn(20);
-        when(mockRepository.getQuestionsAnsweredCorrectly("charlie")).thenReturn(10);
-
-        LeaderboardService service = new LeaderboardService(mockRepository);
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
         List<LeaderboardEntry> leaderboard = service.getLeaderboard();
 
         assertEquals(3, leaderboard.size());
@@ -94,18 +103,12 @@ class LeaderboardServiceTest {
 
     @Test
     void shouldApplyAlphabeticalTiebreaker() {
-        LeaderboardRepository mockRepository = mock(LeaderboardRepository.class);
-        HashMap<String, Integer> scores = new HashMap<>();
-        scores.put("charlie", 10);
-        scores.put("alice", 10);
-        scores.put("bob", 10);
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        recordCorrectAnswers(repository, "charlie", 10);
+        recordCorrectAnswers(repository, "alice", 10);
+        recordCorrectAnswers(repository, "bob", 10);
 
-        when(mockRepository.getAllScores()).thenReturn(scores);
-        when(mockRepository.getQuestionsAnsweredCorrectly("alice")).thenReturn(10);
-        when(mockRepository.getQuestionsAnsweredCorrectly("bob")).thenReturn(10);
-        when(mockRepository.getQuestionsAnsweredCorrectly("charlie")).thenReturn(10);
-
-        LeaderboardService service = new LeaderboardService(mockRepository);
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
         List<LeaderboardEntry> leaderboard = service.getLeaderboard();
 
         assertEquals(3, leaderboard.size());
@@ -115,38 +118,182 @@ class LeaderboardServiceTest {
     }
 
     @Test
-    void shouldAssignSequentialRanks() {
-        LeaderboardRepository mockRepository = mock(LeaderboardRepository.class);
-        HashMap<String, Integer> scores = new HashMap<>();
-        scores.put("alice", 15);
-        scores.put("bob", 12);
-        scores.put("charlie", 12);
-
-        when(mockRepository.getAllScores()).thenReturn(scores);
-        when(mockRepository.getQuestionsAnsweredCorrectly("alice")).thenReturn(15);
-        when(mockRepository.getQuestionsAnsweredCorrectly("bob")).thenReturn(12);
-        when(mockRepository.getQuestionsAnsweredCorrectly("charlie")).thenReturn(12);
+    void shouldAssignSharedRanksToTiedScores() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        recordCorrectAnswers(repository, "alice", 15);
+        recordCorrectAnswers(repository, "bob", 12);
+        recordCorrectAnswers(repository, "charlie", 12);
 
-        LeaderboardService service = new LeaderboardService(mockRepository);
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
         List<LeaderboardEntry> leaderboard = service.getLeaderboard();
 
         assertEquals(1, leaderboard.get(0).rank());
         assertEquals(2, leaderboard.get(1).rank());
-        assertEquals(3, leaderboard.get(2).rank());
+        assertEquals(2, leaderboard.get(2).rank());
+        assertEquals(service.getPlayerStanding("charlie", 0).rank(), leaderboard.get(2).rank());
     }
 
     @Test
     void shouldIncludeQuestionsAnsweredCorrectlyCount() {
-        LeaderboardRepository mockRepository = mock(LeaderboardRepository.class);
-        HashMap<String, Integer> scores = new HashMap<>();
-        scores.put("alice", 15);
-
-        when(mockRepository.getAllScores()).thenReturn(scores);
-        when(mockRepository.getQuestionsAnsweredCorrectly("alice")).thenReturn(15);
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        recordCorrectAnswers(repository, "alice", 15);
 
-        LeaderboardService service = new LeaderboardService(mockRepository);
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
         List<LeaderboardEntry> leaderboard = service.getLeaderboard();
 
         assertEquals(15, leaderboard.get(0).questionsAnsweredCorrectly());
     }
+
+    @Test
+    void shouldReorderLeaderboardWhenScoresChange() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        recordCorrectAnswers(repository, "alice", 2);
+        recordCorrectAnswers(repository, "bob", 1);
+
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
+        assertEquals("alice", service.getLeaderboard().get(0).username());
+
+        recordCorrectAnswers(repository, "bob", 2);
+        List<LeaderboardEntry> leaderboard = service.getLeaderboard();
+
+        assertEquals(2, leaderboard.size());
+        assertEquals("bob", leaderboard.get(0).username());
+        assertEquals(3, leaderboard.get(0).score());
+        assertEquals("alice", leaderboard.get(1).username());
+        assertEquals(2, leaderboard.get(1).rank());
+    }
+
+    @Test
+    void shouldPageThroughLeaderboardWithCursor() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        recordCorrectAnswers(repository, "alice", 3);
+        recordCorrectAnswers(repository, "bob", 2);
+        recordCorrectAnswers(repository, "charlie", 1);
+
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
+        LeaderboardPage firstPage = service.getLeaderboardPage(2, null);
+
+        assertEquals(2, firstPage.entries().size());
+        assertEquals("alice", firstPage.entries().get(0).username());
+        assertEquals("bob", firstPage.entries().get(1).username());
+        assertNotNull(firstPage.nextCursor());
+
+        LeaderboardPage secondPage = service.getLeaderboardPage(2, firstPage.nextCursor());
+
+        assertEquals(1, secondPage.entries().size());
+        assertEquals(new LeaderboardEntry("charlie", 1, 3, 1), secondPage.entries().get(0));
+        assertNull(secondPage.nextCursor());
+    }
+
+    @Test
+    void shouldKeepNextPageStableWhenEarlierScoresChange() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        recordCorrectAnswers(repository, "alice", 3);
+        recordCorrectAnswers(repository, "bob", 2);
+        recordCorrectAnswers(repository, "charlie", 1);
+
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
+        LeaderboardPage firstPage = service.getLeaderboardPage(1, null);
+
+        // A user below the cursor moves above it; the next page must not repeat alice
+        recordCorrectAnswers(repository, "charlie", 5);
+        LeaderboardPage secondPage = service.getLeaderboardPage(1, firstPage.nextCursor());
+
+        assertEquals("bob", secondPage.entries().get(0).username());
+        // Ranks are current, so bob is ranked after charlie even though the page follows alice
+        assertEquals(3, secondPage.entries().get(0).rank());
+    }
+
+    @Test
+    void shouldRejectInvalidPageLimit() {
+        LeaderboardService service = new LeaderboardService(new LeaderboardRepository(players), Duration.ZERO);
+
+        assertThrows(IllegalArgumentException.class, () -> service.getLeaderboardPage(0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getLeaderboardPage(LeaderboardService.MAX_PAGE_SIZE + 1, null));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        LeaderboardService service = new LeaderboardService(new LeaderboardRepository(players), Duration.ZERO);
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> service.getLeaderboardPage(10, "not a cursor")
+        );
+
+        assertEquals("Invalid cursor", exception.getMessage());
+    }
+
+    @Test
+    void shouldReturnPlayerStanding() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        recordCorrectAnswers(repository, "alice", 3);
+        recordCorrectAnswers(repository, "bob", 1);
+
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
+        PlayerStanding standing = service.getPlayerStanding("bob", LeaderboardService.DEFAULT_NEIGHBOURS);
+
+        assertEquals(2, standing.rank());
+        assertEquals(1, standing.score());
+        assertEquals("alice", standing.above().get(0).username());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenSnapshotIntervalIsNegative() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new LeaderboardService(new LeaderboardRepository(players), Duration.ofMillis(-1))
+        );
+
+        assertEquals("Snapshot interval cannot be null or negative", exception.getMessage());
+    }
+
+    @Test
+    void shouldReuseLeaderboardSnapshotUntilScoresChange() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        recordCorrectAnswers(repository, "alice", 2);
+
+        LeaderboardService service = new LeaderboardService(repository, Duration.ZERO);
+        List<LeaderboardEntry> first = service.getLeaderboard();
+        LeaderboardPage firstPage = service.getLeaderboardPage(10, null);
+
+        assertSame(first, service.getLeaderboard());
+        assertSame(firstPage, service.getLeaderboardPage(10, null));
+
+        recordCorrectAnswers(repository, "bob", 3);
+
+        List<LeaderboardEntry> updated = service.getLeaderboard();
+        assertNotSame(first, updated);
+        assertEquals("bob", updated.get(0).username());
+        assertNotSame(firstPage, service.getLeaderboardPage(10, null));
+    }
+
+    @Test
+    void shouldNotRebuildSnapshotMoreOftenThanInterval() {
+        LeaderboardRepository repository = new LeaderboardRepository(players);
+        recordCorrectAnswers(repository, "alice", 2);
+
+        LeaderboardService service = new LeaderboardService(repository, Duration.ofHours(1));
+        List<LeaderboardEntry> first = service.getLeaderboard();
+
+        recordCorrectAnswers(repository, "bob", 3);
+
+        assertSame(first, service.getLeaderboard());
+    }
+
+    @Test
+    void shouldRejectInvalidStandingRequests() {
+        LeaderboardService service = new LeaderboardService(new LeaderboardRepository(players), Duration.ZERO);
+
+        assertThrows(IllegalArgumentException.class, () -> service.getPlayerStanding("", 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getPlayerStanding("alice", LeaderboardService.MAX_NEIGHBOURS + 1));
+    }
+
+    private void recordCorrectAnswers(LeaderboardRepository repository, String username, int count) {
+        for (int i = 0; i < count; i++) {
+            repository.recordAnswer(players.register(username), questionCount++, true);
+        }
+    }
 }
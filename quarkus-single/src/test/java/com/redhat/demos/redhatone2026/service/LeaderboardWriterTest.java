@@ -0,0 +1,139 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.redhat.demos.redhatone2026.repository.LeaderboardRepository;
+import com.redhat.demos.redhatone2026.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import io.vertx.core.Vertx;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LeaderboardWriterTest {
+
+    private PlayerRepository players;
+    private LeaderboardRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        players = new PlayerRepository();
+        repository = new LeaderboardRepository(players);
+    }
+
+    @Test
+    void shouldRejectCapacityThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new LeaderboardWriter(repository, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LeaderboardWriter(repository, 100));
+    }
+
+    @Test
+    void shouldApplyAnswersPastBufferCapacity() {
+        LeaderboardWriter writer = new LeaderboardWriter(repository, 8);
+        int alice = players.register("alice");
+
+        for (int question = 0; question < 100; question++) {
+            writer.publish(alice, question);
+        }
+        writer.flush();
+
+        assertEquals(100, repository.getScore(alice));
+    }
+
+    @Test
+    void shouldApplyBatchLargerThanBufferCapacity() {
+        LeaderboardWriter writer = new LeaderboardWriter(repository, 8);
+        int alice = players.register("alice");
+        int[] playerIds = new int[100];
+        int[] questionIndexes = new int[100];
+        for (int i = 0; i < 100; i++) {
+            playerIds[i] = alice;
+            questionIndexes[i] = i;
+        }
+
+        writer.publish(playerIds, questionIndexes, 100);
+        writer.flush();
+
+        assertEquals(100, repository.getScore(alice));
+    }
+
+    @Test
+    void shouldApplyEveryAnswerFromConcurrentPublishers() throws Exception {
+        int publishers = 8;
+        int playersPerPublisher = 250;
+        int questionsPerPlayer = 100;
+        for (int i = 0; i < publishers * playersPerPublisher; i++) {
+            players.register("player" + i);
+        }
+        LeaderboardWriter writer = new LeaderboardWriter(repository, 1024);
+
+        ExecutorService executor = Executors.newFixedThreadPool(publishers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < publishers; p++) {
+            int firstPlayer = p * playersPerPublisher;
+            futures.add(executor.submit(() -> {
+                for (int question = 0; question < questionsPerPlayer; question++) {
+                    for (int playerId = firstPlayer; playerId < firstPlayer + playersPerPublisher; playerId++) {
+                        writer.publish(playerId, question);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        writer.flush();
+        executor.shutdown();
+
+        int answers = publishers * playersPerPublisher * questionsPerPlayer;
+        int total = repository.getAllScores().values().stream().mapToInt(Integer::intValue).sum();
+        assertEquals(answers, total);
+        assertEquals(publishers * playersPerPublisher, repository.getRankedEntries().size());
+    }
+
+    @Test
+    void shouldRejectRatherThanBlockOnEventLoopWhenBufferIsFull() throws Exception {
+        LeaderboardRepository blockedRepository = mock(LeaderboardRepository.class);
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(blockedRepository.recordCorrectAnswers(any(), any(), anyInt())).thenAnswer(invocation -> {
+            applying.countDown();
+            release.await(30, TimeUnit.SECONDS);
+            return 0;
+        });
+        LeaderboardWriter writer = new LeaderboardWriter(blockedRepository, 2);
+
+        // The writer takes the first answer and stalls while applying it; the next two fill the buffer
+        writer.publish(0, 0);
+        assertTrue(applying.await(30, TimeUnit.SECONDS));
+        writer.publish(0, 1);
+        writer.publish(0, 2);
+
+        Vertx vertx = Vertx.vertx();
+        try {
+            CompletableFuture<Throwable> failure = new CompletableFuture<>();
+            vertx.runOnContext(ignored -> {
+                try {
+                    writer.publish(0, 3);
+                    failure.complete(null);
+                } catch (RuntimeException e) {
+                    failure.complete(e);
+                }
+            });
+            assertInstanceOf(RejectedExecutionException.class, failure.get(30, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            vertx.close().toCompletionStage().toCompletableFuture().get(30, TimeUnit.SECONDS);
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,70 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.redhat.demos.redhatone2026.model.Player;
+import com.redhat.demos.redhatone2026.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerServiceTest {
+
+    @Test
+    void shouldThrowExceptionWhenRepositoryIsNull() {
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> new PlayerService(null)
+        );
+
+        assertEquals("PlayerRepository cannot be null", exception.getMessage());
+    }
+
+    @Test
+    void shouldJoinWithTrimmedUsername() {
+        PlayerService service = new PlayerService(new PlayerRepository());
+
+        Player player = service.join("  alice ");
+
+        assertEquals(new Player(0, "alice"), player);
+        assertEquals("alice", service.getUsername(player.playerId()));
+    }
+
+    @Test
+    void shouldReturnSamePlayerWhenJoiningAgain() {
+        PlayerService service = new PlayerService(new PlayerRepository());
+
+        assertEquals(service.join("alice"), service.join("alice"));
+    }
+
+    @Test
+    void shouldRejectBlankUsername() {
+        PlayerService service = new PlayerService(new PlayerRepository());
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> service.join("   ")
+        );
+
+        assertEquals("Invalid username", exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectUsernameLongerThanMaximum() {
+        PlayerService service = new PlayerService(new PlayerRepository());
+        String longest = "a".repeat(PlayerService.MAX_USERNAME_LENGTH);
+
+        assertEquals(longest, service.join("  " + longest + "  ").username());
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> service.join(longest + "a")
+        );
+
+        assertEquals("Invalid username", exception.getMessage());
+    }
+
+    @Test
+    void shouldAcceptUsernameMatchingLeaderboardStreamPath() {
+        PlayerService service = new PlayerService(new PlayerRepository());
+
+        assertEquals("stream", service.join(" stream ").username());
+    }
+}
@@ -1,16 +1,24 @@
 package com.redhat.demos.redhatone2026.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.redhat.demos.redhatone2026.model.Answer;
+import com.redhat.demos.redhatone2026.model.AnswerDistribution;
+import com.redhat.demos.redhatone2026.model.Difficulty;
 import com.redhat.demos.redhatone2026.model.Question;
 import com.redhat.demos.redhatone2026.model.TriviaQuestion;
 import com.redhat.demos.redhatone2026.repository.EnvironmentRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionDeckRepository;
 import com.redhat.demos.redhatone2026.repository.QuestionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,26 +28,51 @@ class QuestionServiceTest {
 
     private QuestionRepository questionRepository;
     private EnvironmentRepository environmentRepository;
+    private QuestionDeckRepository questionDeckRepository;
+    private QuestionStatsService questionStatsService;
     private QuestionService questionService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final QuestionTokenService questionTokenService = QuestionTokenService.withRandomKey();
 
     @BeforeEach
     void setUp() {
         questionRepository = Mockito.mock(QuestionRepository.class);
         environmentRepository = Mockito.mock(EnvironmentRepository.class);
-        questionService = new QuestionService(questionRepository, environmentRepository);
+        questionDeckRepository = new QuestionDeckRepository();
+        questionStatsService = QuestionServices.deckStats(questionRepository);
+        questionService = QuestionServices.create(questionRepository, environmentRepository, questionDeckRepository,
+            objectMapper, questionTokenService, QuestionService.DEFAULT_PRERENDER_LIMIT);
     }
 
     @Test
     void shouldThrowExceptionWhenQuestionRepositoryIsNull() {
         assertThrows(IllegalArgumentException.class, () -> {
-            new QuestionService(null, environmentRepository);
+            new QuestionService(null, environmentRepository, questionDeckRepository, objectMapper, questionTokenService,
+                questionStatsService, QuestionService.DEFAULT_PRERENDER_LIMIT);
         });
     }
 
     @Test
     void shouldThrowExceptionWhenEnvironmentRepositoryIsNull() {
         assertThrows(IllegalArgumentException.class, () -> {
-            new QuestionService(questionRepository, null);
+            new QuestionService(questionRepository, null, questionDeckRepository, objectMapper, questionTokenService,
+                questionStatsService, QuestionService.DEFAULT_PRERENDER_LIMIT);
+        });
+    }
+
+    @Test
+    void shouldThrowExceptionWhenQuestionDeckRepositoryIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new QuestionService(questionRepository, environmentRepository, null, objectMapper, questionTokenService,
+                questionStatsService, QuestionService.DEFAULT_PRERENDER_LIMIT);
+        });
+    }
+
+    @Test
+    void shouldThrowExceptionWhenObjectMapperIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new QuestionService(questionRepository, environmentRepository, questionDeckRepository, null, questionTokenService,
+                questionStatsService, QuestionService.DEFAULT_PRERENDER_LIMIT);
         });
     }
 
@@ -125,10 +158,7 @@ class QuestionServiceTest {
         assertTrue(result.isPresent());
         TriviaQuestion triviaQuestion = result.get();
         assertEquals("What is Quarkus?", triviaQuestion.questionText());
-        assertEquals("A framework", triviaQuestion.option1());
-        assertEquals("A database", triviaQuestion.option2());
-        assertEquals("An IDE", triviaQuestion.option3());
-        assertEquals("A server", triviaQuestion.option4());
+        assertShownInTokenOrder(mockQuestion, triviaQuestion);
         assertEquals("Quarkus is awesome", triviaQuestion.environment());
         verify(questionRepository, times(1)).findRandom();
         verify(environmentRepository, times(1)).getRandomMessage();
@@ -157,10 +187,287 @@ class QuestionServiceTest {
 
         assertTrue(result.isPresent());
         TriviaQuestion triviaQuestion = result.get();
-        assertEquals("Option A", triviaQuestion.option1());
-        assertEquals("Option B", triviaQuestion.option2());
-        assertEquals("Option C", triviaQuestion.option3());
-        assertEquals("Option D", triviaQuestion.option4());
+        assertEquals(Set.of("Option A", "Option B", "Option C", "Option D"), Set.of(triviaQuestion.option1(),
+            triviaQuestion.option2(), triviaQuestion.option3(), triviaQuestion.option4()));
+        assertShownInTokenOrder(mockQuestion, triviaQuestion);
+    }
+
+    @Test
+    void shouldServePreRenderedTriviaQuestionJson() throws Exception {
+        Question mockQuestion = createMockQuestionWithFourAnswers(
+            "What is Quarkus?", "A framework", "A database", "An IDE", "A server"
+        );
+        when(questionRepository.findAll()).thenReturn(List.of(mockQuestion));
+        when(environmentRepository.getAllMessages()).thenReturn(List.of("First message", "Second message"));
+        when(environmentRepository.getRandomMessageIndex()).thenReturn(1);
+        questionService.onStart(null);
+
+        // Each answer order is rendered once, so every response with the same token shares its bytes
+        Map<String, byte[]> byToken = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            Optional<byte[]> json = questionService.getRandomTriviaQuestionJson();
+            assertTrue(json.isPresent());
+            TriviaQuestion triviaQuestion = objectMapper.readValue(json.get(), TriviaQuestion.class);
+            assertEquals("What is Quarkus?", triviaQuestion.questionText());
+            assertEquals("Second message", triviaQuestion.environment());
+            assertShownInTokenOrder(mockQuestion, triviaQuestion);
+            assertSame(byToken.computeIfAbsent(triviaQuestion.token(), token -> json.get()), json.get());
+        }
+        assertTrue(byToken.size() > 1, "Answers should be served in more than one order");
+        assertTrue(byToken.size() <= QuestionTokenService.ANSWER_ORDERS);
+        verify(environmentRepository, times(1)).getAllMessages();
+    }
+
+    @Test
+    void shouldRenderTriviaQuestionJsonAgainWhenQuestionsChange() throws Exception {
+        Question before = createMockQuestionWithFourAnswers("Before?", "A", "B", "C", "D");
+        Question after = createMockQuestionWithFourAnswers("After?", "A", "B", "C", "D");
+        when(questionRepository.findAll()).thenReturn(List.of(before), List.of(after));
+        when(environmentRepository.getAllMessages()).thenReturn(List.of("Message"));
+
+        byte[] first = questionService.getRandomTriviaQuestionJson().orElseThrow();
+        byte[] second = questionService.getRandomTriviaQuestionJson().orElseThrow();
+
+        assertEquals("Before?", objectMapper.readValue(first, TriviaQuestion.class).questionText());
+        assertEquals("After?", objectMapper.readValue(second, TriviaQuestion.class).questionText());
+        verify(environmentRepository, never()).getAllMessages();
+    }
+
+    @Test
+    void shouldServeReloadedQuestionsOneAtATimeUntilTheirRenderingIsPublished() throws Exception {
+        Question before = createMockQuestionWithFourAnswers("Before?", "A", "B", "C", "D");
+        Question after = createMockQuestionWithFourAnswers("After?", "A", "B", "C", "D");
+        List<Question> reloaded = List.of(after);
+        when(environmentRepository.getAllMessages()).thenReturn(List.of("Message"));
+        when(environmentRepository.getRandomMessage()).thenReturn("Message");
+        List<Question> current = List.of(before);
+        when(questionRepository.findAll()).thenReturn(current);
+        questionService.questionsReloaded(current);
+
+        // The repository serves the new questions before the listener has rendered them
+        when(questionRepository.findAll()).thenReturn(reloaded);
+        byte[] first = questionService.getRandomTriviaQuestionJson().orElseThrow();
+        byte[] second = questionService.getRandomTriviaQuestionJson().orElseThrow();
+
+        assertEquals("After?", objectMapper.readValue(first, TriviaQuestion.class).questionText());
+        assertEquals("After?", objectMapper.readValue(second, TriviaQuestion.class).questionText());
+        verify(environmentRepository, times(1)).getAllMessages();
+        verify(environmentRepository, times(2)).getRandomMessage();
+
+        questionService.questionsReloaded(reloaded);
+        byte[] rendered = questionService.getRandomTriviaQuestionJson().orElseThrow();
+        assertEquals("After?", objectMapper.readValue(rendered, TriviaQuestion.class).questionText());
+        verify(environmentRepository, times(2)).getAllMessages();
+        verify(environmentRepository, times(2)).getRandomMessage();
+    }
+
+    @Test
+    void shouldReturnEmptyTriviaQuestionJsonWhenNoQuestionsAvailable() {
+        when(questionRepository.findAll()).thenReturn(List.of());
+        when(environmentRepository.getAllMessages()).thenReturn(List.of("Message"));
+
+        assertFalse(questionService.getRandomTriviaQuestionJson().isPresent());
+    }
+
+    @Test
+    void shouldServeEveryQuestionOnceFromPlayerDeckBeforeRepeating() throws Exception {
+        List<Question> questions = List.of(
+            createMockQuestionWithFourAnswers("Q1?", "A", "B", "C", "D"),
+            createMockQuestionWithFourAnswers("Q2?", "A", "B", "C", "D"),
+            createMockQuestionWithFourAnswers("Q3?", "A", "B", "C", "D"));
+        when(questionRepository.findAll()).thenReturn(questions);
+        when(questionRepository.count()).thenReturn(questions.size());
+        for (int index = 0; index < questions.size(); index++) {
+            when(questionRepository.findByIndex(index)).thenReturn(Optional.of(questions.get(index)));
+        }
+        when(environmentRepository.getAllMessages()).thenReturn(List.of("Message"));
+        when(environmentRepository.getRandomMessage()).thenReturn("Message");
+
+        Set<UUID> fromJson = new HashSet<>();
+        Set<UUID> fromDto = new HashSet<>();
+        for (int i = 0; i < questions.size(); i++) {
+            byte[] json = questionService.getNextTriviaQuestionJson(7).orElseThrow();
+            fromJson.add(objectMapper.readValue(json, TriviaQuestion.class).id());
+            fromDto.add(questionService.getNextTriviaQuestion(8).orElseThrow().id());
+        }
+
+        Set<UUID> ids = Set.of(questions.get(0).id(), questions.get(1).id(), questions.get(2).id());
+        assertEquals(ids, fromJson);
+        assertEquals(ids, fromDto);
+    }
+
+    @Test
+    void shouldReturnEmptyNextTriviaQuestionWhenNoQuestionsAvailable() {
+        when(questionRepository.findAll()).thenReturn(List.of());
+        when(environmentRepository.getAllMessages()).thenReturn(List.of("Message"));
+
+        assertFalse(questionService.getNextTriviaQuestion(0).isPresent());
+        assertFalse(questionService.getNextTriviaQuestionJson(0).isPresent());
+    }
+
+    @Test
+    void shouldRenderReloadedQuestionsBeforeTheyAreRequested() throws Exception {
+        Question reloaded = createMockQuestionWithFourAnswers("Reloaded?", "A", "B", "C", "D");
+        List<Question> questions = List.of(reloaded);
+        when(environmentRepository.getAllMessages()).thenReturn(List.of("Message"));
+
+        // The repository swaps the questions in before it notifies the listener
+        when(questionRepository.findAll()).thenReturn(questions);
+        questionService.questionsReloaded(questions);
+        byte[] json = questionService.getRandomTriviaQuestionJson().orElseThrow();
+
+        assertEquals("Reloaded?", objectMapper.readValue(json, TriviaQuestion.class).questionText());
+        verify(environmentRepository, times(1)).getAllMessages();
+        verify(environmentRepository, never()).getRandomMessage();
+    }
+
+    @Test
+    void shouldSerializeQuestionsPerRequestWhenBankExceedsPrerenderLimit() throws Exception {
+        QuestionService service = QuestionServices.create(questionRepository, environmentRepository,
+            questionDeckRepository, objectMapper, questionTokenService, 1);
+        List<Question> questions = List.of(
+            createMockQuestionWithFourAnswers("First?", "A", "B", "C", "D"),
+            createMockQuestionWithFourAnswers("Second?", "A", "B", "C", "D"));
+        when(questionRepository.findAll()).thenReturn(questions);
+        when(environmentRepository.getRandomMessage()).thenReturn("Message");
+
+        Set<String> served = new HashSet<>();
+        for (int i = 0; i < questions.size(); i++) {
+            TriviaQuestion triviaQuestion = objectMapper.readValue(
+                service.getNextTriviaQuestionJson(7).orElseThrow(), TriviaQuestion.class);
+            assertEquals("Message", triviaQuestion.environment());
+            served.add(triviaQuestion.questionText());
+        }
+        TriviaQuestion random = objectMapper.readValue(
+            service.getRandomTriviaQuestionJson().orElseThrow(), TriviaQuestion.class);
+
+        assertEquals(Set.of("First?", "Second?"), served);
+        assertTrue(served.contains(random.questionText()));
+        verify(environmentRepository, never()).getAllMessages();
+    }
+
+    @Test
+    void shouldServePreRenderedQuestionAtFilteredPosition() throws Exception {
+        List<Question> questions = List.of(
+            createMockQuestionWithFourAnswers("First?", "A", "B", "C", "D"),
+            createMockQuestionWithFourAnswers("Second?", "A", "B", "C", "D"));
+        when(questionRepository.findAll()).thenReturn(questions);
+        when(questionRepository.findRandomPosition("history", Difficulty.HARD)).thenReturn(1);
+        when(questionRepository.findRandomPosition("geography", null)).thenReturn(-1);
+        when(environmentRepository.getAllMessages()).thenReturn(List.of("Message"));
+
+        byte[] json = questionService.getRandomTriviaQuestionJson("history", Difficulty.HARD).orElseThrow();
+
+        assertEquals("Second?", objectMapper.readValue(json, TriviaQuestion.class).questionText());
+        assertTrue(questionService.getRandomTriviaQuestionJson("geography", null).isEmpty());
+    }
+
+    @Test
+    void shouldServeBatchOfDistinctQuestionsFromPlayerDeck() throws Exception {
+        List<Question> questions = List.of(
+            createMockQuestionWithFourAnswers("First?", "A", "B", "C", "D"),
+            createMockQuestionWithFourAnswers("Second?", "A", "B", "C", "D"),
+            createMockQuestionWithFourAnswers("Third?", "A", "B", "C", "D"));
+        when(questionRepository.findAll()).thenReturn(questions);
+        when(environmentRepository.getAllMessages()).thenReturn(List.of("Message"));
+
+        for (int batch = 0; batch < 10; batch++) {
+            TriviaQuestion[] served = objectMapper.readValue(
+                questionService.getNextTriviaQuestionsJson(3, 2), TriviaQuestion[].class);
+            assertEquals(2, served.length);
+            assertNotEquals(served[0].id(), served[1].id());
+        }
+        TriviaQuestion[] all = objectMapper.readValue(
+            questionService.getNextTriviaQuestionsJson(3, QuestionService.MAX_PREFETCH_SIZE), TriviaQuestion[].class);
+        Set<String> texts = new HashSet<>();
+        for (TriviaQuestion question : all) {
+            texts.add(question.questionText());
+        }
+        assertEquals(Set.of("First?", "Second?", "Third?"), texts);
+        assertEquals(3, all.length);
+    }
+
+    @Test
+    void shouldServeEmptyBatchWhenNoQuestionsAvailableAndRejectInvalidCount() {
+        when(questionRepository.findAll()).thenReturn(List.of());
+
+        assertEquals("[]", new String(questionService.getNextTriviaQuestionsJson(3, 5)));
+        assertThrows(IllegalArgumentException.class, () -> questionService.getNextTriviaQuestionsJson(3, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> questionService.getNextTriviaQuestionsJson(3, QuestionService.MAX_PREFETCH_SIZE + 1));
+    }
+
+    @Test
+    void shouldReloadQuestionsThroughRepository() throws Exception {
+        when(questionRepository.reload()).thenReturn(12);
+
+        assertEquals(12, questionService.reloadQuestions());
+        verify(questionRepository, times(1)).reload();
+    }
+
+    @Test
+    void shouldCheckAnswersInTheOrderTheyWereShown() throws Exception {
+        Question mockQuestion = createMockQuestionWithFourAnswers(
+            "What is Quarkus?", "A framework", "A database", "An IDE", "A server"
+        );
+        when(questionRepository.findAll()).thenReturn(List.of(mockQuestion));
+        when(questionRepository.indexOf(mockQuestion.id())).thenReturn(7);
+        when(questionRepository.findCorrectAnswer(7)).thenReturn("A");
+        when(questionRepository.isCorrect(eq(7), anyString()))
+            .thenAnswer(invocation -> "A".equals(invocation.getArgument(1)));
+        when(environmentRepository.getAllMessages()).thenReturn(List.of("Message"));
+
+        Set<String> correctLetters = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            TriviaQuestion triviaQuestion = objectMapper.readValue(
+                questionService.getRandomTriviaQuestionJson().orElseThrow(), TriviaQuestion.class);
+            int answerOrder = questionService.getAnswerOrder(7, triviaQuestion.token());
+            assertTrue(answerOrder >= 0);
+            String correctAnswer = questionService.getCorrectAnswer(7, answerOrder);
+            assertEquals("A framework", options(triviaQuestion).get(QuestionRepository.answerIndex(correctAnswer)));
+            for (String letter : QuestionRepository.ANSWER_LETTERS) {
+                assertEquals(letter.equals(correctAnswer), questionService.isCorrectAnswer(7, answerOrder, letter));
+            }
+            correctLetters.add(correctAnswer);
+        }
+        assertTrue(correctLetters.size() > 1, "The correct answer should not always be shown at the same letter");
+        assertEquals(-1, questionService.getAnswerOrder(8,
+            questionTokenService.issue(7, 0)), "A token is only valid for its own question");
+    }
+
+    @Test
+    void shouldCountRecordedAnswersByTheAnswerChosenWhateverLetterItWasShownAt() {
+        Question question = createMockQuestionWithFourAnswers("Q?", "Right", "Wrong 1", "Wrong 2", "Wrong 3");
+        when(questionRepository.indexOf(question.id())).thenReturn(3);
+        when(questionRepository.findByIndex(3)).thenReturn(Optional.of(question));
+
+        for (int answerOrder = 0; answerOrder < QuestionTokenService.ANSWER_ORDERS; answerOrder++) {
+            String shownLetter = QuestionRepository.ANSWER_LETTERS.get(
+                QuestionTokenService.shownPosition(answerOrder, 2));
+            questionService.recordAnswer(answerOrder, 3, answerOrder, shownLetter, false);
+        }
+
+        AnswerDistribution distribution = questionService.getAnswerDistribution(question.id()).orElseThrow();
+        assertEquals(QuestionTokenService.ANSWER_ORDERS, distribution.total());
+        assertEquals("Wrong 2", distribution.answers().get(2).text());
+        assertEquals(QuestionTokenService.ANSWER_ORDERS, distribution.answers().get(2).count());
+        assertTrue(questionService.getAnswerDistribution(UUID.randomUUID()).isEmpty());
+    }
+
+    private void assertShownInTokenOrder(Question question, TriviaQuestion triviaQuestion) {
+        int answerOrder = questionTokenService.answerOrder(
+            questionRepository.indexOf(question.id()), triviaQuestion.token());
+        assertTrue(answerOrder >= 0, "Token should be valid for the question");
+        List<String> options = options(triviaQuestion);
+        for (int shown = 0; shown < options.size(); shown++) {
+            assertEquals(question.optionalAnswers().get(QuestionTokenService.bankPosition(answerOrder, shown)).text(),
+                options.get(shown));
+        }
+    }
+
+    private static List<String> options(TriviaQuestion triviaQuestion) {
+        return List.of(triviaQuestion.option1(), triviaQuestion.option2(), triviaQuestion.option3(),
+            triviaQuestion.option4());
     }
 
     private Question createMockQuestion(String questionText) {
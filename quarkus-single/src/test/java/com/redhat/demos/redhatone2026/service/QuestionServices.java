@@ -0,0 +1,39 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redhat.demos.redhatone2026.repository.EnvironmentRepository;
+import com.redhat.demos.redhatone2026.repository.LeaderboardRepository;
+import com.redhat.demos.redhatone2026.repository.PlayerRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionDeckRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionStatsRepository;
+
+import java.time.Duration;
+
+/**
+ * Assembles a QuestionService for tests that construct it without CDI, serving questions from the player's deck.
+ */
+final class QuestionServices {
+
+    private QuestionServices() {
+    }
+
+    static QuestionService create(QuestionRepository questionRepository, EnvironmentRepository environmentRepository,
+                                  QuestionDeckRepository questionDeckRepository, ObjectMapper objectMapper) {
+        return create(questionRepository, environmentRepository, questionDeckRepository, objectMapper,
+            QuestionTokenService.withRandomKey(), QuestionService.DEFAULT_PRERENDER_LIMIT);
+    }
+
+    static QuestionService create(QuestionRepository questionRepository, EnvironmentRepository environmentRepository,
+                                  QuestionDeckRepository questionDeckRepository, ObjectMapper objectMapper,
+                                  QuestionTokenService questionTokenService, int prerenderLimit) {
+        return new QuestionService(questionRepository, environmentRepository, questionDeckRepository, objectMapper,
+            questionTokenService, deckStats(questionRepository), prerenderLimit);
+    }
+
+    static QuestionStatsService deckStats(QuestionRepository questionRepository) {
+        return new QuestionStatsService(questionRepository, new QuestionStatsRepository(),
+            new LeaderboardRepository(new PlayerRepository()), QuestionStatsService.Selection.DECK,
+            Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,199 @@
+package com.redhat.demos.redhatone2026.service;
+
+import com.redhat.demos.redhatone2026.model.AnswerCount;
+import com.redhat.demos.redhatone2026.model.AnswerDistribution;
+import com.redhat.demos.redhatone2026.model.Difficulty;
+import com.redhat.demos.redhatone2026.model.Question;
+import com.redhat.demos.redhatone2026.repository.LeaderboardRepository;
+import com.redhat.demos.redhatone2026.repository.PlayerRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionRepository;
+import com.redhat.demos.redhatone2026.repository.QuestionStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionStatsServiceTest {
+
+    private final QuestionRepository questionRepository = new QuestionRepository();
+    private final QuestionStatsRepository questionStatsRepository = new QuestionStatsRepository();
+    private final PlayerRepository playerRepository = new PlayerRepository();
+    private final LeaderboardRepository leaderboardRepository = new LeaderboardRepository(playerRepository);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        questionRepository.reload();
+    }
+
+    @Test
+    void shouldThrowExceptionForMissingDependenciesOrInvalidInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new QuestionStatsService(null, questionStatsRepository,
+            leaderboardRepository, QuestionStatsService.Selection.ADAPTIVE, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new QuestionStatsService(questionRepository, null,
+            leaderboardRepository, QuestionStatsService.Selection.ADAPTIVE, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new QuestionStatsService(questionRepository,
+            questionStatsRepository, null, QuestionStatsService.Selection.ADAPTIVE, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new QuestionStatsService(questionRepository,
+            questionStatsRepository, leaderboardRepository, null, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new QuestionStatsService(questionRepository,
+            questionStatsRepository, leaderboardRepository, QuestionStatsService.Selection.ADAPTIVE, Duration.ZERO));
+    }
+
+    @Test
+    void shouldEstimateDifficultyFromDeclaredDifficultyAndThenFromAnswers() {
+        QuestionStatsService service = service(QuestionStatsService.Selection.ADAPTIVE);
+        int easy = indexOf(Difficulty.EASY);
+        int hard = indexOf(Difficulty.HARD);
+        assertTrue(service.getDifficulty(easy) < service.getDifficulty(hard));
+
+        for (int i = 0; i < 100; i++) {
+            service.recordAnswer(1, easy, 1, false);
+            service.recordAnswer(1, hard, 0, true);
+        }
+
+        assertTrue(service.getDifficulty(easy) > 0.9);
+        assertTrue(service.getDifficulty(hard) < 0.1);
+    }
+
+    @Test
+    void shouldServeHarderQuestionsToMoreAccuratePlayers() {
+        QuestionStatsService service = service(QuestionStatsService.Selection.ADAPTIVE);
+        List<Question> questions = questionRepository.findAll();
+        // Every other question is made hard and the rest easy, so both ends of the scale hold questions
+        for (int position = 0; position < questions.size(); position++) {
+            int questionIndex = questionRepository.findIndexAt(position);
+            for (int i = 0; i < 50; i++) {
+                service.recordAnswer(0, questionIndex, 0, position % 2 == 0);
+            }
+        }
+        for (int i = 0; i < 50; i++) {
+            service.recordAnswer(1, 0, 0, true);
+            service.recordAnswer(2, 0, 1, false);
+        }
+        service.refresh();
+
+        for (int i = 0; i < 50; i++) {
+            int strongPosition = service.nextPosition(1, questions);
+            int weakPosition = service.nextPosition(2, questions);
+            assertEquals(1, strongPosition % 2, "Accurate players should get hard questions");
+            assertEquals(0, weakPosition % 2, "Struggling players should get easy questions");
+            assertTrue(service.getDifficulty(questionRepository.findIndexAt(strongPosition))
+                > service.getDifficulty(questionRepository.findIndexAt(weakPosition)));
+        }
+    }
+
+    @Test
+    void shouldServeNewPlayersFromTheClosestBucketHoldingQuestions() {
+        QuestionStatsService service = service(QuestionStatsService.Selection.ADAPTIVE);
+        List<Question> questions = questionRepository.findAll();
+        service.refresh();
+
+        List<Integer> served = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int position = service.nextPosition(5, questions);
+            assertTrue(position >= 0 && position < questions.size());
+            served.add(position);
+        }
+        assertTrue(served.stream().distinct().count() > 1, "A bucket's questions should be drawn at random");
+    }
+
+    @Test
+    void shouldSpillIntoNeighbouringBucketsWhenThePlayersBucketIsSmall() {
+        QuestionStatsService service = service(QuestionStatsService.Selection.ADAPTIVE);
+        List<Question> questions = questionRepository.findAll();
+        // Only the first question is very hard, the next four are a little easier, and the rest are easy
+        for (int position = 0; position < questions.size(); position++) {
+            int questionIndex = questionRepository.findIndexAt(position);
+            for (int i = 0; i < 50; i++) {
+                boolean correct = position == 0 ? false : position < 5 ? i % 5 == 0 : true;
+                service.recordAnswer(0, questionIndex, 0, correct);
+            }
+        }
+        int easiest = questionRepository.findIndexAt(questions.size() - 1);
+        for (int i = 0; i < 50; i++) {
+            service.recordAnswer(1, easiest, 0, true);
+        }
+        service.refresh();
+
+        List<Integer> served = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int position = service.nextPosition(1, questions);
+            assertTrue(position >= 0 && position < 5, "Only hard questions should be served, got " + position);
+            served.add(position);
+        }
+        assertTrue(served.contains(0), "The player's own bucket should still be drawn from");
+        assertTrue(served.stream().distinct().count() > 1, "A one-question bucket should not be served every time");
+    }
+
+    @Test
+    void shouldSkipQuestionsThePlayerHasAnsweredCorrectly() {
+        QuestionStatsService service = service(QuestionStatsService.Selection.ADAPTIVE);
+        List<Question> questions = questionRepository.findAll();
+        int playerId = playerRepository.register("alice");
+        service.refresh();
+
+        // Each served question is answered correctly before the next pick, so none should be served twice
+        List<Integer> served = new ArrayList<>();
+        int position = service.nextPosition(playerId, questions);
+        while (position >= 0) {
+            assertFalse(served.contains(position), "Question at " + position + " was already answered correctly");
+            served.add(position);
+            leaderboardRepository.recordAnswer(playerId, questionRepository.findIndexAt(position), true);
+            position = service.nextPosition(playerId, questions);
+        }
+        assertTrue(served.size() >= QuestionStatsService.MIN_CANDIDATES,
+            "Every candidate should be served before falling back to the deck");
+    }
+
+    @Test
+    void shouldNotSelectWhenSelectingByDeckOrBeforeBucketsMatchTheServedQuestions() throws Exception {
+        List<Question> questions = questionRepository.findAll();
+        QuestionStatsService deck = service(QuestionStatsService.Selection.DECK);
+        deck.refresh();
+        assertEquals(-1, deck.nextPosition(1, questions));
+
+        QuestionStatsService adaptive = service(QuestionStatsService.Selection.ADAPTIVE);
+        assertEquals(-1, adaptive.nextPosition(1, questions), "No buckets have been built yet");
+        adaptive.refresh();
+        questionRepository.reload();
+        assertEquals(-1, adaptive.nextPosition(1, questionRepository.findAll()), "Buckets are for the old questions");
+        adaptive.refresh();
+        assertTrue(adaptive.nextPosition(1, questionRepository.findAll()) >= 0);
+    }
+
+    @Test
+    void shouldSplitAnswersBetweenTheQuestionsAnswersInStoredOrder() {
+        QuestionStatsService service = service(QuestionStatsService.Selection.DECK);
+        Question question = questionRepository.findByIndex(0).orElseThrow();
+        service.recordAnswer(1, 0, 2, false);
+        service.recordAnswer(2, 0, 2, false);
+        service.recordAnswer(3, 0, 0, true);
+
+        AnswerDistribution distribution = service.getAnswerDistribution(0).orElseThrow();
+
+        assertEquals(question.id(), distribution.questionId());
+        assertEquals(question.questionText(), distribution.questionText());
+        assertEquals(3, distribution.total());
+        assertEquals(List.of(
+            new AnswerCount("A", question.optionalAnswers().get(0).text(), 1),
+            new AnswerCount("B", question.optionalAnswers().get(1).text(), 0),
+            new AnswerCount("C", question.optionalAnswers().get(2).text(), 2),
+            new AnswerCount("D", question.optionalAnswers().get(3).text(), 0)), distribution.answers());
+        assertTrue(service.getAnswerDistribution(-1).isEmpty());
+        assertTrue(service.getAnswerDistribution(Integer.MAX_VALUE).isEmpty());
+    }
+
+    private QuestionStatsService service(QuestionStatsService.Selection selection) {
+        return new QuestionStatsService(questionRepository, questionStatsRepository, leaderboardRepository, selection,
+            Duration.ofSeconds(1));
+    }
+
+    private int indexOf(Difficulty difficulty) {
+        return questionRepository.indexOf(questionRepository.findAll().stream()
+            .filter(question -> question.difficulty() == difficulty).findFirst().orElseThrow().id());
+    }
+}
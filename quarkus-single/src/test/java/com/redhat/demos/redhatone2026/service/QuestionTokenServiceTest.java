@@ -0,0 +1,78 @@
+package com.redhat.demos.redhatone2026.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuestionTokenServiceTest {
+
+    private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes();
+
+    private final QuestionTokenService questionTokenService = new QuestionTokenService(KEY);
+
+    @Test
+    void shouldRejectMissingOrShortKey() {
+        assertThrows(IllegalArgumentException.class, () -> new QuestionTokenService((byte[]) null));
+        assertThrows(IllegalArgumentException.class,
+            () -> new QuestionTokenService(new byte[QuestionTokenService.MIN_KEY_SIZE - 1]));
+        assertThrows(IllegalArgumentException.class, () -> new QuestionTokenService(Optional.of("not base64!")));
+    }
+
+    @Test
+    void shouldReturnTheAnswerOrderOfEveryIssuedToken() {
+        for (int answerOrder = 0; answerOrder < QuestionTokenService.ANSWER_ORDERS; answerOrder++) {
+            String token = questionTokenService.issue(123_456, answerOrder);
+            assertEquals(answerOrder, questionTokenService.answerOrder(123_456, token));
+        }
+    }
+
+    @Test
+    void shouldAcceptTokensIssuedWithTheSameConfiguredKey() {
+        QuestionTokenService replica = new QuestionTokenService(Optional.of(Base64.getEncoder().encodeToString(KEY)));
+
+        assertEquals(5, replica.answerOrder(42, questionTokenService.issue(42, 5)));
+    }
+
+    @Test
+    void shouldRejectTokensForOtherQuestionsOrKeysAndTamperedTokens() {
+        String token = questionTokenService.issue(42, 5);
+
+        assertEquals(-1, questionTokenService.answerOrder(43, token));
+        assertEquals(-1, QuestionTokenService.withRandomKey().answerOrder(42, token));
+        assertEquals(-1, questionTokenService.answerOrder(42, null));
+        assertEquals(-1, questionTokenService.answerOrder(42, ""));
+        assertEquals(-1, questionTokenService.answerOrder(42, token + "A"));
+        assertEquals(-1, questionTokenService.answerOrder(42, "*".repeat(token.length())));
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        for (int i = 0; i < bytes.length; i++) {
+            byte[] tampered = bytes.clone();
+            tampered[i] ^= 1;
+            assertEquals(-1, questionTokenService.answerOrder(42,
+                Base64.getUrlEncoder().withoutPadding().encodeToString(tampered)), "Tampered at byte " + i);
+        }
+    }
+
+    @Test
+    void shouldShowEveryOrderOfTheAnswersOnceStartingWithTheStoredOrder() {
+        Set<List<Integer>> orders = new HashSet<>();
+        for (int answerOrder = 0; answerOrder < QuestionTokenService.ANSWER_ORDERS; answerOrder++) {
+            Integer[] order = new Integer[4];
+            for (int shown = 0; shown < 4; shown++) {
+                order[shown] = QuestionTokenService.bankPosition(answerOrder, shown);
+                assertEquals(shown, QuestionTokenService.shownPosition(answerOrder, order[shown]));
+            }
+            assertEquals(4, Set.of(order).size());
+            orders.add(List.of(order));
+        }
+        assertEquals(QuestionTokenService.ANSWER_ORDERS, orders.size());
+        for (int shown = 0; shown < 4; shown++) {
+            assertEquals(shown, QuestionTokenService.bankPosition(0, shown));
+        }
+    }
+}